@@ -0,0 +1,84 @@
+#!/usr/bin/env python3
+"""Compare two JMH JSON result files (mvn -Pbenchmark test-compile exec:exec).
+
+Usage: scripts/compare-benchmarks.py BASELINE.json CANDIDATE.json [--threshold PCT]
+
+Prints one row per benchmark (and param set) with the relative change of the
+primary score. Exits with status 1 when a benchmark got worse by more than
+--threshold percent (default 10) and the change is larger than the combined
+score error, so it can gate CI.
+"""
+import argparse
+import json
+import sys
+
+# modes where a larger score is better; the rest (avgt, sample, ss) are times
+HIGHER_IS_BETTER = {"thrpt"}
+
+
+def load(path):
+    with open(path) as f:
+        results = {}
+        for run in json.load(f):
+            params = run.get("params") or {}
+            key = run["benchmark"].rsplit(".", 2)[-2:]
+            key = ".".join(key)
+            if params:
+                key += " [" + ", ".join(f"{k}={v}" for k, v in sorted(params.items())) + "]"
+            metric = run["primaryMetric"]
+            error = metric.get("scoreError")
+            results[key] = {
+                "mode": run["mode"],
+                "score": metric["score"],
+                "error": 0.0 if error in (None, "NaN") or error != error else float(error),
+                "unit": metric["scoreUnit"],
+            }
+        return results
+
+
+def main():
+    parser = argparse.ArgumentParser(description=__doc__.splitlines()[0])
+    parser.add_argument("baseline")
+    parser.add_argument("candidate")
+    parser.add_argument("--threshold", type=float, default=10.0,
+                        help="regression threshold in percent (default 10)")
+    args = parser.parse_args()
+
+    baseline = load(args.baseline)
+    candidate = load(args.candidate)
+
+    regressions = []
+    width = max((len(k) for k in baseline.keys() | candidate.keys()), default=10)
+
+    print(f"{'benchmark':<{width}}  {'baseline':>12}  {'candidate':>12}  {'change':>8}  unit")
+
+    for key in sorted(baseline.keys() | candidate.keys()):
+        old, new = baseline.get(key), candidate.get(key)
+
+        if old is None or new is None:
+            only = "candidate" if old is None else "baseline"
+            print(f"{key:<{width}}  (only in {only})")
+            continue
+
+        change = (new["score"] - old["score"]) / old["score"] * 100 if old["score"] else 0.0
+        worse = -change if old["mode"] in HIGHER_IS_BETTER else change
+        significant = abs(new["score"] - old["score"]) > old["error"] + new["error"]
+
+        flag = ""
+        if worse > args.threshold and significant:
+            flag = "  REGRESSION"
+            regressions.append(key)
+        elif worse < -args.threshold and significant:
+            flag = "  improved"
+
+        print(f"{key:<{width}}  {old['score']:>12.3f}  {new['score']:>12.3f}  "
+              f"{change:>+7.1f}%  {new['unit']}{flag}")
+
+    if regressions:
+        print(f"\n{len(regressions)} regression(s) above {args.threshold:.0f}%", file=sys.stderr)
+        return 1
+    return 0
+
+
+if __name__ == "__main__":
+    sys.exit(main())
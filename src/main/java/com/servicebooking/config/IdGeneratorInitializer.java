@@ -0,0 +1,101 @@
+package com.servicebooking.config;
+
+import com.servicebooking.entity.IdGenerators;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.TableGenerator;
+import jakarta.persistence.metamodel.EntityType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.Map;
+
+// Moves each id_generators row past the ids already in its table, so databases
+// created under IDENTITY keep working after the switch to pooled table generators.
+// Runs once the EntityManagerFactory (and its schema update) is up; a row is only
+// ever raised, so concurrent startups on several nodes are harmless.
+@Component
+public class IdGeneratorInitializer {
+
+    private static final Logger log = LoggerFactory.getLogger(IdGeneratorInitializer.class);
+
+    // Archived rows keep their ids, so those tables count toward the high-water mark too
+    private static final Map<String, String> ARCHIVE_TABLES = Map.of(
+            "bookings", "bookings_archive",
+            "payments", "payments_archive",
+            "rating", "ratings_archive");
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void alignWithExistingRows() {
+
+        for (EntityType<?> entity : entityManagerFactory.getMetamodel().getEntities()) {
+
+            TableGenerator generator = tableGeneratorOf(entity.getJavaType());
+            if (generator == null) continue;
+
+            String segment = generator.pkColumnValue();
+            long next = maxId(segment) + 1;
+
+            if (ARCHIVE_TABLES.containsKey(segment)) {
+                next = Math.max(next, maxId(ARCHIVE_TABLES.get(segment)) + 1);
+            }
+
+            align(segment, next);
+        }
+    }
+
+    private void align(String segment, long next) {
+
+        List<Long> current = jdbcTemplate.queryForList(
+                "SELECT " + IdGenerators.VALUE_COLUMN + " FROM " + IdGenerators.TABLE
+                        + " WHERE " + IdGenerators.SEGMENT_COLUMN + " = ?",
+                Long.class, segment);
+
+        if (current.isEmpty()) {
+            try {
+                jdbcTemplate.update(
+                        "INSERT INTO " + IdGenerators.TABLE + " (" + IdGenerators.SEGMENT_COLUMN + ", "
+                                + IdGenerators.VALUE_COLUMN + ") VALUES (?, ?)",
+                        segment, next);
+                log.info("Seeded id generator {} at {}", segment, next);
+                return;
+            } catch (DuplicateKeyException e) {
+                // another node seeded it first; fall through to the conditional raise
+            }
+        }
+
+        int raised = jdbcTemplate.update(
+                "UPDATE " + IdGenerators.TABLE + " SET " + IdGenerators.VALUE_COLUMN + " = ? "
+                        + "WHERE " + IdGenerators.SEGMENT_COLUMN + " = ? AND " + IdGenerators.VALUE_COLUMN + " < ?",
+                next, segment, next);
+
+        if (raised > 0) {
+            log.info("Raised id generator {} to {}", segment, next);
+        }
+    }
+
+    private long maxId(String table) {
+        Long max = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+        return max != null ? max : 0;
+    }
+
+    private TableGenerator tableGeneratorOf(Class<?> type) {
+        for (Field field : type.getDeclaredFields()) {
+            TableGenerator generator = field.getAnnotation(TableGenerator.class);
+            if (generator != null) return generator;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,38 @@
+package com.servicebooking.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Token-bucket limits for /api/auth endpoints, keyed by the last path segment
+// (login, register, forgot-password, reset-password).
+@Data
+@Component
+@ConfigurationProperties(prefix = "ratelimit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    // buckets untouched for this long (and already refilled) are dropped
+    private long idleEvictMs = 300000;
+
+    // hard cap on live buckets; least recently used ones are evicted beyond it
+    private int maxBuckets = 100000;
+
+    private Map<String, EndpointLimit> endpoints = new HashMap<>();
+
+    @Data
+    public static class EndpointLimit {
+        private Limit ip;
+        private Limit email;
+    }
+
+    @Data
+    public static class Limit {
+        private int capacity;
+        private int refillPerMinute;
+    }
+}
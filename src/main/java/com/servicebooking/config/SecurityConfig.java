@@ -2,6 +2,12 @@ package com.servicebooking.config;
 
 import com.servicebooking.security.CustomUserDetailsService;
 import com.servicebooking.security.JwtAuthenticationFilter;
+import com.servicebooking.security.RateLimitFilter;
+import com.servicebooking.security.RehashingBCryptPasswordEncoder;
+import jakarta.servlet.DispatcherType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -11,7 +17,6 @@ import org.springframework.security.config.annotation.method.configuration.Enabl
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -21,18 +26,42 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 @EnableMethodSecurity
 public class SecurityConfig {
 
+    private static final Logger log = LoggerFactory.getLogger(SecurityConfig.class);
+
     private final CustomUserDetailsService userDetailsService;
     private final JwtAuthenticationFilter jwtFilter;
+    private final RateLimitFilter rateLimitFilter;
+
+    // One BCrypt cost for the whole cluster; stored hashes below it are upgraded on login
+    @Value("${security.bcrypt.strength:10}")
+    private int bcryptStrength;
+
+    // Opt-in: measure this machine and log the cost that would meet target-millis
+    @Value("${security.bcrypt.calibrate:false}")
+    private boolean bcryptCalibrate;
+
+    @Value("${security.bcrypt.target-millis:250}")
+    private long bcryptTargetMillis;
 
     public SecurityConfig(CustomUserDetailsService userDetailsService,
-                          JwtAuthenticationFilter jwtFilter) {
+                          JwtAuthenticationFilter jwtFilter,
+                          RateLimitFilter rateLimitFilter) {
         this.userDetailsService = userDetailsService;
         this.jwtFilter = jwtFilter;
+        this.rateLimitFilter = rateLimitFilter;
     }
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+
+        if (bcryptCalibrate) {
+            int recommended = RehashingBCryptPasswordEncoder.calibrate(bcryptTargetMillis, 10, 16);
+            log.info("BCrypt cost {} hashes in about {} ms on this machine (configured cost is {}); "
+                    + "set security.bcrypt.strength on every node to change it",
+                    recommended, bcryptTargetMillis, bcryptStrength);
+        }
+
+        return new RehashingBCryptPasswordEncoder(bcryptStrength);
     }
 
     @Bean
@@ -43,6 +72,9 @@ public class SecurityConfig {
 
         provider.setPasswordEncoder(passwordEncoder());
 
+        // re-encodes the stored hash on successful login when the cost changed
+        provider.setUserDetailsPasswordService(userDetailsService);
+
         return provider;
     }
 
@@ -53,6 +85,8 @@ public class SecurityConfig {
                 .sessionManagement(s ->
                         s.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
+                        // async re-dispatches (SSE, streamed exports) were authorized on the original request
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll()
                         .requestMatchers("/api/auth/**").permitAll()
                         .requestMatchers("/swagger-ui/**", "/v3/api-docs/**").permitAll()
                         .requestMatchers("/api/admin/**").hasRole("ADMIN")
@@ -62,7 +96,9 @@ public class SecurityConfig {
                 )
                 .authenticationProvider(provider())
                 .addFilterBefore(jwtFilter,
-                        UsernamePasswordAuthenticationFilter.class);
+                        UsernamePasswordAuthenticationFilter.class)
+                .addFilterBefore(rateLimitFilter,
+                        JwtAuthenticationFilter.class);
 
         return http.build();
     }
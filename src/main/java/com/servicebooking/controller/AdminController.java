@@ -10,6 +10,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.Map;
 
 @RestController
@@ -45,4 +46,79 @@ public class AdminController {
                 adminService.getMonthlyReport()
         );
     }
-}
\ No newline at end of file
+
+    // ================= RUNTIME STATS =================
+    @GetMapping("/runtime-stats")
+    @Operation(
+            summary = "Get runtime cache and executor statistics",
+            description = "Returns in-process counters such as token cache hits and misses"
+    )
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getRuntimeStats() {
+        return ResponseEntity.ok(
+                adminService.getRuntimeStats()
+        );
+    }
+
+    // ================= REBUILD DAILY STATS =================
+    @PostMapping("/daily-stats/rebuild")
+    @Operation(
+            summary = "Rebuild daily stats rollup",
+            description = "Recomputes daily booking counts and revenue from source tables (whole history by default)"
+    )
+    public ResponseEntity<ApiResponse<Map<String, Object>>> rebuildDailyStats(
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to) {
+        return ResponseEntity.ok(
+                adminService.rebuildDailyStats(
+                        from != null ? LocalDate.parse(from) : LocalDate.EPOCH,
+                        to != null ? LocalDate.parse(to) : LocalDate.now())
+        );
+    }
+
+    // ================= RUN DISPATCH =================
+    @PostMapping("/dispatch/run")
+    @Operation(
+            summary = "Run provider dispatch",
+            description = "Assigns unassigned PENDING bookings to the best available providers now"
+    )
+    public ResponseEntity<ApiResponse<Map<String, Object>>> runDispatch() {
+        return ResponseEntity.ok(
+                adminService.runDispatch()
+        );
+    }
+
+    // ================= ARCHIVE =================
+    @PostMapping("/archive/run")
+    @Operation(
+            summary = "Run booking archival",
+            description = "Moves closed bookings past the retention window, with their payments and ratings, into archive tables"
+    )
+    public ResponseEntity<ApiResponse<Map<String, Object>>> runArchive() {
+        return ResponseEntity.ok(
+                adminService.runArchive()
+        );
+    }
+
+    @GetMapping("/archive/progress")
+    @Operation(
+            summary = "Booking archival progress",
+            description = "Rows moved so far, the mover's position and how many closed bookings are still eligible"
+    )
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getArchiveProgress() {
+        return ResponseEntity.ok(
+                adminService.getArchiveProgress()
+        );
+    }
+
+    // ================= REBUILD BOOKING VIEW =================
+    @PostMapping("/booking-view/rebuild")
+    @Operation(
+            summary = "Rebuild booking read model",
+            description = "Re-reads every live booking into booking_view, the table the list and search endpoints read"
+    )
+    public ResponseEntity<ApiResponse<Map<String, Object>>> rebuildBookingView() {
+        return ResponseEntity.ok(
+                adminService.rebuildBookingView()
+        );
+    }
+}
@@ -78,7 +78,8 @@ public class AuthController {
             summary = "Logout user",
             description = "Invalidate JWT token / clear session"
     )
-    public ResponseEntity<ApiResponse<String>> logout() {
-        return ResponseEntity.ok(authService.logout());
+    public ResponseEntity<ApiResponse<String>> logout(
+            @RequestHeader(value = "Authorization", required = false) String authorization) {
+        return ResponseEntity.ok(authService.logout(authorization));
     }
 }
\ No newline at end of file
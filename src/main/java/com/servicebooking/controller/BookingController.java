@@ -1,21 +1,31 @@
 package com.servicebooking.controller;
 
+import com.servicebooking.dto.request.BatchStatusUpdateRequest;
 import com.servicebooking.dto.request.BookingCreateRequest;
 import com.servicebooking.dto.response.ApiResponse;
+import com.servicebooking.dto.response.BatchStatusUpdateResponse;
 import com.servicebooking.dto.response.BookingResponseDTO;
+import com.servicebooking.dto.response.CursorPageResponse;
 import com.servicebooking.dto.response.PageResponse;
 import com.servicebooking.enums.BookingStatus;
 import com.servicebooking.service.BookingService;
+import com.servicebooking.service.IdempotencyService;
 
 import io.swagger.v3.oas.annotations.Operation;
+import jakarta.validation.Valid;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
@@ -29,15 +39,22 @@ public class BookingController {
     @Autowired
     private BookingService bookingService;
 
+    @Autowired
+    private IdempotencyService idempotencyService;
+
     // ================= CREATE BOOKING =================
     @PostMapping
     @PreAuthorize("hasRole('CUSTOMER')")
     @Operation(summary = "Create booking",
             description = "Customer creates a booking")
     public ResponseEntity<ApiResponse<BookingResponseDTO>> createBooking(
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             @RequestBody BookingCreateRequest request) {
 
-        return ResponseEntity.ok(bookingService.createBooking(request));
+        return ResponseEntity.ok(
+                idempotencyService.execute("booking:create", idempotencyKey, request,
+                        BookingResponseDTO::getBookingId, bookingService::getBooking,
+                        () -> bookingService.createBooking(request)));
     }
 
     // ================= ASSIGN PROVIDER =================
@@ -66,6 +83,18 @@ public class BookingController {
                 bookingService.updateStatus(id, status));
     }
 
+    // ================= BATCH UPDATE STATUS =================
+    @PostMapping("/batch/status")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Batch update booking status",
+            description = "Admin moves up to 5000 bookings to a status; returns a result per booking id")
+    public ResponseEntity<ApiResponse<BatchStatusUpdateResponse>> updateStatusBatch(
+            @Valid @RequestBody BatchStatusUpdateRequest request) {
+
+        return ResponseEntity.ok(
+                bookingService.updateStatusBatch(request));
+    }
+
     // ================= CUSTOMER BOOKINGS =================
     @GetMapping("/customer")
     @PreAuthorize("hasRole('CUSTOMER')")
@@ -92,6 +121,57 @@ public class BookingController {
                 bookingService.getProviderBookings(page, size));
     }
 
+    // ================= CUSTOMER BOOKING FEED =================
+    @GetMapping("/customer/feed")
+    @PreAuthorize("hasRole('CUSTOMER')")
+    @Operation(summary = "Customer booking feed",
+            description = "Cursor-paginated customer bookings, newest first")
+    public ResponseEntity<ApiResponse<CursorPageResponse<BookingResponseDTO>>> getCustomerBookingFeed(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+
+        return ResponseEntity.ok(
+                bookingService.getCustomerBookingFeed(cursor, size));
+    }
+
+    // ================= PROVIDER BOOKING FEED =================
+    @GetMapping("/provider/feed")
+    @PreAuthorize("hasRole('PROVIDER')")
+    @Operation(summary = "Provider booking feed",
+            description = "Cursor-paginated provider bookings, newest first")
+    public ResponseEntity<ApiResponse<CursorPageResponse<BookingResponseDTO>>> getProviderBookingFeed(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+
+        return ResponseEntity.ok(
+                bookingService.getProviderBookingFeed(cursor, size));
+    }
+
+    // ================= PROVIDER STREAM =================
+    @GetMapping(value = "/provider/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('PROVIDER')")
+    @Operation(summary = "Provider booking stream",
+            description = "Server-Sent Events of booking changes for the current provider; "
+                    + "send Last-Event-ID to resume after a reconnect")
+    public SseEmitter streamProviderBookings(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+
+        return bookingService.streamProviderBookings(lastEventId);
+    }
+
+    // ================= PROVIDER FREE SLOTS =================
+    @GetMapping("/provider/{providerId}/free-slots")
+    @PreAuthorize("isAuthenticated()")
+    @Operation(summary = "Provider free slots",
+            description = "Open booking slots for a provider on a given day (yyyy-MM-dd)")
+    public ResponseEntity<ApiResponse<List<LocalDateTime>>> getProviderFreeSlots(
+            @PathVariable Long providerId,
+            @RequestParam String date) {
+
+        return ResponseEntity.ok(
+                bookingService.getProviderFreeSlots(providerId, LocalDate.parse(date)));
+    }
+
     // ================= FILTER BOOKINGS =================
     @PostMapping("/filter")
     @PreAuthorize("hasRole('ADMIN')")
@@ -186,4 +266,30 @@ public class BookingController {
                         LocalDateTime.parse(start),
                         LocalDateTime.parse(end)));
     }
-}
\ No newline at end of file
+
+    // ================= EXPORT BETWEEN DATES =================
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Export bookings between dates",
+            description = "Streams bookings in the range as NDJSON (default) or CSV")
+    public ResponseEntity<StreamingResponseBody> exportBookingsBetweenDates(
+            @RequestParam String start,
+            @RequestParam String end,
+            @RequestParam(defaultValue = "ndjson") String format) {
+
+        LocalDateTime from = LocalDateTime.parse(start);
+        LocalDateTime to = LocalDateTime.parse(end);
+        boolean csv = bookingService.isCsvExport(format);
+
+        StreamingResponseBody body = out ->
+                bookingService.exportBookingsBetweenDates(from, to, format, out);
+
+        return ResponseEntity.ok()
+                .contentType(csv
+                        ? MediaType.parseMediaType("text/csv")
+                        : MediaType.parseMediaType("application/x-ndjson"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"bookings." + (csv ? "csv" : "ndjson") + "\"")
+                .body(body);
+    }
+}
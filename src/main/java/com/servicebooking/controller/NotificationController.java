@@ -1,6 +1,7 @@
 package com.servicebooking.controller;
 
 import com.servicebooking.dto.response.ApiResponse;
+import com.servicebooking.dto.response.CursorPageResponse;
 import com.servicebooking.dto.response.PageResponse;
 import com.servicebooking.entity.Notification;
 import com.servicebooking.service.NotificationService;
@@ -37,6 +38,22 @@ public class NotificationController {
         );
     }
 
+    // ================= NOTIFICATION FEED =================
+    @GetMapping("/feed")
+    @PreAuthorize("isAuthenticated()")
+    @Operation(
+            summary = "Get user notification feed",
+            description = "Cursor-paginated notifications for the logged-in user, newest first"
+    )
+    public ResponseEntity<ApiResponse<CursorPageResponse<Notification>>> getUserNotificationFeed(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+
+        return ResponseEntity.ok(
+                notificationService.getUserNotificationFeed(cursor, size)
+        );
+    }
+
     // ================= MARK AS READ =================
     @PutMapping("/{id}/read")
     @PreAuthorize("isAuthenticated()")
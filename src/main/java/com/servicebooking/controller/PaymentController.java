@@ -3,6 +3,7 @@ package com.servicebooking.controller;
 import com.servicebooking.dto.response.ApiResponse;
 import com.servicebooking.entity.Payment;
 import com.servicebooking.enums.PaymentStatus;
+import com.servicebooking.service.IdempotencyService;
 import com.servicebooking.service.PaymentService;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -28,6 +29,9 @@ public class PaymentController {
     @Autowired
     private PaymentService paymentService;
 
+    @Autowired
+    private IdempotencyService idempotencyService;
+
     // ================= RECORD PAYMENT =================
     @PostMapping
     @PreAuthorize("hasAnyRole('CUSTOMER','ADMIN')")
@@ -36,10 +40,13 @@ public class PaymentController {
             description = "Create a payment for a booking"
     )
     public ResponseEntity<ApiResponse<Payment>> recordPayment(
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             @RequestBody Map<String, Object> request) {
 
         return ResponseEntity.ok(
-                paymentService.recordPayment(request));
+                idempotencyService.execute("payment:record", idempotencyKey, request,
+                        Payment::getId, paymentService::getPayment,
+                        () -> paymentService.recordPayment(request)));
     }
 
     // ================= MARK COMPLETE =================
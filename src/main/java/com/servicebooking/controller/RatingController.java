@@ -1,6 +1,7 @@
 package com.servicebooking.controller;
 
 import com.servicebooking.dto.response.ApiResponse;
+import com.servicebooking.dto.response.CursorPageResponse;
 import com.servicebooking.dto.response.PageResponse;
 import com.servicebooking.dto.response.RatingResponseDTO;
 import com.servicebooking.service.RatingService;
@@ -57,6 +58,23 @@ public class RatingController {
         );
     }
 
+    // ================= PROVIDER RATING FEED =================
+    @GetMapping("/provider/{providerId}/feed")
+    @PreAuthorize("isAuthenticated()")
+    @Operation(
+            summary = "Get Provider Rating Feed",
+            description = "Cursor-paginated ratings for a provider, newest first"
+    )
+    public ResponseEntity<ApiResponse<CursorPageResponse<RatingResponseDTO>>> getProviderRatingFeed(
+            @PathVariable Long providerId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+
+        return ResponseEntity.ok(
+                ratingService.getProviderRatingFeed(providerId, cursor, size)
+        );
+    }
+
     // ================= AVERAGE RATING =================
     @GetMapping("/provider/{providerId}/average")
     @PreAuthorize("permitAll()")
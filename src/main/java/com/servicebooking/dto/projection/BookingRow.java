@@ -0,0 +1,27 @@
+package com.servicebooking.dto.projection;
+
+import com.servicebooking.enums.BookingStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Flat row with exactly the columns BookingResponseDTO needs, read in one joined query
+public record BookingRow(
+        Long bookingId,
+        Long customerId,
+        String customerName,
+        String customerEmail,
+        String customerMobile,
+        Long providerId,
+        String providerName,
+        Double providerRating,
+        Long serviceId,
+        String serviceName,
+        String categoryName,
+        BigDecimal servicePrice,
+        LocalDateTime bookingDateTime,
+        String location,
+        BookingStatus status,
+        BigDecimal amount,
+        LocalDateTime createdAt) {
+}
@@ -0,0 +1,17 @@
+package com.servicebooking.dto.projection;
+
+import com.servicebooking.enums.BookingStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Just enough of a booking to validate a status move and publish its event
+public record BookingStateRow(
+        Long bookingId,
+        BookingStatus status,
+        Long customerId,
+        Long providerId,
+        LocalDateTime bookingDateTime,
+        LocalDateTime createdAt,
+        BigDecimal amount) {
+}
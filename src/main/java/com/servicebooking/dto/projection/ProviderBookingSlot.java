@@ -0,0 +1,6 @@
+package com.servicebooking.dto.projection;
+
+import java.time.LocalDateTime;
+
+public record ProviderBookingSlot(Long providerId, Long bookingId, LocalDateTime start) {
+}
@@ -0,0 +1,8 @@
+package com.servicebooking.dto.projection;
+
+public record ProviderCandidateRow(
+        Long providerId,
+        Double rating,
+        Integer completedJobs,
+        String selectedServices) {
+}
@@ -0,0 +1,7 @@
+package com.servicebooking.dto.projection;
+
+// Star sum and count, so averages can be combined across tables
+public record RatingTotals(
+        Long starTotal,
+        Long count) {
+}
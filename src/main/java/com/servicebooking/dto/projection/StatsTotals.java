@@ -0,0 +1,14 @@
+package com.servicebooking.dto.projection;
+
+import java.math.BigDecimal;
+
+// Sum of daily_stats rows over a range
+public record StatsTotals(
+        Long totalBookings,
+        Long pendingBookings,
+        Long acceptedBookings,
+        Long completedBookings,
+        Long cancelledBookings,
+        Long completedPayments,
+        BigDecimal revenue) {
+}
@@ -0,0 +1,9 @@
+package com.servicebooking.dto.projection;
+
+import java.time.LocalDateTime;
+
+// Per-user instant before which issued tokens are no longer accepted
+public record TokenCutoff(
+        String email,
+        LocalDateTime tokensValidAfter) {
+}
@@ -0,0 +1,20 @@
+package com.servicebooking.dto.request;
+
+import com.servicebooking.enums.BookingStatus;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BatchStatusUpdateRequest {
+
+    @NotEmpty
+    @Size(max = 5000)
+    private List<Long> bookingIds;
+
+    @NotNull
+    private BookingStatus status;
+}
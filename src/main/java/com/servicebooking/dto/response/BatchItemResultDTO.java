@@ -0,0 +1,16 @@
+package com.servicebooking.dto.response;
+
+import com.servicebooking.enums.BatchItemOutcome;
+import com.servicebooking.enums.BookingStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchItemResultDTO {
+    private Long bookingId;
+    private BatchItemOutcome outcome;
+    private BookingStatus previousStatus;
+}
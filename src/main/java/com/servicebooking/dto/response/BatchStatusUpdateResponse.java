@@ -0,0 +1,18 @@
+package com.servicebooking.dto.response;
+
+import com.servicebooking.enums.BookingStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchStatusUpdateResponse {
+    private BookingStatus status;
+    private Integer requested;
+    private Integer updated;
+    private List<BatchItemResultDTO> results;
+}
@@ -1,14 +1,18 @@
 package com.servicebooking.dto.response;
 
 import com.servicebooking.enums.BookingStatus;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Data
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 public class BookingResponseDTO {
 
     private Long bookingId;
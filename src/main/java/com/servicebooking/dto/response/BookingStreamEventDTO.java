@@ -0,0 +1,20 @@
+package com.servicebooking.dto.response;
+
+import com.servicebooking.enums.BookingStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingStreamEventDTO {
+    private Long bookingId;
+    private BookingStatus previousStatus;
+    private BookingStatus status;
+    private LocalDateTime bookingDateTime;
+    private BigDecimal amount;
+}
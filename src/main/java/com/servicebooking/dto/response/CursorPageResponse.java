@@ -0,0 +1,17 @@
+package com.servicebooking.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageResponse<T> {
+    private List<T> content;
+    private Integer pageSize;
+    private String nextCursor;
+    private Boolean hasMore;
+}
@@ -0,0 +1,56 @@
+package com.servicebooking.entity;
+
+import com.servicebooking.enums.BookingStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Closed bookings moved out of the live table; ids are kept so cursors and references still resolve
+@Entity
+@Table(name = "bookings_archive", indexes = {
+        @Index(name = "idx_booking_archive_customer_created", columnList = "customer_id, created_at, id"),
+        @Index(name = "idx_booking_archive_created", columnList = "created_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedBooking {
+    @Id
+    private Long id;
+
+    @ManyToOne
+    @JoinColumn(name = "customer_id", nullable = false)
+    private CustomerProfile customer;
+
+    @ManyToOne
+    @JoinColumn(name = "provider_id")
+    private ProviderProfile provider;
+
+    @ManyToOne
+    @JoinColumn(name = "service_id", nullable = false)
+    private ServiceItem service;
+
+    @Column(nullable = false)
+    private LocalDateTime bookingDateTime;
+
+    @Column(nullable = false)
+    private String location;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private BookingStatus status;
+
+    private BigDecimal amount;
+
+    private LocalDateTime createdAt;
+
+    private String customerName;
+    private String providerName;
+
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+}
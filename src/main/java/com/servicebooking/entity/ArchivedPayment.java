@@ -0,0 +1,43 @@
+package com.servicebooking.entity;
+
+import com.servicebooking.enums.PaymentMethod;
+import com.servicebooking.enums.PaymentStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "payments_archive", indexes = {
+        @Index(name = "idx_payment_archive_booking", columnList = "booking_id"),
+        @Index(name = "idx_payment_archive_status_created", columnList = "status, created_at, amount")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedPayment {
+    @Id
+    private Long id;
+
+    @Column(name = "booking_id", nullable = false)
+    private Long bookingId;
+
+    @Column(nullable = false)
+    private BigDecimal amount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private PaymentMethod method;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private PaymentStatus status;
+
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+}
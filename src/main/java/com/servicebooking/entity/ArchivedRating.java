@@ -0,0 +1,36 @@
+package com.servicebooking.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "ratings_archive", indexes = {
+        @Index(name = "idx_rating_archive_provider", columnList = "provider_id"),
+        @Index(name = "idx_rating_archive_booking", columnList = "booking_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedRating {
+    @Id
+    private Long id;
+
+    @Column(name = "booking_id")
+    private Long bookingId;
+
+    @Column(name = "provider_id")
+    private Long providerId;
+
+    private int stars;
+
+    private String comment;
+
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+}
@@ -6,20 +6,33 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "bookings")
+@Table(name = "bookings", indexes = {
+        @Index(name = "idx_booking_customer_created", columnList = "customer_id, created_at, id"),
+        @Index(name = "idx_booking_provider_created", columnList = "provider_id, created_at, id"),
+        @Index(name = "idx_booking_status_created", columnList = "status, created_at, id"),
+        @Index(name = "idx_booking_created", columnList = "created_at"),
+        @Index(name = "idx_booking_updated", columnList = "updated_at")
+}, uniqueConstraints = {
+        // One accepted booking per provider per slot; null once cancelled or completed
+        @UniqueConstraint(name = "uk_booking_provider_slot", columnNames = {"provider_id", "provider_slot"})
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @EntityListeners(AuditingEntityListener.class)
 public class Booking {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "bookings_id")
+    @TableGenerator(name = "bookings_id", table = IdGenerators.TABLE,
+            pkColumnName = IdGenerators.SEGMENT_COLUMN, valueColumnName = IdGenerators.VALUE_COLUMN,
+            pkColumnValue = "bookings", allocationSize = IdGenerators.ALLOCATION_SIZE)
     private Long id;
 
     @ManyToOne
@@ -50,6 +63,16 @@ public class Booking {
     @Column(updatable = false)
     private LocalDateTime createdAt;
 
+    // Bulk status updates set it themselves; daily_stats reconciles from it
+    @LastModifiedDate
+    private LocalDateTime updatedAt;
+
     private String customerName;
     private String providerName;
+
+    private LocalDateTime providerSlot;
+
+    @Version
+    @Column(nullable = false)
+    private Long version;
 }
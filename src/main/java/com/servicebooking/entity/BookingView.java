@@ -0,0 +1,54 @@
+package com.servicebooking.entity;
+
+import com.servicebooking.enums.BookingStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Flat read model of a live booking with everything BookingResponseDTO shows; kept
+// in step with bookings, users, providers and the catalog by BookingViewService so
+// list and search endpoints read one table
+@Entity
+@Table(name = "booking_view", indexes = {
+        @Index(name = "idx_booking_view_customer_created", columnList = "customer_id, created_at, booking_id"),
+        @Index(name = "idx_booking_view_provider_created", columnList = "provider_id, created_at, booking_id"),
+        @Index(name = "idx_booking_view_status_created", columnList = "status, created_at, booking_id"),
+        @Index(name = "idx_booking_view_service", columnList = "service_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingView {
+    @Id
+    private Long bookingId;
+
+    @Column(nullable = false)
+    private Long customerId;
+    private String customerName;
+    private String customerEmail;
+    private String customerMobile;
+
+    private Long providerId;
+    private String providerName;
+    private Double providerRating;
+
+    @Column(nullable = false)
+    private Long serviceId;
+    private String serviceName;
+    private String categoryName;
+    private BigDecimal servicePrice;
+
+    private LocalDateTime bookingDateTime;
+    private String location;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private BookingStatus status;
+
+    private BigDecimal amount;
+    private LocalDateTime createdAt;
+}
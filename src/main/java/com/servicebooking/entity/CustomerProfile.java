@@ -13,7 +13,10 @@ import lombok.NoArgsConstructor;
 public class CustomerProfile {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "customer_profiles_id")
+    @TableGenerator(name = "customer_profiles_id", table = IdGenerators.TABLE,
+            pkColumnName = IdGenerators.SEGMENT_COLUMN, valueColumnName = IdGenerators.VALUE_COLUMN,
+            pkColumnValue = "customer_profiles", allocationSize = IdGenerators.ALLOCATION_SIZE)
     private Long id;
 
     @OneToOne
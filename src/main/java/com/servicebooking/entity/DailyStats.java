@@ -0,0 +1,47 @@
+package com.servicebooking.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Per-day rollup: booking counts by the day the booking was created,
+// completed-payment revenue by the day the payment was created
+@Entity
+@Table(name = "daily_stats")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyStats {
+
+    @Id
+    private LocalDate day;
+
+    @Column(nullable = false)
+    private Long totalBookings = 0L;
+
+    @Column(nullable = false)
+    private Long pendingBookings = 0L;
+
+    @Column(nullable = false)
+    private Long acceptedBookings = 0L;
+
+    @Column(nullable = false)
+    private Long completedBookings = 0L;
+
+    @Column(nullable = false)
+    private Long cancelledBookings = 0L;
+
+    @Column(nullable = false)
+    private Long completedPayments = 0L;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal revenue = BigDecimal.ZERO;
+
+    public DailyStats(LocalDate day) {
+        this.day = day;
+    }
+}
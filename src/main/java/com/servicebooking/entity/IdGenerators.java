@@ -0,0 +1,14 @@
+package com.servicebooking.entity;
+
+// Shared settings for the pooled-lo table generators: one row per entity table in
+// id_generators, handing out blocks of ALLOCATION_SIZE ids so inserts can be batched
+public final class IdGenerators {
+
+    public static final String TABLE = "id_generators";
+    public static final String SEGMENT_COLUMN = "segment_name";
+    public static final String VALUE_COLUMN = "next_val";
+    public static final int ALLOCATION_SIZE = 50;
+
+    private IdGenerators() {
+    }
+}
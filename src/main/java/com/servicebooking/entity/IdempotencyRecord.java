@@ -0,0 +1,51 @@
+package com.servicebooking.entity;
+
+import com.servicebooking.enums.IdempotencyStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Keyed by SHA-256 of scope, principal and the client's Idempotency-Key
+@Entity
+@Table(name = "idempotency_keys",
+        indexes = @Index(name = "idx_idempotency_expires", columnList = "expires_at"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyRecord {
+
+    @Id
+    @Column(length = 64)
+    private String keyHash;
+
+    @Column(nullable = false, length = 64)
+    private String scope;
+
+    @Column(nullable = false, length = 64)
+    private String requestHash;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private IdempotencyStatus status;
+
+    // Replay re-reads the resource, so only its id and the message are kept
+    private Long resourceId;
+
+    private String responseMessage;
+
+    // Random per claim; only the holder may renew, complete or release the key
+    @Column(length = 36)
+    private String leaseOwner;
+
+    // Renewed while the holder is still working; a lapsed lease means it died
+    private LocalDateTime leaseUntil;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+}
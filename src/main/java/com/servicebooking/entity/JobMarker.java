@@ -0,0 +1,25 @@
+package com.servicebooking.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Durable progress marks for background jobs, one row per job: when a one-off
+// job completed or how far a recurring one has got
+@Entity
+@Table(name = "job_markers")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobMarker {
+
+    @Id
+    @Column(length = 64)
+    private String name;
+
+    @Column(nullable = false)
+    private LocalDateTime markedAt;
+}
@@ -0,0 +1,35 @@
+package com.servicebooking.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "otp_codes",
+        indexes = @Index(name = "idx_otp_codes_expires_at", columnList = "expiresAt"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OtpCode {
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "otp_codes_id")
+    @TableGenerator(name = "otp_codes_id", table = IdGenerators.TABLE,
+            pkColumnName = IdGenerators.SEGMENT_COLUMN, valueColumnName = IdGenerators.VALUE_COLUMN,
+            pkColumnValue = "otp_codes", allocationSize = IdGenerators.ALLOCATION_SIZE)
+    private Long id;
+
+    @Column(nullable = false, unique = true)
+    private String email;
+
+    @Column(nullable = false)
+    private String otp;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(nullable = false)
+    private Integer failedAttempts = 0;
+}
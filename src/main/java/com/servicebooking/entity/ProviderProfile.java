@@ -16,7 +16,10 @@ import java.math.BigDecimal;
 public class ProviderProfile {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "provider_profiles_id")
+    @TableGenerator(name = "provider_profiles_id", table = IdGenerators.TABLE,
+            pkColumnName = IdGenerators.SEGMENT_COLUMN, valueColumnName = IdGenerators.VALUE_COLUMN,
+            pkColumnValue = "provider_profiles", allocationSize = IdGenerators.ALLOCATION_SIZE)
     private Long id;
 
     @OneToOne
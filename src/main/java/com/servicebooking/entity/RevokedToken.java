@@ -0,0 +1,29 @@
+package com.servicebooking.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "revoked_tokens",
+        indexes = @Index(name = "idx_revoked_tokens_expires_at", columnList = "expiresAt"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevokedToken {
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "revoked_tokens_id")
+    @TableGenerator(name = "revoked_tokens_id", table = IdGenerators.TABLE,
+            pkColumnName = IdGenerators.SEGMENT_COLUMN, valueColumnName = IdGenerators.VALUE_COLUMN,
+            pkColumnValue = "revoked_tokens", allocationSize = IdGenerators.ALLOCATION_SIZE)
+    private Long id;
+
+    @Column(nullable = false, unique = true, length = 64)
+    private String tokenId;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+}
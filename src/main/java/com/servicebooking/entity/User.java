@@ -12,7 +12,9 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+        @Index(name = "idx_users_tokens_valid_after", columnList = "tokens_valid_after")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -20,7 +22,10 @@ import java.time.LocalDateTime;
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "users_id")
+    @TableGenerator(name = "users_id", table = IdGenerators.TABLE,
+            pkColumnName = IdGenerators.SEGMENT_COLUMN, valueColumnName = IdGenerators.VALUE_COLUMN,
+            pkColumnValue = "users", allocationSize = IdGenerators.ALLOCATION_SIZE)
     private Long id;
 
     private String name;
@@ -38,6 +43,9 @@ public class User {
 
     private String status = "ACTIVE";
 
+    // Tokens issued before this instant are rejected (password reset, deletion)
+    private LocalDateTime tokensValidAfter;
+
     @CreatedDate
     private LocalDateTime createdAt;
 
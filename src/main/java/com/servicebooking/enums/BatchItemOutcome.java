@@ -0,0 +1,8 @@
+package com.servicebooking.enums;
+
+public enum BatchItemOutcome {
+    UPDATED,
+    NOT_FOUND,
+    ILLEGAL_TRANSITION,
+    CONFLICT
+}
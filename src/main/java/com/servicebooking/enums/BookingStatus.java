@@ -1,8 +1,27 @@
 package com.servicebooking.enums;
 
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
 public enum BookingStatus {
     PENDING,
     ACCEPTED,
     COMPLETED,
-    CANCELLED
+    CANCELLED;
+
+    // Legal moves; COMPLETED and CANCELLED are terminal
+    private static final Map<BookingStatus, Set<BookingStatus>> TRANSITIONS = new EnumMap<>(BookingStatus.class);
+
+    static {
+        TRANSITIONS.put(PENDING, EnumSet.of(ACCEPTED, CANCELLED));
+        TRANSITIONS.put(ACCEPTED, EnumSet.of(COMPLETED, CANCELLED));
+        TRANSITIONS.put(COMPLETED, EnumSet.noneOf(BookingStatus.class));
+        TRANSITIONS.put(CANCELLED, EnumSet.noneOf(BookingStatus.class));
+    }
+
+    public boolean canTransitionTo(BookingStatus next) {
+        return TRANSITIONS.get(this).contains(next);
+    }
 }
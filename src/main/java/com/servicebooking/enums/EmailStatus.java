@@ -0,0 +1,7 @@
+package com.servicebooking.enums;
+
+public enum EmailStatus {
+    PENDING,
+    SENT,
+    DEAD
+}
@@ -0,0 +1,6 @@
+package com.servicebooking.enums;
+
+public enum IdempotencyStatus {
+    IN_PROGRESS,
+    COMPLETED
+}
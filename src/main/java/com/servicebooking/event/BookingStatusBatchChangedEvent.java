@@ -0,0 +1,8 @@
+package com.servicebooking.event;
+
+import java.util.List;
+
+// Published once per set-based status move (batch status update), inside its
+// transaction, carrying one change per booking that moved
+public record BookingStatusBatchChangedEvent(List<BookingStatusChangedEvent> changes) {
+}
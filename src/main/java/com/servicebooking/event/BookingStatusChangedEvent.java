@@ -0,0 +1,18 @@
+package com.servicebooking.event;
+
+import com.servicebooking.enums.BookingStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Published inside the booking transaction; previousStatus is null for a new booking
+public record BookingStatusChangedEvent(
+        Long bookingId,
+        Long customerId,
+        Long providerId,
+        LocalDateTime bookingDateTime,
+        LocalDateTime createdAt,
+        BigDecimal amount,
+        BookingStatus previousStatus,
+        BookingStatus newStatus) {
+}
@@ -0,0 +1,16 @@
+package com.servicebooking.event;
+
+import com.servicebooking.enums.PaymentStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Published inside the payment transaction; previousStatus is null for a new payment
+public record PaymentStatusChangedEvent(
+        Long paymentId,
+        Long bookingId,
+        BigDecimal amount,
+        LocalDateTime createdAt,
+        PaymentStatus previousStatus,
+        PaymentStatus newStatus) {
+}
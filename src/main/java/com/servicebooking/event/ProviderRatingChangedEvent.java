@@ -0,0 +1,5 @@
+package com.servicebooking.event;
+
+// Published when a provider's average rating is recomputed
+public record ProviderRatingChangedEvent(Long providerId, Double rating) {
+}
@@ -0,0 +1,5 @@
+package com.servicebooking.event;
+
+// Published when a category is renamed
+public record ServiceCategoryChangedEvent(Long categoryId, String name) {
+}
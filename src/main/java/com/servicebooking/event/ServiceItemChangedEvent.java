@@ -0,0 +1,7 @@
+package com.servicebooking.event;
+
+import java.math.BigDecimal;
+
+// Published when a service's name or base price changes
+public record ServiceItemChangedEvent(Long serviceId, String name, BigDecimal basePrice) {
+}
@@ -0,0 +1,5 @@
+package com.servicebooking.event;
+
+// Published when a user's credentials, status or profile change
+public record UserAccountChangedEvent(String email) {
+}
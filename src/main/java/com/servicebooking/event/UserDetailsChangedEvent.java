@@ -0,0 +1,5 @@
+package com.servicebooking.event;
+
+// Published when a user's name, email or mobile number changes
+public record UserDetailsChangedEvent(Long userId, String name, String email, String mobileNumber) {
+}
@@ -0,0 +1,7 @@
+package com.servicebooking.event;
+
+import com.servicebooking.enums.UserRole;
+
+// Published when a new account is created
+public record UserRegisteredEvent(Long userId, UserRole role) {
+}
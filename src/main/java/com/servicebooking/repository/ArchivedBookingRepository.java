@@ -0,0 +1,62 @@
+package com.servicebooking.repository;
+
+import com.servicebooking.dto.projection.BookingRow;
+import com.servicebooking.entity.ArchivedBooking;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ArchivedBookingRepository extends JpaRepository<ArchivedBooking, Long> {
+
+    // Same shape as BookingRepository.BOOKING_ROW_SELECT so live and archived rows merge directly
+    String ARCHIVE_ROW_SELECT = "SELECT new com.servicebooking.dto.projection.BookingRow("
+            + "b.id, c.id, cu.name, cu.email, cu.mobileNumber, "
+            + "p.id, pu.name, p.rating, "
+            + "s.id, s.name, sc.name, s.basePrice, "
+            + "b.bookingDateTime, b.location, b.status, b.amount, b.createdAt) "
+            + "FROM ArchivedBooking b "
+            + "JOIN b.customer c JOIN c.user cu "
+            + "LEFT JOIN b.provider p LEFT JOIN p.user pu "
+            + "JOIN b.service s JOIN s.category sc ";
+
+    String FEED_ORDER = " ORDER BY b.createdAt DESC, b.id DESC";
+
+    @Query(ARCHIVE_ROW_SELECT + "WHERE c.id = :customerId" + FEED_ORDER)
+    Slice<BookingRow> findFeedByCustomerId(@Param("customerId") Long customerId, Pageable pageable);
+
+    @Query(ARCHIVE_ROW_SELECT + "WHERE c.id = :customerId "
+            + "AND (b.createdAt < :createdAt OR (b.createdAt = :createdAt AND b.id < :id))"
+            + FEED_ORDER)
+    Slice<BookingRow> findFeedByCustomerIdAfter(@Param("customerId") Long customerId,
+                                                @Param("createdAt") LocalDateTime createdAt,
+                                                @Param("id") Long id,
+                                                Pageable pageable);
+
+    @Query("SELECT COUNT(b) FROM ArchivedBooking b WHERE b.customer.id = :customerId")
+    long countByCustomerId(@Param("customerId") Long customerId);
+
+    // [day, status, count] rows for rebuilding daily_stats
+    @Query("SELECT CAST(b.createdAt AS LocalDate), b.status, COUNT(b) FROM ArchivedBooking b "
+            + "WHERE b.createdAt >= :start AND b.createdAt < :end "
+            + "GROUP BY CAST(b.createdAt AS LocalDate), b.status")
+    List<Object[]> countByDayAndStatus(@Param("start") LocalDateTime start,
+                                       @Param("end") LocalDateTime end);
+
+    // Set-based copy of locked live rows; the caller deletes them in the same transaction
+    @Modifying
+    @Query(value = "INSERT INTO bookings_archive (id, customer_id, provider_id, service_id, booking_date_time, "
+            + "location, status, amount, created_at, customer_name, provider_name, archived_at) "
+            + "SELECT id, customer_id, provider_id, service_id, booking_date_time, "
+            + "location, status, amount, created_at, customer_name, provider_name, :archivedAt "
+            + "FROM bookings WHERE id IN (:ids)", nativeQuery = true)
+    int copyFromLive(@Param("ids") Collection<Long> ids, @Param("archivedAt") LocalDateTime archivedAt);
+}
@@ -0,0 +1,29 @@
+package com.servicebooking.repository;
+
+import com.servicebooking.entity.ArchivedPayment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ArchivedPaymentRepository extends JpaRepository<ArchivedPayment, Long> {
+
+    // [day, count, revenue] rows for rebuilding daily_stats
+    @Query("SELECT CAST(p.createdAt AS LocalDate), COUNT(p), SUM(p.amount) FROM ArchivedPayment p "
+            + "WHERE p.status = 'COMPLETED' AND p.createdAt >= :start AND p.createdAt < :end "
+            + "GROUP BY CAST(p.createdAt AS LocalDate)")
+    List<Object[]> sumCompletedByDay(@Param("start") LocalDateTime start,
+                                     @Param("end") LocalDateTime end);
+
+    @Modifying
+    @Query(value = "INSERT INTO payments_archive (id, booking_id, amount, method, status, created_at, archived_at) "
+            + "SELECT id, booking_id, amount, method, status, created_at, :archivedAt "
+            + "FROM payments WHERE booking_id IN (:bookingIds)", nativeQuery = true)
+    int copyFromLive(@Param("bookingIds") Collection<Long> bookingIds, @Param("archivedAt") LocalDateTime archivedAt);
+}
@@ -0,0 +1,27 @@
+package com.servicebooking.repository;
+
+import com.servicebooking.dto.projection.RatingTotals;
+import com.servicebooking.entity.ArchivedRating;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+@Repository
+public interface ArchivedRatingRepository extends JpaRepository<ArchivedRating, Long> {
+
+    // [sum of stars, count] so the provider average can span live and archived ratings
+    @Query("SELECT new com.servicebooking.dto.projection.RatingTotals(COALESCE(SUM(r.stars), 0), COUNT(r)) "
+            + "FROM ArchivedRating r WHERE r.providerId = :providerId")
+    RatingTotals totalsForProvider(@Param("providerId") Long providerId);
+
+    @Modifying
+    @Query(value = "INSERT INTO ratings_archive (id, booking_id, provider_id, stars, comment, created_at, archived_at) "
+            + "SELECT id, booking_id, provider_id, stars, comment, created_at, :archivedAt "
+            + "FROM rating WHERE booking_id IN (:bookingIds)", nativeQuery = true)
+    int copyFromLive(@Param("bookingIds") Collection<Long> bookingIds, @Param("archivedAt") LocalDateTime archivedAt);
+}
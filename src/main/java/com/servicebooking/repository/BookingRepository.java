@@ -1,28 +1,176 @@
 package com.servicebooking.repository;
 
+import com.servicebooking.dto.projection.BookingRow;
+import com.servicebooking.dto.projection.BookingStateRow;
+import com.servicebooking.dto.projection.PendingBookingRow;
+import com.servicebooking.dto.projection.ProviderBookingSlot;
 import com.servicebooking.entity.Booking;
 import com.servicebooking.entity.CustomerProfile;
 import com.servicebooking.entity.ProviderProfile;
 import com.servicebooking.enums.BookingStatus;
+import com.servicebooking.util.PageCursor;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long>, JpaSpecificationExecutor<Booking> {
+
+    // One joined statement per page instead of walking the eager associations per booking
+    String BOOKING_ROW_SELECT = "SELECT new com.servicebooking.dto.projection.BookingRow("
+            + "b.id, c.id, cu.name, cu.email, cu.mobileNumber, "
+            + "p.id, pu.name, p.rating, "
+            + "s.id, s.name, sc.name, s.basePrice, "
+            + "b.bookingDateTime, b.location, b.status, b.amount, b.createdAt) "
+            + "FROM Booking b "
+            + "JOIN b.customer c JOIN c.user cu "
+            + "LEFT JOIN b.provider p LEFT JOIN p.user pu "
+            + "JOIN b.service s JOIN s.category sc ";
+
     Page<Booking> findByCustomer(CustomerProfile customer, Pageable pageable);
     Page<Booking> findByCustomerId(Long customerId, Pageable pageable);
     Page<Booking> findByProvider(ProviderProfile provider, Pageable pageable);
     Page<Booking> findByProviderId(Long providerId, Pageable pageable);
     Page<Booking> findByStatus(BookingStatus status, Pageable pageable);
-    
+
+    // Source rows for booking_view; list and search endpoints read the view itself
+    @Query(BOOKING_ROW_SELECT + "WHERE b.id = :id")
+    Optional<BookingRow> findRowById(@Param("id") Long id);
+
+    @Query(BOOKING_ROW_SELECT + "WHERE b.id IN :ids ORDER BY b.id")
+    List<BookingRow> findRowsByIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT b.id FROM Booking b WHERE b.id > :afterId ORDER BY b.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query(BOOKING_ROW_SELECT + "WHERE b.createdAt BETWEEN :startDate AND :endDate")
+    List<BookingRow> findRowsBetweenDates(@Param("startDate") LocalDateTime startDate,
+                                          @Param("endDate") LocalDateTime endDate);
+
+    // Forward-only read for exports; needs useCursorFetch=true on MySQL for the fetch size to stream
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(BOOKING_ROW_SELECT + "WHERE b.createdAt BETWEEN :startDate AND :endDate ORDER BY b.createdAt, b.id")
+    Stream<BookingRow> streamRowsBetweenDates(@Param("startDate") LocalDateTime startDate,
+                                              @Param("endDate") LocalDateTime endDate);
+
+    // [day, status, count] rows for rebuilding daily_stats
+    @Query("SELECT CAST(b.createdAt AS LocalDate), b.status, COUNT(b) FROM Booking b "
+            + "WHERE b.createdAt >= :start AND b.createdAt < :end "
+            + "GROUP BY CAST(b.createdAt AS LocalDate), b.status")
+    List<Object[]> countByDayAndStatus(@Param("start") LocalDateTime start,
+                                       @Param("end") LocalDateTime end);
+
+    // Days whose daily_stats row may be stale because a booking created on them changed
+    @Query("SELECT DISTINCT CAST(b.createdAt AS LocalDate) FROM Booking b WHERE b.updatedAt >= :since")
+    List<LocalDate> findCreatedDaysUpdatedSince(@Param("since") LocalDateTime since);
+
+    @Query("SELECT new com.servicebooking.dto.projection.ProviderBookingSlot(b.provider.id, b.id, b.bookingDateTime) "
+            + "FROM Booking b WHERE b.provider IS NOT NULL AND b.status = :status AND b.bookingDateTime >= :from")
+    List<ProviderBookingSlot> findProviderSlotsFrom(@Param("status") BookingStatus status,
+                                                    @Param("from") LocalDateTime from);
+
+    // Locking read, so it sees accepted rows committed after this transaction's snapshot
+    @Query(value = "SELECT id FROM bookings WHERE provider_id = :providerId AND status = 'ACCEPTED' "
+            + "AND booking_date_time > :from AND booking_date_time < :to AND id <> :bookingId FOR UPDATE",
+            nativeQuery = true)
+    List<Long> lockAcceptedBetween(@Param("providerId") Long providerId,
+                                   @Param("from") LocalDateTime from,
+                                   @Param("to") LocalDateTime to,
+                                   @Param("bookingId") Long bookingId);
+
+    @Query("SELECT new com.servicebooking.dto.projection.ProviderBookingSlot(b.provider.id, b.id, b.bookingDateTime) "
+            + "FROM Booking b WHERE b.provider IS NOT NULL AND b.status = :status AND b.providerSlot IS NULL")
+    List<ProviderBookingSlot> findMissingProviderSlots(@Param("status") BookingStatus status);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.providerSlot = :slot, b.version = b.version + 1 "
+            + "WHERE b.id = :id AND b.status = :status AND b.providerSlot IS NULL")
+    int fillProviderSlot(@Param("id") Long id,
+                         @Param("status") BookingStatus status,
+                         @Param("slot") LocalDateTime slot);
+
+    @Query("SELECT new com.servicebooking.dto.projection.PendingBookingRow(b.id, b.service.id, b.bookingDateTime) "
+            + "FROM Booking b WHERE b.status = :status AND b.provider IS NULL AND b.id > :afterId ORDER BY b.id")
+    List<PendingBookingRow> findUnassigned(@Param("status") BookingStatus status,
+                                           @Param("afterId") Long afterId,
+                                           Pageable pageable);
+
+    // [providerId, count] of bookings currently held by each provider
+    @Query("SELECT b.provider.id, COUNT(b) FROM Booking b WHERE b.status = :status AND b.provider IS NOT NULL "
+            + "GROUP BY b.provider.id")
+    List<Object[]> countByProviderAndStatus(@Param("status") BookingStatus status);
+
+    // Compare-and-set on status; 0 rows means another writer moved the booking first
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = :next, b.providerSlot = :slot, b.version = b.version + 1, "
+            + "b.updatedAt = CURRENT_TIMESTAMP "
+            + "WHERE b.id = :id AND b.status = :expected")
+    int transitionStatus(@Param("id") Long id,
+                         @Param("expected") BookingStatus expected,
+                         @Param("next") BookingStatus next,
+                         @Param("slot") LocalDateTime slot);
+
+    // Row locks for a bulk move; the state read that follows sees the locked rows
+    @Query(value = "SELECT id FROM bookings WHERE id IN (:ids) ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<Long> lockByIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new com.servicebooking.dto.projection.BookingStateRow("
+            + "b.id, b.status, b.customer.id, p.id, b.bookingDateTime, b.createdAt, b.amount) "
+            + "FROM Booking b LEFT JOIN b.provider p WHERE b.id IN :ids")
+    List<BookingStateRow> findStatesByIds(@Param("ids") Collection<Long> ids);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = :next, b.providerSlot = NULL, b.version = b.version + 1, "
+            + "b.updatedAt = CURRENT_TIMESTAMP "
+            + "WHERE b.id IN :ids AND b.status = :expected")
+    int transitionStatusBulk(@Param("ids") Collection<Long> ids,
+                             @Param("expected") BookingStatus expected,
+                             @Param("next") BookingStatus next);
+
+    // ================= ARCHIVAL =================
+    // Oldest closed bookings first, keyset on (createdAt, id) along idx_booking_created
+    @Query("SELECT new com.servicebooking.util.PageCursor(b.createdAt, b.id) FROM Booking b "
+            + "WHERE b.status IN :statuses AND b.createdAt < :before "
+            + "AND (b.createdAt > :afterCreatedAt OR (b.createdAt = :afterCreatedAt AND b.id > :afterId)) "
+            + "ORDER BY b.createdAt, b.id")
+    List<PageCursor> findArchivable(@Param("statuses") Collection<BookingStatus> statuses,
+                                    @Param("before") LocalDateTime before,
+                                    @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                    @Param("afterId") Long afterId,
+                                    Pageable pageable);
+
+    @Query("SELECT COUNT(b) FROM Booking b WHERE b.status IN :statuses AND b.createdAt < :before")
+    long countArchivable(@Param("statuses") Collection<BookingStatus> statuses,
+                         @Param("before") LocalDateTime before);
+
+    // Locks the candidates and re-checks they are still closed before they are moved
+    @Query(value = "SELECT id FROM bookings WHERE id IN (:ids) AND status IN ('COMPLETED', 'CANCELLED') "
+            + "ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<Long> lockClosedByIds(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("DELETE FROM Booking b WHERE b.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+
     @Query("SELECT COUNT(b) FROM Booking b WHERE b.status = :status")
     Long countByStatus(@Param("status") BookingStatus status);
     
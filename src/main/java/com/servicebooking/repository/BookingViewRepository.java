@@ -0,0 +1,130 @@
+package com.servicebooking.repository;
+
+import com.servicebooking.dto.projection.BookingRow;
+import com.servicebooking.entity.BookingView;
+import com.servicebooking.enums.BookingStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface BookingViewRepository extends JpaRepository<BookingView, Long>, JpaSpecificationExecutor<BookingView> {
+
+    // Single-table equivalent of BookingRepository.BOOKING_ROW_SELECT
+    String VIEW_ROW_SELECT = "SELECT new com.servicebooking.dto.projection.BookingRow("
+            + "v.bookingId, v.customerId, v.customerName, v.customerEmail, v.customerMobile, "
+            + "v.providerId, v.providerName, v.providerRating, "
+            + "v.serviceId, v.serviceName, v.categoryName, v.servicePrice, "
+            + "v.bookingDateTime, v.location, v.status, v.amount, v.createdAt) "
+            + "FROM BookingView v ";
+
+    @Query(value = VIEW_ROW_SELECT + "WHERE v.customerId = :customerId",
+            countQuery = "SELECT COUNT(v) FROM BookingView v WHERE v.customerId = :customerId")
+    Page<BookingRow> findRowsByCustomerId(@Param("customerId") Long customerId, Pageable pageable);
+
+    @Query(value = VIEW_ROW_SELECT + "WHERE v.providerId = :providerId",
+            countQuery = "SELECT COUNT(v) FROM BookingView v WHERE v.providerId = :providerId")
+    Page<BookingRow> findRowsByProviderId(@Param("providerId") Long providerId, Pageable pageable);
+
+    @Query(value = VIEW_ROW_SELECT + "WHERE v.status = :status",
+            countQuery = "SELECT COUNT(v) FROM BookingView v WHERE v.status = :status")
+    Page<BookingRow> findRowsByStatus(@Param("status") BookingStatus status, Pageable pageable);
+
+    // Keyset feeds: seek past (createdAt, bookingId) instead of OFFSET, and no count query
+    String FEED_ORDER = " ORDER BY v.createdAt DESC, v.bookingId DESC";
+
+    @Query(VIEW_ROW_SELECT + "WHERE v.customerId = :customerId" + FEED_ORDER)
+    Slice<BookingRow> findFeedByCustomerId(@Param("customerId") Long customerId, Pageable pageable);
+
+    @Query(VIEW_ROW_SELECT + "WHERE v.customerId = :customerId "
+            + "AND (v.createdAt < :createdAt OR (v.createdAt = :createdAt AND v.bookingId < :id))"
+            + FEED_ORDER)
+    Slice<BookingRow> findFeedByCustomerIdAfter(@Param("customerId") Long customerId,
+                                                @Param("createdAt") LocalDateTime createdAt,
+                                                @Param("id") Long id,
+                                                Pageable pageable);
+
+    @Query(VIEW_ROW_SELECT + "WHERE v.providerId = :providerId" + FEED_ORDER)
+    Slice<BookingRow> findFeedByProviderId(@Param("providerId") Long providerId, Pageable pageable);
+
+    @Query(VIEW_ROW_SELECT + "WHERE v.providerId = :providerId "
+            + "AND (v.createdAt < :createdAt OR (v.createdAt = :createdAt AND v.bookingId < :id))"
+            + FEED_ORDER)
+    Slice<BookingRow> findFeedByProviderIdAfter(@Param("providerId") Long providerId,
+                                                @Param("createdAt") LocalDateTime createdAt,
+                                                @Param("id") Long id,
+                                                Pageable pageable);
+
+    // ================= MAINTENANCE =================
+    @Transactional
+    @Modifying
+    @Query("UPDATE BookingView v SET v.status = :status WHERE v.bookingId = :bookingId")
+    int updateStatus(@Param("bookingId") Long bookingId, @Param("status") BookingStatus status);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE BookingView v SET v.status = :status WHERE v.bookingId IN :bookingIds")
+    int updateStatusBulk(@Param("bookingIds") Collection<Long> bookingIds, @Param("status") BookingStatus status);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE BookingView v SET v.customerName = :name, v.customerEmail = :email, v.customerMobile = :mobile "
+            + "WHERE v.customerId IN (SELECT c.id FROM CustomerProfile c WHERE c.user.id = :userId)")
+    int updateCustomerDetails(@Param("userId") Long userId,
+                              @Param("name") String name,
+                              @Param("email") String email,
+                              @Param("mobile") String mobile);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE BookingView v SET v.providerName = :name "
+            + "WHERE v.providerId IN (SELECT p.id FROM ProviderProfile p WHERE p.user.id = :userId)")
+    int updateProviderName(@Param("userId") Long userId, @Param("name") String name);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE BookingView v SET v.providerRating = :rating WHERE v.providerId = :providerId")
+    int updateProviderRating(@Param("providerId") Long providerId, @Param("rating") Double rating);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE BookingView v SET v.serviceName = :name, v.servicePrice = :price WHERE v.serviceId = :serviceId")
+    int updateService(@Param("serviceId") Long serviceId,
+                      @Param("name") String name,
+                      @Param("price") BigDecimal price);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE BookingView v SET v.categoryName = :name "
+            + "WHERE v.serviceId IN (SELECT s.id FROM ServiceItem s WHERE s.category.id = :categoryId)")
+    int updateCategoryName(@Param("categoryId") Long categoryId, @Param("name") String name);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM BookingView v WHERE v.bookingId IN :bookingIds")
+    int deleteByBookingIds(@Param("bookingIds") Collection<Long> bookingIds);
+
+    // Taken after the matching bookings rows, in the same order the listeners lock them
+    @Query(value = "SELECT booking_id FROM booking_view WHERE booking_id IN (:ids) ORDER BY booking_id FOR UPDATE",
+            nativeQuery = true)
+    List<Long> lockByBookingIds(@Param("ids") Collection<Long> ids);
+
+    // View rows in (afterId, upTo] whose booking is gone
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM BookingView v WHERE v.bookingId > :afterId AND v.bookingId <= :upTo "
+            + "AND NOT EXISTS (SELECT 1 FROM Booking b WHERE b.id = v.bookingId)")
+    int deleteOrphans(@Param("afterId") Long afterId, @Param("upTo") Long upTo);
+}
@@ -0,0 +1,48 @@
+package com.servicebooking.repository;
+
+import com.servicebooking.dto.projection.StatsTotals;
+import com.servicebooking.entity.DailyStats;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface DailyStatsRepository extends JpaRepository<DailyStats, LocalDate> {
+
+    String TOTALS_SELECT = "SELECT new com.servicebooking.dto.projection.StatsTotals("
+            + "COALESCE(SUM(d.totalBookings), 0), COALESCE(SUM(d.pendingBookings), 0), "
+            + "COALESCE(SUM(d.acceptedBookings), 0), COALESCE(SUM(d.completedBookings), 0), "
+            + "COALESCE(SUM(d.cancelledBookings), 0), COALESCE(SUM(d.completedPayments), 0), "
+            + "COALESCE(SUM(d.revenue), 0)) FROM DailyStats d ";
+
+    // Creates an all-zero row for the day if none exists, so it can be locked
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO daily_stats (day, total_bookings, pending_bookings, accepted_bookings, "
+            + "completed_bookings, cancelled_bookings, completed_payments, revenue) "
+            + "VALUES (:day, 0, 0, 0, 0, 0, 0, 0)",
+            nativeQuery = true)
+    void insertIfAbsent(@Param("day") LocalDate day);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT d FROM DailyStats d WHERE d.day = :day")
+    Optional<DailyStats> lockByDay(@Param("day") LocalDate day);
+
+    @Query("SELECT d.day FROM DailyStats d WHERE d.day BETWEEN :from AND :to")
+    List<LocalDate> findDaysBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query(TOTALS_SELECT)
+    StatsTotals sumAll();
+
+    @Query(TOTALS_SELECT + "WHERE d.day BETWEEN :from AND :to")
+    StatsTotals sumBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+}
@@ -0,0 +1,34 @@
+package com.servicebooking.repository;
+
+import com.servicebooking.entity.EmailOutbox;
+import com.servicebooking.enums.EmailStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    // SKIP LOCKED (-2) lets several dispatchers claim disjoint batches
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT e FROM EmailOutbox e WHERE e.status = :status AND e.nextAttemptAt <= :now ORDER BY e.id")
+    List<EmailOutbox> findDueForUpdate(@Param("status") EmailStatus status,
+                                       @Param("now") LocalDateTime now,
+                                       Pageable pageable);
+
+    long countByStatus(EmailStatus status);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM EmailOutbox e WHERE e.status = :status AND e.sentAt < :before")
+    int deleteSentBefore(@Param("status") EmailStatus status,
+                         @Param("before") LocalDateTime before);
+}
@@ -0,0 +1,52 @@
+package com.servicebooking.repository;
+
+import com.servicebooking.entity.IdempotencyRecord;
+import com.servicebooking.enums.IdempotencyStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<IdempotencyRecord> findByKeyHash(String keyHash);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.leaseUntil = :leaseUntil "
+            + "WHERE r.keyHash = :keyHash AND r.leaseOwner = :owner AND r.status = :status")
+    int renewLease(@Param("keyHash") String keyHash,
+                   @Param("owner") String owner,
+                   @Param("status") IdempotencyStatus status,
+                   @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.status = :status, r.resourceId = :resourceId, "
+            + "r.responseMessage = :message, r.leaseUntil = NULL "
+            + "WHERE r.keyHash = :keyHash AND r.leaseOwner = :owner")
+    int complete(@Param("keyHash") String keyHash,
+                 @Param("owner") String owner,
+                 @Param("status") IdempotencyStatus status,
+                 @Param("resourceId") Long resourceId,
+                 @Param("message") String message);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.keyHash = :keyHash AND r.leaseOwner = :owner")
+    int release(@Param("keyHash") String keyHash, @Param("owner") String owner);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,9 @@
+package com.servicebooking.repository;
+
+import com.servicebooking.entity.JobMarker;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface JobMarkerRepository extends JpaRepository<JobMarker, String> {
+}
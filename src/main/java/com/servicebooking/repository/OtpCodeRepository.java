@@ -0,0 +1,26 @@
+package com.servicebooking.repository;
+
+import com.servicebooking.entity.OtpCode;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface OtpCodeRepository extends JpaRepository<OtpCode, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<OtpCode> findByEmail(String email);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM OtpCode o WHERE o.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
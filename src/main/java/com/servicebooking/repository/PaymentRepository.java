@@ -6,12 +6,16 @@ import com.servicebooking.enums.PaymentStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -23,4 +27,18 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
     @Query("SELECT SUM(p.amount) FROM Payment p WHERE p.status = 'COMPLETED' AND p.createdAt BETWEEN :startDate AND :endDate")
     BigDecimal calculateRevenueBetweenDates(@Param("startDate") LocalDateTime startDate, 
                                            @Param("endDate") LocalDateTime endDate);
+
+    // [day, count, revenue] rows for rebuilding daily_stats
+    @Query("SELECT CAST(p.createdAt AS LocalDate), COUNT(p), SUM(p.amount) FROM Payment p "
+            + "WHERE p.status = 'COMPLETED' AND p.createdAt >= :start AND p.createdAt < :end "
+            + "GROUP BY CAST(p.createdAt AS LocalDate)")
+    List<Object[]> sumCompletedByDay(@Param("start") LocalDateTime start,
+                                     @Param("end") LocalDateTime end);
+
+    @Query("SELECT DISTINCT CAST(p.createdAt AS LocalDate) FROM Payment p WHERE p.updatedAt >= :since")
+    List<LocalDate> findCreatedDaysUpdatedSince(@Param("since") LocalDateTime since);
+
+    @Modifying
+    @Query("DELETE FROM Payment p WHERE p.booking.id IN :bookingIds")
+    int deleteByBookingIds(@Param("bookingIds") Collection<Long> bookingIds);
 }
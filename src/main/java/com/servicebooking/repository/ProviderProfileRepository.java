@@ -1,13 +1,21 @@
 package com.servicebooking.repository;
 
+import com.servicebooking.dto.projection.ProviderCandidateRow;
 import com.servicebooking.entity.ProviderProfile;
 import com.servicebooking.entity.User;
 import com.servicebooking.enums.ProviderStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -15,4 +23,20 @@ public interface ProviderProfileRepository extends JpaRepository<ProviderProfile
     Optional<ProviderProfile> findByUser(User user);
     Optional<ProviderProfile> findByUserId(Long userId);
     Page<ProviderProfile> findByStatus(ProviderStatus status, Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE ProviderProfile p SET p.completedJobs = p.completedJobs + :jobs, "
+            + "p.totalEarnings = p.totalEarnings + :amount WHERE p.id = :id")
+    int addCompletedJobs(@Param("id") Long id, @Param("jobs") int jobs, @Param("amount") BigDecimal amount);
+
+    // Serializes slot reservations for one provider across nodes
+    @Query(value = "SELECT id FROM provider_profiles WHERE id = :id FOR UPDATE", nativeQuery = true)
+    Long lockById(@Param("id") Long id);
+
+    // Dispatch candidates without the document blob
+    @Query("SELECT new com.servicebooking.dto.projection.ProviderCandidateRow("
+            + "p.id, p.rating, p.completedJobs, p.selectedServices) "
+            + "FROM ProviderProfile p WHERE p.status IN :statuses")
+    List<ProviderCandidateRow> findCandidates(@Param("statuses") Collection<ProviderStatus> statuses);
 }
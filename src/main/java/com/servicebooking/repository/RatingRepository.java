@@ -1,15 +1,20 @@
 package com.servicebooking.repository;
 
+import com.servicebooking.dto.projection.RatingTotals;
 import com.servicebooking.entity.Rating;
 import com.servicebooking.entity.ProviderProfile;
 import com.servicebooking.entity.Booking;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,10 +27,29 @@ public interface RatingRepository extends JpaRepository<Rating, Long> {
 
     Page<Rating> findByProviderId(Long providerId, Pageable pageable);
 
+    @Query("SELECT r FROM Rating r WHERE r.provider.id = :providerId ORDER BY r.createdAt DESC, r.id DESC")
+    Slice<Rating> findFeedByProviderId(@Param("providerId") Long providerId, Pageable pageable);
+
+    @Query("SELECT r FROM Rating r WHERE r.provider.id = :providerId "
+            + "AND (r.createdAt < :createdAt OR (r.createdAt = :createdAt AND r.id < :id)) "
+            + "ORDER BY r.createdAt DESC, r.id DESC")
+    Slice<Rating> findFeedByProviderIdAfter(@Param("providerId") Long providerId,
+                                            @Param("createdAt") LocalDateTime createdAt,
+                                            @Param("id") Long id,
+                                            Pageable pageable);
+
     // ⭐ Average rating
     @Query("SELECT AVG(r.stars) FROM Rating r WHERE r.provider.id = :providerId")
     Double getAverageRatingForProvider(@Param("providerId") Long providerId);
 
+    @Query("SELECT new com.servicebooking.dto.projection.RatingTotals(COALESCE(SUM(r.stars), 0), COUNT(r)) "
+            + "FROM Rating r WHERE r.provider.id = :providerId")
+    RatingTotals totalsForProvider(@Param("providerId") Long providerId);
+
+    @Modifying
+    @Query("DELETE FROM Rating r WHERE r.booking.id IN :bookingIds")
+    int deleteByBookingIds(@Param("bookingIds") Collection<Long> bookingIds);
+
     // ⭐ Low ratings (1–3)
     Page<Rating> findByProviderIdAndStarsIn(
             Long providerId,
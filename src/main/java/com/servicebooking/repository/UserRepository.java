@@ -1,12 +1,17 @@
 package com.servicebooking.repository;
 
+import com.servicebooking.dto.projection.TokenCutoff;
 import com.servicebooking.entity.User;
 import com.servicebooking.enums.UserRole;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -20,4 +25,8 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
 
+    @Query("SELECT new com.servicebooking.dto.projection.TokenCutoff(u.email, u.tokensValidAfter) " +
+            "FROM User u WHERE u.tokensValidAfter > :since")
+    List<TokenCutoff> findTokenCutoffsAfter(@Param("since") LocalDateTime since);
+
 }
@@ -0,0 +1,53 @@
+package com.servicebooking.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+// Immutable principal safe to share between requests. Unlike Spring's User it
+// is not a CredentialsContainer. The copies held in UserDetailsCache carry no
+// password (null); only the uncached login lookup fills it in.
+public final class CachedUserDetails implements UserDetails {
+
+    private final String username;
+    private final String password;
+    private final List<GrantedAuthority> authorities;
+    private final boolean enabled;
+
+    public CachedUserDetails(String username,
+                             String password,
+                             List<? extends GrantedAuthority> authorities,
+                             boolean enabled) {
+        this.username = username;
+        this.password = password;
+        this.authorities = List.copyOf(authorities);
+        this.enabled = enabled;
+    }
+
+    @Override
+    public String getUsername() {
+        return username;
+    }
+
+    @Override
+    public String getPassword() {
+        return password;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public String toString() {
+        return "CachedUserDetails[" + username + "]";
+    }
+}
@@ -1,40 +1,121 @@
 package com.servicebooking.security;
 
 import com.servicebooking.entity.User;
+import com.servicebooking.event.UserAccountChangedEvent;
 import com.servicebooking.repository.UserRepository;
-import org.springframework.security.core.GrantedAuthority;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 import java.util.List;
 
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService
+        implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
 
+    @Value("${security.user-cache.max-entries:10000}")
+    private int cacheMaxEntries;
+
+    @Value("${security.user-cache.ttl-ms:300000}")
+    private long cacheTtlMs;
+
+    private UserDetailsCache cache;
+
     public CustomUserDetailsService(UserRepository userRepository) {
         this.userRepository = userRepository;
     }
 
+    @PostConstruct
+    void init() {
+        cache = new UserDetailsCache(cacheMaxEntries, cacheTtlMs);
+    }
+
+    // Login path: always reads the row, so the password hash is never cached
     @Override
     public UserDetails loadUserByUsername(String email)
             throws UsernameNotFoundException {
 
+        User user = findUser(email.trim().toLowerCase());
+
+        return new CachedUserDetails(
+                user.getEmail(),
+                user.getPassword(),
+                authoritiesOf(user),
+                isEnabled(user));
+    }
+
+    // Request path (JwtAuthenticationFilter): cached, without the password hash.
+    // Deletions and password resets also cut off the user's tokens through
+    // TokenRevocationService, which reaches other nodes' caches as well.
+    public UserDetails loadPrincipal(String email)
+            throws UsernameNotFoundException {
+
         String cleanEmail = email.trim().toLowerCase();
 
-        User user = userRepository.findByEmailIgnoreCase(cleanEmail)
+        UserDetails cached = cache.get(cleanEmail);
+        if (cached != null) return cached;
+
+        long generation = cache.currentGeneration();
+
+        User user = findUser(cleanEmail);
+
+        UserDetails details = new CachedUserDetails(
+                user.getEmail(),
+                null,
+                authoritiesOf(user),
+                isEnabled(user));
+
+        cache.put(cleanEmail, details, generation);
+
+        return details;
+    }
+
+    @Override
+    public UserDetails updatePassword(UserDetails details, String newPassword) {
+
+        User user = findUser(details.getUsername().trim().toLowerCase());
+
+        user.setPassword(newPassword);
+        userRepository.save(user);
+
+        cache.invalidate(user.getEmail().trim().toLowerCase());
+
+        return new CachedUserDetails(
+                details.getUsername(),
+                newPassword,
+                List.copyOf(details.getAuthorities()),
+                details.isEnabled());
+    }
+
+    // Runs after commit so a reload cannot pick up the pre-change row
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserAccountChanged(UserAccountChangedEvent event) {
+        cache.invalidate(event.email().trim().toLowerCase());
+    }
+
+    public UserDetailsCache getCache() {
+        return cache;
+    }
+
+    private User findUser(String cleanEmail) {
+        return userRepository.findByEmailIgnoreCase(cleanEmail)
                 .orElseThrow(() ->
                         new UsernameNotFoundException("User not found"));
+    }
 
-        return new org.springframework.security.core.userdetails.User(
-                user.getEmail(),
-                user.getPassword(),
-                List.of(new SimpleGrantedAuthority(
-                        "ROLE_" + user.getRole().name()))
-        );
+    private static List<SimpleGrantedAuthority> authoritiesOf(User user) {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + user.getRole().name()));
+    }
+
+    private static boolean isEnabled(User user) {
+        return !"DELETED".equals(user.getStatus());
     }
-}
\ No newline at end of file
+}
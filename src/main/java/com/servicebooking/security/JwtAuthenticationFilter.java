@@ -4,8 +4,9 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -13,17 +14,27 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider provider;
     private final CustomUserDetailsService service;
+    private final TokenRevocationService revocationService;
+
+    // When enabled, the Authentication is built from the verified token claims
+    // and the users table is not touched on the request path.
+    @Value("${jwt.claims-only-auth:false}")
+    private boolean claimsOnlyAuth;
 
     public JwtAuthenticationFilter(JwtTokenProvider provider,
-                                   CustomUserDetailsService service) {
+                                   CustomUserDetailsService service,
+                                   TokenRevocationService revocationService) {
         this.provider = provider;
         this.service = service;
+        this.revocationService = revocationService;
     }
 
     @Override
@@ -38,26 +49,53 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
             String token = header.substring(7);
 
-            if (provider.validateToken(token)) {
+            Optional<JwtClaims> verified = provider.verifyToken(token);
 
-                String email = provider.getEmailFromToken(token);
+            if (verified.isPresent()
+                    && !revocationService.isRevoked(verified.get())) {
 
-                UserDetails details =
-                        service.loadUserByUsername(email);
+                JwtClaims claims = verified.get();
 
                 UsernamePasswordAuthenticationToken auth =
-                        new UsernamePasswordAuthenticationToken(
-                                details, null, details.getAuthorities());
+                        claimsOnlyAuth ? fromClaims(claims) : null;
+
+                if (auth == null) {
+
+                    UserDetails details =
+                            service.loadPrincipal(claims.email());
+
+                    auth = details.isEnabled()
+                            ? new UsernamePasswordAuthenticationToken(
+                                    details, null, details.getAuthorities())
+                            : null;
+                }
+
+                if (auth != null) {
 
-                auth.setDetails(
-                        new WebAuthenticationDetailsSource()
-                                .buildDetails(req));
+                    auth.setDetails(
+                            new WebAuthenticationDetailsSource()
+                                    .buildDetails(req));
 
-                SecurityContextHolder.getContext()
-                        .setAuthentication(auth);
+                    SecurityContextHolder.getContext()
+                            .setAuthentication(auth);
+                }
             }
         }
 
         chain.doFilter(req, res);
     }
-}
\ No newline at end of file
+
+    // Older tokens without a user id fall back to the database lookup
+    private UsernamePasswordAuthenticationToken fromClaims(JwtClaims claims) {
+
+        JwtPrincipal principal = claims.toPrincipal();
+
+        if (principal == null) return null;
+
+        return new UsernamePasswordAuthenticationToken(
+                principal,
+                null,
+                List.of(new SimpleGrantedAuthority(
+                        "ROLE_" + principal.role())));
+    }
+}
@@ -0,0 +1,17 @@
+package com.servicebooking.security;
+
+import java.time.Instant;
+
+public record JwtClaims(String email, String role, Long userId, String tokenId,
+                        Instant issuedAt, Instant expiresAt) {
+
+    public boolean isExpired(Instant now) {
+        return expiresAt != null && !expiresAt.isAfter(now);
+    }
+
+    // Null when the token predates the "uid" claim
+    public JwtPrincipal toPrincipal() {
+        if (userId == null || role == null) return null;
+        return new JwtPrincipal(userId, email, role);
+    }
+}
@@ -0,0 +1,12 @@
+package com.servicebooking.security;
+
+import org.springframework.security.core.AuthenticatedPrincipal;
+
+public record JwtPrincipal(Long userId, String email, String role)
+        implements AuthenticatedPrincipal {
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
@@ -1,13 +1,19 @@
 package com.servicebooking.security;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.security.Key;
+import java.time.Instant;
 import java.util.Date;
+import java.util.Optional;
+import java.util.UUID;
 
 @Component
 public class JwtTokenProvider {
@@ -18,11 +24,23 @@ public class JwtTokenProvider {
     @Value("${jwt.expiration}")
     private long jwtExpiration;
 
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    @Value("${jwt.cache.max-entries:10000}")
+    private int cacheMaxEntries;
+
+    private Key signingKey;
+    private JwtParser parser;
+    private VerifiedTokenCache cache;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+        cache = new VerifiedTokenCache(cacheMaxEntries);
     }
 
-    public String generateToken(String email, String role) {
+    public String generateToken(Long userId, String email, String role) {
 
         email = email.trim().toLowerCase();
 
@@ -30,34 +48,60 @@ public class JwtTokenProvider {
         Date expiry = new Date(now.getTime() + jwtExpiration);
 
         return Jwts.builder()
+                .setId(UUID.randomUUID().toString())
                 .setSubject(email)
                 .claim("role", role)
+                .claim("uid", userId)
                 .setIssuedAt(now)
                 .setExpiration(expiry)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS512)
+                .signWith(signingKey, SignatureAlgorithm.HS512)
                 .compact();
     }
 
-    public String getEmailFromToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject()
-                .trim()
-                .toLowerCase();
-    }
+    // Verifies signature and expiry once; repeated tokens are served from the cache
+    public Optional<JwtClaims> verifyToken(String token) {
 
-    public boolean validateToken(String token) {
+        JwtClaims cached = cache.get(token);
+        if (cached != null) return Optional.of(cached);
+
+        Claims body;
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token);
-            return true;
+            body = parser.parseClaimsJws(token).getBody();
         } catch (Exception e) {
-            return false;
+            return Optional.empty();
+        }
+
+        Number userId = body.get("uid", Number.class);
+        Date issuedAt = body.getIssuedAt();
+        Date expiration = body.getExpiration();
+
+        JwtClaims claims = new JwtClaims(
+                body.getSubject().trim().toLowerCase(),
+                body.get("role", String.class),
+                userId == null ? null : userId.longValue(),
+                body.getId(),
+                issuedAt == null ? null : issuedAt.toInstant(),
+                expiration == null ? null : expiration.toInstant());
+
+        // Tokens without exp would never leave the cache on their own
+        if (claims.expiresAt() != null) {
+            cache.put(token, claims);
         }
+
+        return Optional.of(claims);
+    }
+
+    public String getEmailFromToken(String token) {
+        return verifyToken(token)
+                .map(JwtClaims::email)
+                .orElseThrow(() -> new IllegalArgumentException("Invalid token"));
+    }
+
+    public boolean validateToken(String token) {
+        return verifyToken(token).isPresent();
+    }
+
+    public VerifiedTokenCache getCache() {
+        return cache;
     }
-}
\ No newline at end of file
+}
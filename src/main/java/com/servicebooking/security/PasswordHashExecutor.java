@@ -0,0 +1,117 @@
+package com.servicebooking.security;
+
+import com.servicebooking.exception.ServiceUnavailableException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// Dedicated, bounded pool for BCrypt work so a login storm cannot take every
+// request thread and CPU core away from the rest of the API.
+@Component
+public class PasswordHashExecutor {
+
+    @Value("${security.password-hash.threads:0}")
+    private int threads;
+
+    @Value("${security.password-hash.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Value("${security.password-hash.timeout-ms:5000}")
+    private long timeoutMs;
+
+    private ThreadPoolExecutor executor;
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+
+    @PostConstruct
+    void init() {
+
+        int poolSize = threads > 0
+                ? threads
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+        AtomicInteger counter = new AtomicInteger();
+
+        executor = new ThreadPoolExecutor(
+                poolSize,
+                poolSize,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "password-hash-" + counter.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    public <T> T execute(Callable<T> task) {
+
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long start = System.nanoTime();
+                try {
+                    return task.call();
+                } finally {
+                    totalNanos.add(System.nanoTime() - start);
+                    completed.increment();
+                }
+            });
+            submitted.increment();
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new ServiceUnavailableException(
+                    "Too many authentication requests, please retry shortly");
+        }
+
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            timedOut.increment();
+            throw new ServiceUnavailableException(
+                    "Authentication timed out, please retry shortly");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Authentication interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) throw runtime;
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    public Map<String, Object> getStats() {
+
+        long done = completed.sum();
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("poolSize", executor.getPoolSize());
+        stats.put("active", executor.getActiveCount());
+        stats.put("queued", executor.getQueue().size());
+        stats.put("submitted", submitted.sum());
+        stats.put("completed", done);
+        stats.put("rejected", rejected.sum());
+        stats.put("timedOut", timedOut.sum());
+        stats.put("avgMillis", done == 0 ? 0.0 : totalNanos.sum() / 1_000_000.0 / done);
+        return stats;
+    }
+}
@@ -0,0 +1,57 @@
+package com.servicebooking.security;
+
+import com.servicebooking.dto.response.ApiResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+
+// Per-IP throttling for the unauthenticated /api/auth endpoints.
+// Per-email limits are applied in AuthService once the body is bound.
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String AUTH_PREFIX = "/api/auth/";
+
+    private final RateLimiter rateLimiter;
+    private final JsonMapper jsonMapper;
+
+    public RateLimitFilter(RateLimiter rateLimiter, JsonMapper jsonMapper) {
+        this.rateLimiter = rateLimiter;
+        this.jsonMapper = jsonMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest req) {
+        return !req.getRequestURI().startsWith(AUTH_PREFIX);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest req,
+                                    HttpServletResponse res,
+                                    FilterChain chain)
+            throws ServletException, IOException {
+
+        String endpoint = req.getRequestURI().substring(AUTH_PREFIX.length());
+
+        long retryAfter = rateLimiter.tryAcquireByIp(endpoint, req.getRemoteAddr());
+
+        if (retryAfter > 0) {
+            res.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            res.setHeader("Retry-After", String.valueOf(retryAfter));
+            res.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            jsonMapper.writeValue(res.getWriter(),
+                    ApiResponse.error("Too many requests, please retry later"));
+            return;
+        }
+
+        chain.doFilter(req, res);
+    }
+}
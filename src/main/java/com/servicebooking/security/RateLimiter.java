@@ -0,0 +1,129 @@
+package com.servicebooking.security;
+
+import com.servicebooking.config.RateLimitProperties;
+import com.servicebooking.exception.TooManyRequestsException;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Buckets live in lock-striped, access-ordered maps with a hard size cap, so a
+// flood of distinct emails or addresses evicts the least recently used buckets
+// instead of growing memory.
+@Component
+public class RateLimiter {
+
+    private static final int STRIPES = 16;
+
+    @Autowired
+    private RateLimitProperties properties;
+
+    private final List<Map<String, TokenBucket>> stripes = new ArrayList<>(STRIPES);
+
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder throttled = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+
+    @PostConstruct
+    void init() {
+
+        int perStripe = Math.max(1, properties.getMaxBuckets() / STRIPES);
+
+        for (int i = 0; i < STRIPES; i++) {
+            stripes.add(new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, TokenBucket> eldest) {
+                    if (size() <= perStripe) return false;
+                    evicted.increment();
+                    return true;
+                }
+            });
+        }
+    }
+
+    // Returns 0 when allowed, otherwise the Retry-After value in seconds
+    public long tryAcquireByIp(String endpoint, String ip) {
+        RateLimitProperties.EndpointLimit limits = limitsFor(endpoint);
+        return limits == null ? 0 : tryAcquire(endpoint + "|ip|" + ip, limits.getIp());
+    }
+
+    public void checkEmail(String endpoint, String email) {
+
+        RateLimitProperties.EndpointLimit limits = limitsFor(endpoint);
+        if (limits == null) return;
+
+        long retryAfter = tryAcquire(endpoint + "|email|" + email, limits.getEmail());
+
+        if (retryAfter > 0) {
+            throw new TooManyRequestsException(
+                    "Too many attempts for this account, please retry later", retryAfter);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${ratelimit.idle-evict-ms:300000}")
+    public void evictIdleBuckets() {
+        long now = System.nanoTime();
+        long idleNanos = TimeUnit.MILLISECONDS.toNanos(properties.getIdleEvictMs());
+
+        for (Map<String, TokenBucket> stripe : stripes) {
+            synchronized (stripe) {
+                stripe.values().removeIf(bucket -> bucket.isIdleAndFull(now, idleNanos));
+            }
+        }
+    }
+
+    public Map<String, Object> getStats() {
+
+        int buckets = 0;
+        for (Map<String, TokenBucket> stripe : stripes) {
+            synchronized (stripe) {
+                buckets += stripe.size();
+            }
+        }
+
+        return Map.of(
+                "buckets", buckets,
+                "maxBuckets", properties.getMaxBuckets(),
+                "evicted", evicted.sum(),
+                "allowed", allowed.sum(),
+                "throttled", throttled.sum());
+    }
+
+    private RateLimitProperties.EndpointLimit limitsFor(String endpoint) {
+        if (!properties.isEnabled()) return null;
+        return properties.getEndpoints().get(endpoint);
+    }
+
+    private long tryAcquire(String key, RateLimitProperties.Limit limit) {
+
+        if (limit == null || limit.getCapacity() <= 0) return 0;
+
+        long now = System.nanoTime();
+
+        Map<String, TokenBucket> stripe = stripes.get((key.hashCode() & 0x7fffffff) % STRIPES);
+
+        TokenBucket bucket;
+        synchronized (stripe) {
+            bucket = stripe.computeIfAbsent(key, k ->
+                    new TokenBucket(limit.getCapacity(), limit.getRefillPerMinute(), now));
+        }
+
+        long waitNanos = bucket.tryConsume(now);
+
+        if (waitNanos == 0) {
+            allowed.increment();
+            return 0;
+        }
+
+        throttled.increment();
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(
+                Math.min(waitNanos, TimeUnit.HOURS.toNanos(1))) + 1);
+    }
+}
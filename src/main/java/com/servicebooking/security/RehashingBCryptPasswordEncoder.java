@@ -0,0 +1,54 @@
+package com.servicebooking.security;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// BCrypt encoder that asks for a re-encode when a stored hash was produced with a
+// lower cost than the configured one. Higher costs are left alone, so nodes that
+// disagree during a rollout never re-hash the same users back and forth.
+public class RehashingBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+    private static final Pattern BCRYPT_PATTERN =
+            Pattern.compile("\\A\\$2(a|y|b)?\\$(\\d\\d)\\$[./0-9A-Za-z]{53}");
+
+    private final int strength;
+
+    public RehashingBCryptPasswordEncoder(int strength) {
+        super(strength);
+        this.strength = strength;
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    @Override
+    protected boolean upgradeEncodingNonNull(String encodedPassword) {
+
+        Matcher matcher = BCRYPT_PATTERN.matcher(encodedPassword);
+        if (!matcher.matches()) return false;
+
+        return Integer.parseInt(matcher.group(2)) < strength;
+    }
+
+    // Cost whose hash time is closest to the target on this machine; only logged as
+    // a recommendation. Each extra cost step doubles the work, so one measurement is enough.
+    public static int calibrate(long targetMillis, int minStrength, int maxStrength) {
+
+        int probeStrength = 10;
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(probeStrength);
+
+        probe.encode("warm-up");
+
+        long start = System.nanoTime();
+        probe.encode("calibration");
+        double probeMillis = Math.max(0.1, (System.nanoTime() - start) / 1_000_000.0);
+
+        int strength = probeStrength
+                + (int) Math.round(Math.log(targetMillis / probeMillis) / Math.log(2));
+
+        return Math.max(minStrength, Math.min(maxStrength, strength));
+    }
+}
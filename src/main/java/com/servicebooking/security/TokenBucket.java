@@ -0,0 +1,49 @@
+package com.servicebooking.security;
+
+// Classic token bucket; each bucket is its own lock so unrelated keys never contend
+public class TokenBucket {
+
+    private final int capacity;
+    private final double tokensPerNano;
+
+    private double tokens;
+    private long lastRefill;
+    private volatile long lastAccess;
+
+    public TokenBucket(int capacity, int refillPerMinute, long now) {
+        this.capacity = capacity;
+        this.tokensPerNano = refillPerMinute / 60_000_000_000.0;
+        this.tokens = capacity;
+        this.lastRefill = now;
+        this.lastAccess = now;
+    }
+
+    // Returns 0 when a token was taken, otherwise the nanos until one is available
+    public synchronized long tryConsume(long now) {
+
+        refill(now);
+        lastAccess = now;
+
+        if (tokens >= 1) {
+            tokens -= 1;
+            return 0;
+        }
+
+        if (tokensPerNano <= 0) return Long.MAX_VALUE;
+
+        return (long) Math.ceil((1 - tokens) / tokensPerNano);
+    }
+
+    public synchronized boolean isIdleAndFull(long now, long idleNanos) {
+        refill(now);
+        return now - lastAccess > idleNanos && tokens >= capacity;
+    }
+
+    private void refill(long now) {
+        long elapsed = now - lastRefill;
+        if (elapsed > 0) {
+            tokens = Math.min(capacity, tokens + elapsed * tokensPerNano);
+            lastRefill = now;
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.servicebooking.security;
+
+import com.servicebooking.dto.projection.TokenCutoff;
+import com.servicebooking.entity.RevokedToken;
+import com.servicebooking.entity.User;
+import com.servicebooking.repository.RevokedTokenRepository;
+import com.servicebooking.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Denylist of logged-out tokens. The Bloom filter answers "not revoked" for
+// almost every request without touching the exact set or the database.
+// Password resets and deletions revoke every token of a user at once through
+// users.tokens_valid_after; other nodes pick that up on the next refresh.
+@Service
+public class TokenRevocationService {
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${jwt.expiration}")
+    private long jwtExpiration;
+
+    @Value("${jwt.revocation.expected-entries:10000}")
+    private int expectedEntries;
+
+    private volatile BloomFilter bloom;
+    private volatile Map<String, Instant> revoked = new ConcurrentHashMap<>();
+
+    // normalized email -> tokens issued before this instant are rejected
+    private volatile Map<String, Instant> userCutoffs = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        bloom = new BloomFilter(expectedEntries, FALSE_POSITIVE_RATE);
+        refresh();
+    }
+
+    public boolean isRevoked(JwtClaims claims) {
+
+        if (!userCutoffs.isEmpty()) {
+            Instant cutoff = userCutoffs.get(claims.email());
+            if (cutoff != null
+                    && (claims.issuedAt() == null || claims.issuedAt().isBefore(cutoff))) {
+                return true;
+            }
+        }
+
+        String tokenId = claims.tokenId();
+
+        if (tokenId == null || !bloom.mightContain(tokenId)) return false;
+
+        return revoked.containsKey(tokenId);
+    }
+
+    // Caller saves the user in its transaction; this node applies the cutoff once
+    // that commits. JWT iat has second precision, so the cutoff is truncated to the
+    // second: a token issued later in the same second as the reset stays valid.
+    public void revokeUserTokens(User user) {
+
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        user.setTokensValidAfter(now);
+
+        String email = user.getEmail().trim().toLowerCase();
+        Instant cutoff = now.atZone(ZoneId.systemDefault()).toInstant();
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            applyCutoff(email, cutoff);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                applyCutoff(email, cutoff);
+            }
+        });
+    }
+
+    private synchronized void applyCutoff(String email, Instant cutoff) {
+        userCutoffs.merge(email, cutoff, (a, b) -> a.isAfter(b) ? a : b);
+    }
+
+    @Transactional
+    public void revoke(JwtClaims claims) {
+
+        if (claims.tokenId() == null || claims.expiresAt() == null) return;
+
+        if (!revokedTokenRepository.existsByTokenId(claims.tokenId())) {
+            revokedTokenRepository.save(new RevokedToken(
+                    null,
+                    claims.tokenId(),
+                    LocalDateTime.ofInstant(claims.expiresAt(), ZoneId.systemDefault())));
+        }
+
+        synchronized (this) {
+            revoked.put(claims.tokenId(), claims.expiresAt());
+            bloom.add(claims.tokenId());
+        }
+    }
+
+    public int size() {
+        return revoked.size();
+    }
+
+    public int userCutoffCount() {
+        return userCutoffs.size();
+    }
+
+    // Purges expired entries and picks up tokens revoked on other nodes.
+    // The Bloom filter cannot forget entries, so it is rebuilt from the live set.
+    @Scheduled(fixedDelayString = "${jwt.revocation.sync-ms:60000}",
+            initialDelayString = "${jwt.revocation.sync-ms:60000}")
+    @Transactional
+    public void refresh() {
+
+        LocalDateTime now = LocalDateTime.now();
+        Instant nowInstant = Instant.now();
+
+        revokedTokenRepository.deleteExpired(now);
+
+        Map<String, Instant> live = new ConcurrentHashMap<>();
+
+        for (RevokedToken token : revokedTokenRepository.findByExpiresAtAfter(now)) {
+            live.put(token.getTokenId(),
+                    token.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant());
+        }
+
+        // cutoffs older than the token lifetime cannot match a live token
+        Instant oldestRelevant = nowInstant.minusMillis(jwtExpiration);
+        Map<String, Instant> cutoffs = new ConcurrentHashMap<>();
+
+        for (TokenCutoff cutoff : userRepository.findTokenCutoffsAfter(
+                LocalDateTime.ofInstant(oldestRelevant, ZoneId.systemDefault()))) {
+            cutoffs.put(cutoff.email().trim().toLowerCase(),
+                    cutoff.tokensValidAfter().truncatedTo(ChronoUnit.SECONDS)
+                            .atZone(ZoneId.systemDefault()).toInstant());
+        }
+
+        synchronized (this) {
+
+            userCutoffs.forEach((email, cutoff) -> {
+                if (cutoff.isAfter(oldestRelevant)) {
+                    cutoffs.merge(email, cutoff, (a, b) -> a.isAfter(b) ? a : b);
+                }
+            });
+
+            userCutoffs = cutoffs;
+
+            // keep local revocations that may not have committed before the query
+            revoked.forEach((tokenId, expiresAt) -> {
+                if (expiresAt.isAfter(nowInstant)) live.putIfAbsent(tokenId, expiresAt);
+            });
+
+            BloomFilter rebuilt = new BloomFilter(
+                    Math.max(expectedEntries, live.size() * 2), FALSE_POSITIVE_RATE);
+            live.keySet().forEach(rebuilt::add);
+
+            // publish the new filter before the new set so a token is never
+            // present in the set but missing from the filter
+            bloom = rebuilt;
+            revoked = live;
+        }
+    }
+}
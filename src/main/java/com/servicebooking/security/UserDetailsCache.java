@@ -0,0 +1,92 @@
+package com.servicebooking.security;
+
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+// Bounded LRU + TTL cache of password-free UserDetails keyed by normalized
+// email. The access-ordered map drops its eldest entry once full. The
+// generation counter stops a load that raced with an invalidation from
+// re-populating stale data.
+public class UserDetailsCache {
+
+    private final Map<String, Entry> entries;
+    private final int maxEntries;
+    private final long ttlNanos;
+
+    private long generation;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public UserDetailsCache(int maxEntries, long ttlMillis) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttlMillis * 1_000_000;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > UserDetailsCache.this.maxEntries;
+            }
+        };
+    }
+
+    public UserDetails get(String email) {
+
+        long now = System.nanoTime();
+        Entry entry;
+
+        synchronized (this) {
+            entry = entries.get(email);
+            if (entry != null && now - entry.loadedAt > ttlNanos) {
+                entries.remove(email);
+                entry = null;
+            }
+        }
+
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+
+        hits.increment();
+        return entry.details;
+    }
+
+    public synchronized long currentGeneration() {
+        return generation;
+    }
+
+    // Caches the details unless an invalidation happened since loadGeneration
+    public synchronized void put(String email, UserDetails details, long loadGeneration) {
+
+        if (maxEntries <= 0 || generation != loadGeneration) return;
+
+        entries.put(email, new Entry(details, System.nanoTime()));
+    }
+
+    public synchronized void invalidate(String email) {
+        generation++;
+        entries.remove(email);
+    }
+
+    public Map<String, Object> getStats() {
+
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+
+        int size;
+        synchronized (this) {
+            size = entries.size();
+        }
+
+        return Map.of(
+                "size", size,
+                "hits", hitCount,
+                "misses", total - hitCount,
+                "hitRate", total == 0 ? 0.0 : (double) hitCount / total);
+    }
+
+    private record Entry(UserDetails details, long loadedAt) {
+    }
+}
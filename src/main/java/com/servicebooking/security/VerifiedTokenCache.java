@@ -0,0 +1,94 @@
+package com.servicebooking.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Bounded cache of already verified tokens, keyed by the SHA-256 digest of the
+// compact token. Entries are dropped once the token's exp has passed.
+public class VerifiedTokenCache {
+
+    private final Map<String, JwtClaims> entries = new ConcurrentHashMap<>();
+    private final int maxEntries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public VerifiedTokenCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public JwtClaims get(String token) {
+
+        String key = digest(token);
+        JwtClaims claims = entries.get(key);
+
+        if (claims == null) {
+            misses.increment();
+            return null;
+        }
+
+        if (claims.isExpired(Instant.now())) {
+            entries.remove(key, claims);
+            misses.increment();
+            return null;
+        }
+
+        hits.increment();
+        return claims;
+    }
+
+    public void put(String token, JwtClaims claims) {
+
+        if (maxEntries <= 0) return;
+
+        if (entries.size() >= maxEntries) {
+            evict();
+        }
+
+        entries.put(digest(token), claims);
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    // Drop expired entries first; if the cache is still full, drop a tenth of it
+    private void evict() {
+
+        Instant now = Instant.now();
+        entries.values().removeIf(c -> c.isExpired(now));
+
+        int toRemove = entries.size() - maxEntries + Math.max(1, maxEntries / 10);
+        Iterator<String> it = entries.keySet().iterator();
+
+        while (toRemove-- > 0 && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256")
+                    .digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
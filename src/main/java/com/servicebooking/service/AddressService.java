@@ -8,7 +8,6 @@ import com.servicebooking.entity.CustomerProfile;
 import com.servicebooking.entity.User;
 import com.servicebooking.exception.ResourceNotFoundException;
 import com.servicebooking.repository.AddressRepository;
-import com.servicebooking.repository.CustomerProfileRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -21,19 +20,13 @@ import java.util.Objects;
 public class AddressService {
 
     private final AddressRepository addressRepository;
-    private final CustomerProfileRepository customerProfileRepository;
     private final UserService userService;
 
     // ✅ ADD ADDRESS
     @Transactional
     public ApiResponse<AddressResponseDTO> addAddress(AddressRequestDTO request) {
 
-        User currentUser = userService.getCurrentUser();
-
-        CustomerProfile customer = customerProfileRepository
-                .findByUser(currentUser)
-                .orElseThrow(() ->
-                        new ResourceNotFoundException("Customer profile not found"));
+        CustomerProfile customer = userService.getCurrentCustomerProfile();
 
         Address address = new Address();
         address.setCustomer(customer);
@@ -61,12 +54,7 @@ public class AddressService {
     @Transactional(readOnly = true)
     public ApiResponse<List<AddressResponseDTO>> getAllAddresses() {
 
-        User currentUser = userService.getCurrentUser();
-
-        CustomerProfile customer = customerProfileRepository
-                .findByUser(currentUser)
-                .orElseThrow(() ->
-                        new ResourceNotFoundException("Customer profile not found"));
+        CustomerProfile customer = userService.getCurrentCustomerProfile();
 
         List<AddressResponseDTO> list = addressRepository
                 .findByCustomer(customer)
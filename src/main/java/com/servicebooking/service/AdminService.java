@@ -1,15 +1,19 @@
 package com.servicebooking.service;
 
+import com.servicebooking.dto.projection.StatsTotals;
 import com.servicebooking.dto.response.ApiResponse;
-import com.servicebooking.enums.BookingStatus;
-import com.servicebooking.repository.BookingRepository;
-import com.servicebooking.repository.PaymentRepository;
-import com.servicebooking.repository.UserRepository;
+import com.servicebooking.security.CustomUserDetailsService;
+import com.servicebooking.security.JwtTokenProvider;
+import com.servicebooking.security.PasswordHashExecutor;
+import com.servicebooking.security.RateLimiter;
+import com.servicebooking.security.TokenRevocationService;
+import com.servicebooking.security.VerifiedTokenCache;
+import com.servicebooking.util.EmailDispatcher;
+import com.servicebooking.util.OtpService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
-import java.time.LocalDateTime;
+import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -17,39 +21,113 @@ import java.util.Map;
 public class AdminService {
 
     @Autowired
-    private UserRepository userRepository;
+    private DailyStatsService dailyStatsService;
 
     @Autowired
-    private BookingRepository bookingRepository;
+    private DashboardStatsTracker dashboardStatsTracker;
 
     @Autowired
-    private PaymentRepository paymentRepository;
+    private ProviderScheduleIndex providerScheduleIndex;
 
-    public ApiResponse<Map<String, Object>> getDashboardStats() {
-        Map<String, Object> stats = new HashMap<>();
-        
-        stats.put("totalUsers", userRepository.count());
-        stats.put("totalBookings", bookingRepository.count());
-        stats.put("pendingBookings", bookingRepository.countByStatus(BookingStatus.PENDING));
-        stats.put("completedBookings", bookingRepository.countByStatus(BookingStatus.COMPLETED));
+    @Autowired
+    private DispatchService dispatchService;
 
-        LocalDateTime monthStart = LocalDateTime.now().withDayOfMonth(1).withHour(0).withMinute(0).withSecond(0);
-        LocalDateTime monthEnd = LocalDateTime.now();
-        BigDecimal monthlyRevenue = paymentRepository.calculateRevenueBetweenDates(monthStart, monthEnd);
-        stats.put("monthlyRevenue", monthlyRevenue != null ? monthlyRevenue : BigDecimal.ZERO);
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private ProviderBookingStream providerBookingStream;
 
-        return ApiResponse.success("Dashboard stats fetched", stats);
+    @Autowired
+    private ArchiveService archiveService;
+
+    @Autowired
+    private BookingViewService bookingViewService;
+
+    @Autowired
+    private JwtTokenProvider tokenProvider;
+
+    @Autowired
+    private PasswordHashExecutor passwordHashExecutor;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private RateLimiter rateLimiter;
+
+    @Autowired
+    private OtpService otpService;
+
+    @Autowired
+    private EmailDispatcher emailDispatcher;
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    // Served from in-memory counters; no SQL on this path
+    public ApiResponse<Map<String, Object>> getDashboardStats() {
+        return ApiResponse.success("Dashboard stats fetched", dashboardStatsTracker.snapshot());
     }
 
     public ApiResponse<Map<String, Object>> getMonthlyReport() {
-        LocalDateTime monthStart = LocalDateTime.now().withDayOfMonth(1).withHour(0).withMinute(0).withSecond(0);
-        LocalDateTime monthEnd = LocalDateTime.now();
+        LocalDate today = LocalDate.now();
+        LocalDate monthStart = today.withDayOfMonth(1);
+
+        StatsTotals month = dailyStatsService.getTotalsBetween(monthStart, today);
 
         Map<String, Object> report = new HashMap<>();
-        report.put("totalBookings", bookingRepository.findBookingsBetweenDates(monthStart, monthEnd).size());
-        report.put("revenue", paymentRepository.calculateRevenueBetweenDates(monthStart, monthEnd));
+        report.put("totalBookings", month.totalBookings());
+        report.put("revenue", month.revenue());
         report.put("period", monthStart.getMonth() + " " + monthStart.getYear());
 
         return ApiResponse.success("Monthly report generated", report);
     }
+
+    public ApiResponse<Map<String, Object>> getRuntimeStats() {
+        Map<String, Object> stats = new HashMap<>();
+
+        VerifiedTokenCache tokenCache = tokenProvider.getCache();
+        stats.put("jwtCache", Map.of(
+                "size", tokenCache.size(),
+                "hits", tokenCache.getHits(),
+                "misses", tokenCache.getMisses()));
+        stats.put("userDetailsCache", userDetailsService.getCache().getStats());
+        stats.put("passwordHashExecutor", passwordHashExecutor.getStats());
+        stats.put("revokedTokens", tokenRevocationService.size());
+        stats.put("userTokenCutoffs", tokenRevocationService.userCutoffCount());
+        stats.put("authRateLimiter", rateLimiter.getStats());
+        stats.put("otpStore", otpService.getStats());
+        stats.put("emailOutbox", emailDispatcher.getStats());
+        stats.put("providerScheduleIndex", providerScheduleIndex.size());
+        stats.put("dispatch", dispatchService.getStats());
+        stats.put("idempotency", idempotencyService.getStats());
+        stats.put("providerBookingStream", providerBookingStream.getStats());
+        stats.put("archive", archiveService.getStats());
+        stats.put("dailyStatsPendingDays", dailyStatsService.pendingDays());
+        stats.put("bookingViewReady", bookingViewService.isReady());
+
+        return ApiResponse.success("Runtime stats fetched", stats);
+    }
+
+    public ApiResponse<Map<String, Object>> runDispatch() {
+        dispatchService.refreshCandidates();
+        return ApiResponse.success("Dispatch run completed", dispatchService.runOnce());
+    }
+
+    public ApiResponse<Map<String, Object>> rebuildDailyStats(LocalDate from, LocalDate to) {
+        return ApiResponse.success("Daily stats rebuilt", dailyStatsService.rebuild(from, to));
+    }
+
+    public ApiResponse<Map<String, Object>> runArchive() {
+        return ApiResponse.success("Archive run completed", archiveService.runOnce());
+    }
+
+    public ApiResponse<Map<String, Object>> getArchiveProgress() {
+        return ApiResponse.success("Archive progress fetched", archiveService.getProgress());
+    }
+
+    public ApiResponse<Map<String, Object>> rebuildBookingView() {
+        return ApiResponse.success("Booking view rebuilt", bookingViewService.rebuild());
+    }
 }
@@ -0,0 +1,239 @@
+package com.servicebooking.service;
+
+import com.servicebooking.enums.BookingStatus;
+import com.servicebooking.exception.ConflictException;
+import com.servicebooking.repository.ArchivedBookingRepository;
+import com.servicebooking.repository.ArchivedPaymentRepository;
+import com.servicebooking.repository.ArchivedRatingRepository;
+import com.servicebooking.repository.BookingRepository;
+import com.servicebooking.repository.BookingViewRepository;
+import com.servicebooking.repository.PaymentRepository;
+import com.servicebooking.repository.RatingRepository;
+import com.servicebooking.util.PageCursor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Moves COMPLETED/CANCELLED bookings older than the retention window, with their
+// payments and ratings, into the *_archive tables. Each batch copies and deletes
+// a locked set of rows in one short transaction, oldest first, with a pause
+// between batches so the live tables are never held for long. Run it on one node
+// only (archive.enabled); manual runs go through the admin endpoint.
+@Service
+public class ArchiveService {
+
+    private static final Logger log = LoggerFactory.getLogger(ArchiveService.class);
+
+    private static final List<BookingStatus> CLOSED =
+            List.of(BookingStatus.COMPLETED, BookingStatus.CANCELLED);
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private RatingRepository ratingRepository;
+
+    @Autowired
+    private ArchivedBookingRepository archivedBookingRepository;
+
+    @Autowired
+    private ArchivedPaymentRepository archivedPaymentRepository;
+
+    @Autowired
+    private ArchivedRatingRepository archivedRatingRepository;
+
+    @Autowired
+    private BookingViewRepository bookingViewRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${archive.enabled:false}")
+    private boolean enabled;
+
+    @Value("${archive.retention-months:6}")
+    private int retentionMonths;
+
+    @Value("${archive.batch-size:500}")
+    private int batchSize;
+
+    @Value("${archive.batch-pause-ms:200}")
+    private long batchPauseMs;
+
+    @Value("${archive.max-batches-per-run:200}")
+    private int maxBatchesPerRun;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private final AtomicLong bookingsArchived = new AtomicLong();
+    private final AtomicLong paymentsArchived = new AtomicLong();
+    private final AtomicLong ratingsArchived = new AtomicLong();
+    private final AtomicLong failedBatches = new AtomicLong();
+
+    private volatile PageCursor position;
+    private volatile LocalDateTime lastRunStartedAt;
+    private volatile LocalDateTime lastRunFinishedAt;
+    private volatile int lastRunBookings;
+
+    // ================= SCHEDULED RUN =================
+    @Scheduled(fixedDelayString = "${archive.interval-ms:3600000}",
+            initialDelayString = "${archive.interval-ms:3600000}")
+    public void archiveClosedBookings() {
+
+        if (!enabled) return;
+
+        try {
+            runOnce();
+        } catch (ConflictException e) {
+            log.debug("Archive run skipped: {}", e.getMessage());
+        } catch (Exception e) {
+            log.warn("Archive run failed: {}", e.getMessage());
+        }
+    }
+
+    public Map<String, Object> runOnce() {
+
+        if (!running.compareAndSet(false, true)) {
+            throw new ConflictException("Archive run already in progress");
+        }
+
+        try {
+            LocalDateTime cutoff = cutoff();
+            PageCursor after = new PageCursor(LocalDate.EPOCH.atStartOfDay(), 0L);
+
+            lastRunStartedAt = LocalDateTime.now();
+            int runBookings = 0;
+            int batches = 0;
+
+            for (; batches < maxBatchesPerRun; batches++) {
+
+                List<PageCursor> candidates = bookingRepository.findArchivable(
+                        CLOSED, cutoff, after.createdAt(), after.id(), PageRequest.of(0, batchSize));
+
+                if (candidates.isEmpty()) break;
+
+                after = candidates.get(candidates.size() - 1);
+                position = after;
+
+                List<Long> ids = candidates.stream().map(PageCursor::id).toList();
+
+                try {
+                    Integer moved = transactionTemplate.execute(status -> moveBatch(ids));
+                    runBookings += moved != null ? moved : 0;
+                } catch (DataIntegrityViolationException e) {
+                    // e.g. a payment inserted against one of the rows mid-batch; left for the next run
+                    failedBatches.incrementAndGet();
+                    log.warn("Archive batch ending at booking {} rolled back: {}", after.id(), e.getMessage());
+                }
+
+                if (candidates.size() < batchSize) break;
+
+                pause();
+            }
+
+            lastRunBookings = runBookings;
+            lastRunFinishedAt = LocalDateTime.now();
+
+            if (runBookings > 0) {
+                log.info("Archived {} closed bookings created before {} in {} batches", runBookings, cutoff, batches);
+            }
+
+            Map<String, Object> result = new HashMap<>();
+            result.put("cutoff", cutoff);
+            result.put("archivedBookings", runBookings);
+            result.put("batches", batches);
+            return result;
+
+        } finally {
+            running.set(false);
+        }
+    }
+
+    // Children first: payments and ratings reference the booking rows being removed
+    private int moveBatch(List<Long> candidateIds) {
+
+        List<Long> ids = bookingRepository.lockClosedByIds(candidateIds);
+        if (ids.isEmpty()) return 0;
+
+        LocalDateTime now = LocalDateTime.now();
+
+        int ratings = archivedRatingRepository.copyFromLive(ids, now);
+        int payments = archivedPaymentRepository.copyFromLive(ids, now);
+        int bookings = archivedBookingRepository.copyFromLive(ids, now);
+
+        bookingViewRepository.deleteByBookingIds(ids);
+        ratingRepository.deleteByBookingIds(ids);
+        paymentRepository.deleteByBookingIds(ids);
+        bookingRepository.deleteByIds(ids);
+
+        bookingsArchived.addAndGet(bookings);
+        paymentsArchived.addAndGet(payments);
+        ratingsArchived.addAndGet(ratings);
+
+        return bookings;
+    }
+
+    private void pause() {
+        if (batchPauseMs <= 0) return;
+        try {
+            Thread.sleep(batchPauseMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private LocalDateTime cutoff() {
+        return LocalDate.now().minusMonths(retentionMonths).atStartOfDay();
+    }
+
+    // ================= PROGRESS =================
+    public Map<String, Object> getProgress() {
+
+        LocalDateTime cutoff = cutoff();
+
+        Map<String, Object> progress = new HashMap<>(getStats());
+        progress.put("cutoff", cutoff);
+        progress.put("remainingEligible", bookingRepository.countArchivable(CLOSED, cutoff));
+        progress.put("bookingsInArchive", archivedBookingRepository.count());
+        progress.put("paymentsInArchive", archivedPaymentRepository.count());
+        progress.put("ratingsInArchive", archivedRatingRepository.count());
+        return progress;
+    }
+
+    public Map<String, Object> getStats() {
+
+        PageCursor at = position;
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("running", running.get());
+        stats.put("retentionMonths", retentionMonths);
+        stats.put("bookingsArchived", bookingsArchived.get());
+        stats.put("paymentsArchived", paymentsArchived.get());
+        stats.put("ratingsArchived", ratingsArchived.get());
+        stats.put("failedBatches", failedBatches.get());
+        stats.put("lastBookingId", at != null ? at.id() : null);
+        stats.put("lastBookingCreatedAt", at != null ? at.createdAt() : null);
+        stats.put("lastRunStartedAt", lastRunStartedAt);
+        stats.put("lastRunFinishedAt", lastRunFinishedAt);
+        stats.put("lastRunBookings", lastRunBookings);
+        return stats;
+    }
+}
@@ -4,14 +4,20 @@ import com.servicebooking.dto.request.*;
 import com.servicebooking.dto.response.ApiResponse;
 import com.servicebooking.dto.response.AuthResponse;
 import com.servicebooking.entity.*;
+import com.servicebooking.event.UserAccountChangedEvent;
+import com.servicebooking.event.UserRegisteredEvent;
 import com.servicebooking.enums.ProviderStatus;
 import com.servicebooking.exception.BadRequestException;
 import com.servicebooking.exception.UnauthorizedException;
 import com.servicebooking.repository.*;
 import com.servicebooking.security.JwtTokenProvider;
+import com.servicebooking.security.PasswordHashExecutor;
+import com.servicebooking.security.RateLimiter;
+import com.servicebooking.security.TokenRevocationService;
 import com.servicebooking.util.EmailService;
 import com.servicebooking.util.OtpService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -49,6 +55,18 @@ public class AuthService {
     @Autowired
     private OtpService otpService;
 
+    @Autowired
+    private PasswordHashExecutor passwordHashExecutor;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private RateLimiter rateLimiter;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     // ================= REGISTER =================
     @Transactional
     public ApiResponse<String> register(RegisterRequest request) {
@@ -62,7 +80,7 @@ public class AuthService {
         user.setName(request.getName());
         user.setMobileNumber(request.getMobileNumber());
         user.setEmail(email);
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
+        user.setPassword(encodePassword(request.getPassword()));
         user.setRole(request.getRole());
         user.setStatus("ACTIVE");
 
@@ -84,6 +102,9 @@ public class AuthService {
                 providerProfileRepository.save(profile);
             }
         }
+
+        eventPublisher.publishEvent(new UserRegisteredEvent(user.getId(), user.getRole()));
+
         return ApiResponse.success("Registered successfully. You can login now.");
     }
 
@@ -92,19 +113,24 @@ public class AuthService {
 
         String email = request.getEmail().trim().toLowerCase();
 
+        rateLimiter.checkEmail("login", email);
+
         User user = userRepository
                 .findByEmailIgnoreCase(email)
                 .orElseThrow(() ->
                         new UnauthorizedException("Invalid credentials"));
 
-        authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                        email,
-                        request.getPassword()
-                )
-        );
+        // BCrypt runs on the bounded hashing pool, not the request thread
+        passwordHashExecutor.execute(() ->
+                authenticationManager.authenticate(
+                        new UsernamePasswordAuthenticationToken(
+                                email,
+                                request.getPassword()
+                        )
+                ));
 
         String token = tokenProvider.generateToken(
+                user.getId(),
                 email,
                 user.getRole().name()
         );
@@ -123,6 +149,8 @@ public class AuthService {
 
         String email = request.getEmail().trim().toLowerCase();
 
+        rateLimiter.checkEmail("forgot-password", email);
+
         User user = userRepository.findByEmailIgnoreCase(email)
                 .orElseThrow(() -> new BadRequestException("Email not found"));
 
@@ -144,6 +172,8 @@ public class AuthService {
     public ApiResponse<String> resetPassword(ResetPasswordRequest request) {
         String email = request.getEmail().trim().toLowerCase();
 
+        rateLimiter.checkEmail("reset-password", email);
+
         User user = userRepository.findByEmailIgnoreCase(email)
                 .orElseThrow(() -> new BadRequestException("Email not found"));
 
@@ -152,19 +182,33 @@ public class AuthService {
         if (!valid)
             throw new BadRequestException("Invalid or expired OTP");
 
-        user.setPassword(passwordEncoder.encode(request.getNewPassword()));
+        user.setPassword(encodePassword(request.getNewPassword()));
+        tokenRevocationService.revokeUserTokens(user);
 
         userRepository.save(user);
 
+        eventPublisher.publishEvent(new UserAccountChangedEvent(email));
+
         return ApiResponse.success("Password reset successful");
     }
 
     // ================= LOGOUT =================
 
-    public ApiResponse<String> logout() {
+    // A missing, non-bearer or unverifiable token has nothing to revoke
+    public ApiResponse<String> logout(String authorizationHeader) {
+
+        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
+            tokenProvider.verifyToken(authorizationHeader.substring(7))
+                    .ifPresent(tokenRevocationService::revoke);
+        }
+
         return ApiResponse.success("Logout successful");
     }
 
+    private String encodePassword(String rawPassword) {
+        return passwordHashExecutor.execute(() -> passwordEncoder.encode(rawPassword));
+    }
+
     // ================= OTP GENERATOR =================
     private String generateOtp() {
         return String.valueOf(100000 + new Random().nextInt(900000));
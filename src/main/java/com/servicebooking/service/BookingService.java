@@ -1,33 +1,69 @@
 package com.servicebooking.service;
 
+import com.servicebooking.dto.projection.BookingRow;
+import com.servicebooking.dto.projection.BookingStateRow;
+import com.servicebooking.dto.request.BatchStatusUpdateRequest;
 import com.servicebooking.dto.request.BookingCreateRequest;
 import com.servicebooking.dto.response.*;
 import com.servicebooking.entity.*;
+import com.servicebooking.enums.BatchItemOutcome;
 import com.servicebooking.enums.BookingStatus;
+import com.servicebooking.event.BookingStatusBatchChangedEvent;
+import com.servicebooking.event.BookingStatusChangedEvent;
+import com.servicebooking.exception.BadRequestException;
+import com.servicebooking.exception.ConflictException;
 import com.servicebooking.exception.ResourceNotFoundException;
 import com.servicebooking.repository.*;
+import com.servicebooking.util.PageCursor;
 
 import jakarta.persistence.criteria.Predicate;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.transaction.annotation.Transactional;
-
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 @Service
 public class BookingService {
 
-    @Autowired
-    private BookingRepository bookingRepository;
+    private static final String CSV_HEADER =
+            "bookingId,customerId,customerName,customerEmail,providerId,providerName,"
+                    + "serviceId,serviceName,category,bookingDateTime,location,status,amount,createdAt\n";
+
+    // Feed order: createdAt DESC, id DESC
+    private static final Comparator<BookingRow> NEWEST_FIRST =
+            Comparator.comparing(BookingRow::createdAt, Comparator.nullsLast(Comparator.<LocalDateTime>reverseOrder()))
+                    .thenComparing(BookingRow::bookingId, Comparator.reverseOrder());
 
     @Autowired
-    private CustomerProfileRepository customerRepo;
+    private BookingRepository bookingRepository;
 
     @Autowired
     private ProviderProfileRepository providerRepo;
@@ -38,14 +74,52 @@ public class BookingService {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ProviderScheduleIndex scheduleIndex;
+
+    @Autowired
+    private ProviderService providerService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ProviderBookingStream bookingStream;
+
+    @Autowired
+    private ArchivedBookingRepository archivedBookingRepository;
+
+    @Autowired
+    private BookingViewRepository bookingViewRepository;
+
+    @Autowired
+    private BookingViewService bookingViewService;
+
+    @Value("${booking.transition.max-attempts:3}")
+    private int transitionMaxAttempts;
+
+    @Value("${booking.batch.chunk-size:500}")
+    private int batchChunkSize;
+
+    @Value("${booking.export.flush-every:500}")
+    private int exportFlushEvery;
+
+    @Value("${booking.history.max-window:1000}")
+    private int historyMaxWindow;
+
     // ================= CREATE BOOKING =================
     @Transactional
     public ApiResponse<BookingResponseDTO> createBooking(BookingCreateRequest request) {
 
         User user = userService.getCurrentUser();
 
-        CustomerProfile customer = customerRepo.findByUser(user)
-                .orElseThrow(() -> new ResourceNotFoundException("Customer profile not found"));
+        CustomerProfile customer = userService.getCurrentCustomerProfile();
 
         ServiceItem service = serviceRepo.findById(request.getServiceId())
                 .orElseThrow(() -> new ResourceNotFoundException("Service not found"));
@@ -60,25 +134,53 @@ public class BookingService {
         booking.setCustomerName(user.getName());
 
         bookingRepository.save(booking);
+        publishStatusChange(booking, null);
 
         return ApiResponse.success("Booking created successfully", mapToDTO(booking));
     }
 
+    // ================= GET BOOKING =================
+    public BookingResponseDTO getBooking(Long id) {
+
+        Booking booking = bookingRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Booking not found"));
+
+        return mapToDTO(booking);
+    }
+
     // ================= ASSIGN PROVIDER =================
-    @Transactional
+    // Each attempt is its own transaction so a retry reads the row fresh;
+    // @Version rejects the write if the booking changed since it was read
     public ApiResponse<BookingResponseDTO> assignProvider(Long bookingId, Long providerId) {
 
-        Booking booking = bookingRepository.findById(bookingId)
-                .orElseThrow(() -> new ResourceNotFoundException("Booking not found"));
+        Booking booking = withRetry(() -> transactionTemplate.execute(tx -> {
 
-        ProviderProfile provider = providerRepo.findById(providerId)
-                .orElseThrow(() -> new ResourceNotFoundException("Provider not found"));
+            Booking current = bookingRepository.findById(bookingId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Booking not found"));
 
-        booking.setProvider(provider);
-        booking.setProviderName(provider.getUser().getName());
-        booking.setStatus(BookingStatus.ACCEPTED);
+            ProviderProfile provider = providerRepo.findById(providerId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Provider not found"));
 
-        bookingRepository.save(booking);
+            BookingStatus previous = current.getStatus();
+
+            // ACCEPTED -> ACCEPTED is a re-assignment to a different provider
+            if (previous != BookingStatus.ACCEPTED && !previous.canTransitionTo(BookingStatus.ACCEPTED)) {
+                throw new BadRequestException("Cannot assign a provider to a " + previous + " booking");
+            }
+
+            // reserve before touching the entity so no dirty flush takes the booking row lock first
+            LocalDateTime slot = reserveSlot(current.getId(), providerId, current.getBookingDateTime());
+
+            current.setProvider(provider);
+            current.setProviderName(provider.getUser().getName());
+            current.setStatus(BookingStatus.ACCEPTED);
+            current.setProviderSlot(slot);
+
+            saveWithSlotGuard(current);
+            publishStatusChange(current, previous);
+
+            return current;
+        }));
 
         return ApiResponse.success("Provider assigned successfully", mapToDTO(booking));
     }
@@ -86,68 +188,306 @@ public class BookingService {
     // ================= CUSTOMER BOOKINGS =================
     public ApiResponse<PageResponse<BookingResponseDTO>> getCustomerBookings(int page, int size) {
 
-        User user = userService.getCurrentUser();
+        bookingViewService.requireReady();
 
-        CustomerProfile customer = customerRepo.findByUser(user)
-                .orElseThrow(() -> new ResourceNotFoundException("Customer profile not found"));
+        CustomerProfile customer = userService.getCurrentCustomerProfile();
 
-        Page<Booking> bookingPage = bookingRepository.findByCustomer(
-                customer,
-                PageRequest.of(page, size, Sort.by("createdAt").descending())
-        );
-
-        return ApiResponse.success("Bookings fetched", mapPage(bookingPage));
+        return ApiResponse.success("Bookings fetched", customerHistoryPage(customer.getId(), page, size));
     }
 
     // ================= PROVIDER BOOKINGS =================
     public ApiResponse<PageResponse<BookingResponseDTO>> getProviderBookings(int page, int size) {
 
-        User user = userService.getCurrentUser();
+        bookingViewService.requireReady();
 
-        ProviderProfile provider = providerRepo.findByUser(user)
-                .orElseThrow(() -> new ResourceNotFoundException("Provider profile not found"));
+        ProviderProfile provider = userService.getCurrentProviderProfile();
 
-        Page<Booking> bookingPage = bookingRepository.findByProvider(
-                provider,
+        Page<BookingRow> bookingPage = bookingViewRepository.findRowsByProviderId(
+                provider.getId(),
                 PageRequest.of(page, size, Sort.by("createdAt").descending())
         );
 
-        return ApiResponse.success("Bookings fetched", mapPage(bookingPage));
+        return ApiResponse.success("Bookings fetched", mapRowPage(bookingPage));
+    }
+
+    // ================= CUSTOMER BOOKING FEED =================
+    public ApiResponse<CursorPageResponse<BookingResponseDTO>> getCustomerBookingFeed(String cursor, int size) {
+
+        bookingViewService.requireReady();
+
+        CustomerProfile customer = userService.getCurrentCustomerProfile();
+
+        PageCursor after = PageCursor.decode(cursor);
+        Pageable limit = PageRequest.of(0, size);
+
+        Slice<BookingRow> live = after == null
+                ? bookingViewRepository.findFeedByCustomerId(customer.getId(), limit)
+                : bookingViewRepository.findFeedByCustomerIdAfter(
+                        customer.getId(), after.createdAt(), after.id(), limit);
+
+        Slice<BookingRow> archived = after == null
+                ? archivedBookingRepository.findFeedByCustomerId(customer.getId(), limit)
+                : archivedBookingRepository.findFeedByCustomerIdAfter(
+                        customer.getId(), after.createdAt(), after.id(), limit);
+
+        // each side holds its newest `size` rows past the cursor, so the merged head is exact
+        List<BookingRow> merged = mergeNewestFirst(live.getContent(), archived.getContent());
+        boolean hasNext = live.hasNext() || archived.hasNext() || merged.size() > size;
+
+        Slice<BookingRow> slice = new SliceImpl<>(
+                merged.subList(0, Math.min(size, merged.size())), limit, hasNext);
+
+        return ApiResponse.success("Bookings fetched", mapRowSlice(slice));
+    }
+
+    // ================= PROVIDER BOOKING FEED =================
+    public ApiResponse<CursorPageResponse<BookingResponseDTO>> getProviderBookingFeed(String cursor, int size) {
+
+        bookingViewService.requireReady();
+
+        ProviderProfile provider = userService.getCurrentProviderProfile();
+
+        PageCursor after = PageCursor.decode(cursor);
+        Pageable limit = PageRequest.of(0, size);
+
+        Slice<BookingRow> slice = after == null
+                ? bookingViewRepository.findFeedByProviderId(provider.getId(), limit)
+                : bookingViewRepository.findFeedByProviderIdAfter(
+                        provider.getId(), after.createdAt(), after.id(), limit);
+
+        return ApiResponse.success("Bookings fetched", mapRowSlice(slice));
+    }
+
+    // ================= PROVIDER STREAM =================
+    public SseEmitter streamProviderBookings(String lastEventId) {
+
+        ProviderProfile provider = userService.getCurrentProviderProfile();
+
+        return bookingStream.subscribe(provider.getId(), lastEventId);
     }
 
     // ================= UPDATE STATUS =================
-    @Transactional
     public ApiResponse<BookingResponseDTO> updateStatus(Long id, BookingStatus status) {
 
-        Booking booking = bookingRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Booking not found"));
-
-        booking.setStatus(status);
-        bookingRepository.save(booking);
+        Booking booking = transition(id, status);
 
         return ApiResponse.success("Status updated", mapToDTO(booking));
     }
 
     // ================= CANCEL BOOKING =================
-    @Transactional
     public ApiResponse<String> cancelBooking(Long id) {
 
-        Booking booking = bookingRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Booking not found"));
-
-        booking.setStatus(BookingStatus.CANCELLED);
-        bookingRepository.save(booking);
+        transition(id, BookingStatus.CANCELLED);
 
         return ApiResponse.success("Booking cancelled successfully", null);
     }
 
+    // ================= STATE MACHINE =================
+    // Moves the booking with a conditional UPDATE ... WHERE status = :expected. Only
+    // the attempt whose update matched publishes the event and applies side effects,
+    // so they run exactly once however many writers race.
+    private Booking transition(Long id, BookingStatus next) {
+
+        return withRetry(() -> transactionTemplate.execute(tx -> {
+
+            Booking booking = bookingRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Booking not found"));
+
+            BookingStatus previous = booking.getStatus();
+
+            if (!previous.canTransitionTo(next)) {
+                throw new BadRequestException("Cannot change booking status from " + previous + " to " + next);
+            }
+
+            LocalDateTime slot = next == BookingStatus.ACCEPTED && booking.getProvider() != null
+                    ? reserveSlot(id, booking.getProvider().getId(), booking.getBookingDateTime())
+                    : null;
+
+            int updated;
+            try {
+                updated = bookingRepository.transitionStatus(id, previous, next, slot);
+            } catch (DataIntegrityViolationException e) {
+                throw new BadRequestException("Provider already has a booking at this time");
+            }
+
+            if (updated == 0) {
+                throw new ObjectOptimisticLockingFailureException(Booking.class, id);
+            }
+
+            Booking saved = bookingRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Booking not found"));
+
+            publishStatusChange(saved, previous);
+
+            if (next == BookingStatus.COMPLETED) {
+                providerService.updateProviderStatsOnBookingComplete(saved);
+            }
+
+            return saved;
+        }));
+    }
+
+    // ================= BATCH STATUS =================
+    // Chunks of ids are moved in one transaction each: lock the rows, classify them,
+    // then one set-based UPDATE per current status. Moves into ACCEPTED need a
+    // per-booking slot check, so those go through the single-booking path.
+    public ApiResponse<BatchStatusUpdateResponse> updateStatusBatch(BatchStatusUpdateRequest request) {
+
+        BookingStatus next = request.getStatus();
+
+        List<Long> ids = request.getBookingIds().stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+
+        Map<Long, BatchItemResultDTO> results = new HashMap<>();
+
+        for (int from = 0; from < ids.size(); from += batchChunkSize) {
+
+            List<Long> chunk = ids.subList(from, Math.min(from + batchChunkSize, ids.size()));
+
+            if (next == BookingStatus.ACCEPTED) {
+                chunk.forEach(id -> results.put(id, transitionOne(id, next)));
+                continue;
+            }
+
+            // a version clash or state-machine rejection rolls the chunk back as a conflict;
+            // anything else is a real failure and propagates
+            try {
+                results.putAll(transactionTemplate.execute(tx -> transitionChunk(chunk, next)));
+            } catch (OptimisticLockingFailureException | BadRequestException e) {
+                chunk.forEach(id -> results.put(id, new BatchItemResultDTO(id, BatchItemOutcome.CONFLICT, null)));
+            }
+        }
+
+        List<BatchItemResultDTO> ordered = ids.stream().map(results::get).toList();
+        int updated = (int) ordered.stream().filter(r -> r.getOutcome() == BatchItemOutcome.UPDATED).count();
+
+        return ApiResponse.success("Batch status update completed",
+                new BatchStatusUpdateResponse(next, ids.size(), updated, ordered));
+    }
+
+    private Map<Long, BatchItemResultDTO> transitionChunk(List<Long> chunk, BookingStatus next) {
+
+        Map<Long, BatchItemResultDTO> results = new HashMap<>();
+
+        bookingRepository.lockByIds(chunk);
+
+        Map<Long, BookingStateRow> states = new HashMap<>();
+        for (BookingStateRow row : bookingRepository.findStatesByIds(chunk)) {
+            states.put(row.bookingId(), row);
+        }
+
+        Map<BookingStatus, List<BookingStateRow>> byCurrent = new EnumMap<>(BookingStatus.class);
+
+        for (Long id : chunk) {
+            BookingStateRow row = states.get(id);
+
+            if (row == null) {
+                results.put(id, new BatchItemResultDTO(id, BatchItemOutcome.NOT_FOUND, null));
+            } else if (!row.status().canTransitionTo(next)) {
+                results.put(id, new BatchItemResultDTO(id, BatchItemOutcome.ILLEGAL_TRANSITION, row.status()));
+            } else {
+                byCurrent.computeIfAbsent(row.status(), s -> new ArrayList<>()).add(row);
+            }
+        }
+
+        Map<Long, BigDecimal> earningsByProvider = new HashMap<>();
+        Map<Long, Integer> jobsByProvider = new HashMap<>();
+        List<BookingStatusChangedEvent> changes = new ArrayList<>();
+
+        for (Map.Entry<BookingStatus, List<BookingStateRow>> group : byCurrent.entrySet()) {
+
+            List<BookingStateRow> rows = group.getValue();
+            List<Long> groupIds = rows.stream().map(BookingStateRow::bookingId).toList();
+
+            int updated = bookingRepository.transitionStatusBulk(groupIds, group.getKey(), next);
+
+            // rows are locked, so a short count means something is badly wrong; roll the chunk back
+            if (updated != rows.size()) {
+                throw new ObjectOptimisticLockingFailureException(Booking.class, groupIds);
+            }
+
+            for (BookingStateRow row : rows) {
+                results.put(row.bookingId(),
+                        new BatchItemResultDTO(row.bookingId(), BatchItemOutcome.UPDATED, row.status()));
+
+                changes.add(new BookingStatusChangedEvent(
+                        row.bookingId(),
+                        row.customerId(),
+                        row.providerId(),
+                        row.bookingDateTime(),
+                        row.createdAt(),
+                        row.amount(),
+                        row.status(),
+                        next));
+
+                if (next == BookingStatus.COMPLETED && row.providerId() != null) {
+                    jobsByProvider.merge(row.providerId(), 1, Integer::sum);
+                    earningsByProvider.merge(row.providerId(),
+                            row.amount() != null ? row.amount() : BigDecimal.ZERO, BigDecimal::add);
+                }
+            }
+        }
+
+        // one event for the chunk, so the synchronous view listener issues one UPDATE, not one per row
+        if (!changes.isEmpty()) {
+            eventPublisher.publishEvent(new BookingStatusBatchChangedEvent(changes));
+        }
+
+        jobsByProvider.forEach((providerId, jobs) ->
+                providerService.addCompletedJobs(providerId, jobs, earningsByProvider.get(providerId)));
+
+        return results;
+    }
+
+    private BatchItemResultDTO transitionOne(Long id, BookingStatus next) {
+
+        try {
+            transition(id, next);
+            return new BatchItemResultDTO(id, BatchItemOutcome.UPDATED, null);
+        } catch (ResourceNotFoundException e) {
+            return new BatchItemResultDTO(id, BatchItemOutcome.NOT_FOUND, null);
+        } catch (BadRequestException e) {
+            return new BatchItemResultDTO(id, BatchItemOutcome.ILLEGAL_TRANSITION, null);
+        } catch (ConflictException e) {
+            return new BatchItemResultDTO(id, BatchItemOutcome.CONFLICT, null);
+        }
+    }
+
+    private <T> T withRetry(Supplier<T> attempt) {
+
+        for (int i = 1; ; i++) {
+            try {
+                return attempt.get();
+            } catch (ConcurrencyFailureException e) {
+                // optimistic version clash, or a lock wait/deadlock on the slot guard
+                if (i >= transitionMaxAttempts) {
+                    throw new ConflictException("Booking was modified concurrently, please retry");
+                }
+            }
+        }
+    }
+
+    // ================= PROVIDER FREE SLOTS =================
+    public ApiResponse<List<LocalDateTime>> getProviderFreeSlots(Long providerId, LocalDate day) {
+
+        if (!providerRepo.existsById(providerId)) {
+            throw new ResourceNotFoundException("Provider not found");
+        }
+
+        return ApiResponse.success("Free slots fetched", scheduleIndex.freeSlots(providerId, day));
+    }
+
     // ================= FILTER BOOKINGS =================
     public ApiResponse<PageResponse<BookingResponseDTO>> filterBookings(
             Map<String, String> filters,
             int page,
             int size) {
 
-        Specification<Booking> spec = (root, query, cb) -> {
+        bookingViewService.requireReady();
+
+        Specification<BookingView> spec = (root, query, cb) -> {
 
             var predicates = new ArrayList<Predicate>();
 
@@ -175,48 +515,49 @@ public class BookingService {
             return cb.and(predicates.toArray(new Predicate[0]));
         };
 
-        Page<Booking> result = bookingRepository.findAll(
+        Page<BookingRow> result = bookingViewRepository.findAll(
                 spec,
                 PageRequest.of(page, size, Sort.by("createdAt").descending())
-        );
+        ).map(this::toRow);
 
-        return ApiResponse.success("Filtered bookings", mapPage(result));
+        return ApiResponse.success("Filtered bookings", mapRowPage(result));
     }
 
     // ================= BY CUSTOMER ID =================
     public ApiResponse<PageResponse<BookingResponseDTO>> getBookingsByCustomerId(
             Long customerId, int page, int size) {
 
-        Page<Booking> bookingPage = bookingRepository.findByCustomerId(
-                customerId,
-                PageRequest.of(page, size, Sort.by("createdAt").descending())
-        );
+        bookingViewService.requireReady();
 
-        return ApiResponse.success("Customer bookings fetched", mapPage(bookingPage));
+        return ApiResponse.success("Customer bookings fetched", customerHistoryPage(customerId, page, size));
     }
 
     // ================= BY PROVIDER ID =================
     public ApiResponse<PageResponse<BookingResponseDTO>> getBookingsByProviderId(
             Long providerId, int page, int size) {
 
-        Page<Booking> bookingPage = bookingRepository.findByProviderId(
+        bookingViewService.requireReady();
+
+        Page<BookingRow> bookingPage = bookingViewRepository.findRowsByProviderId(
                 providerId,
                 PageRequest.of(page, size, Sort.by("createdAt").descending())
         );
 
-        return ApiResponse.success("Provider bookings fetched", mapPage(bookingPage));
+        return ApiResponse.success("Provider bookings fetched", mapRowPage(bookingPage));
     }
 
     // ================= BY STATUS =================
     public ApiResponse<PageResponse<BookingResponseDTO>> getBookingsByStatus(
             BookingStatus status, int page, int size) {
 
-        Page<Booking> bookingPage = bookingRepository.findByStatus(
+        bookingViewService.requireReady();
+
+        Page<BookingRow> bookingPage = bookingViewRepository.findRowsByStatus(
                 status,
                 PageRequest.of(page, size, Sort.by("createdAt").descending())
         );
 
-        return ApiResponse.success("Bookings by status fetched", mapPage(bookingPage));
+        return ApiResponse.success("Bookings by status fetched", mapRowPage(bookingPage));
     }
 
     // ================= COUNT BY STATUS =================
@@ -232,8 +573,8 @@ public class BookingService {
             LocalDateTime start,
             LocalDateTime end) {
 
-        List<Booking> bookings =
-                bookingRepository.findBookingsBetweenDates(start, end);
+        List<BookingRow> bookings =
+                bookingRepository.findRowsBetweenDates(start, end);
 
         List<BookingResponseDTO> dtos =
                 bookings.stream().map(this::mapToDTO).toList();
@@ -241,6 +582,130 @@ public class BookingService {
         return ApiResponse.success("Bookings between dates fetched", dtos);
     }
 
+    // ================= EXPORT BETWEEN DATES =================
+    // Rows are unmanaged projections pulled through a JDBC cursor, so neither the
+    // persistence context nor the response grows with the size of the range
+    @Transactional(readOnly = true)
+    public void exportBookingsBetweenDates(
+            LocalDateTime start,
+            LocalDateTime end,
+            String format,
+            OutputStream out) throws IOException {
+
+        boolean csv = isCsvExport(format);
+
+        if (csv) {
+            out.write(CSV_HEADER.getBytes(StandardCharsets.UTF_8));
+        }
+
+        try (Stream<BookingRow> rows = bookingRepository.streamRowsBetweenDates(start, end)) {
+
+            int written = 0;
+
+            for (BookingRow row : (Iterable<BookingRow>) rows::iterator) {
+
+                if (csv) {
+                    out.write(toCsvLine(row).getBytes(StandardCharsets.UTF_8));
+                } else {
+                    out.write(jsonMapper.writeValueAsBytes(mapToDTO(row)));
+                    out.write('\n');
+                }
+
+                if (++written % exportFlushEvery == 0) {
+                    out.flush();
+                }
+            }
+        }
+
+        out.flush();
+    }
+
+    public boolean isCsvExport(String format) {
+
+        if ("csv".equalsIgnoreCase(format)) return true;
+        if ("ndjson".equalsIgnoreCase(format)) return false;
+
+        throw new BadRequestException("Unsupported export format: " + format);
+    }
+
+    private String toCsvLine(BookingRow r) {
+
+        return String.join(",",
+                csvValue(r.bookingId()),
+                csvValue(r.customerId()),
+                csvValue(r.customerName()),
+                csvValue(r.customerEmail()),
+                csvValue(r.providerId()),
+                csvValue(r.providerName()),
+                csvValue(r.serviceId()),
+                csvValue(r.serviceName()),
+                csvValue(r.categoryName()),
+                csvValue(r.bookingDateTime()),
+                csvValue(r.location()),
+                csvValue(r.status()),
+                csvValue(r.amount()),
+                csvValue(r.createdAt())) + "\n";
+    }
+
+    private String csvValue(Object value) {
+
+        if (value == null) return "";
+
+        String s = value.toString();
+
+        if (s.indexOf(',') >= 0 || s.indexOf('"') >= 0 || s.indexOf('\n') >= 0 || s.indexOf('\r') >= 0) {
+            return "\"" + s.replace("\"", "\"\"") + "\"";
+        }
+
+        return s;
+    }
+
+    // ================= SLOT GUARD =================
+    // The unique (provider_id, provider_slot) key is a backstop for rows that skipped reserveSlot
+    private void saveWithSlotGuard(Booking booking) {
+
+        try {
+            bookingRepository.saveAndFlush(booking);
+        } catch (DataIntegrityViolationException e) {
+            throw new BadRequestException("Provider already has a booking at this time");
+        }
+    }
+
+    // Checks that no accepted booking of the provider overlaps [start, start + slot) and
+    // returns the grid slot to store. The node-local index rejects the common case cheaply;
+    // the provider row lock then serializes reservations for this provider on every node,
+    // and the locking read sees anything they committed before we got the lock.
+    private LocalDateTime reserveSlot(Long bookingId, Long providerId, LocalDateTime start) {
+
+        if (scheduleIndex.findConflict(providerId, start, bookingId) != null) {
+            throw new BadRequestException("Provider already has a booking at this time");
+        }
+
+        providerRepo.lockById(providerId);
+
+        Duration slot = scheduleIndex.slotLength();
+
+        if (!bookingRepository.lockAcceptedBetween(providerId, start.minus(slot), start.plus(slot), bookingId).isEmpty()) {
+            throw new BadRequestException("Provider already has a booking at this time");
+        }
+
+        return scheduleIndex.slotOf(start);
+    }
+
+    // ================= EVENTS =================
+    private void publishStatusChange(Booking booking, BookingStatus previous) {
+
+        eventPublisher.publishEvent(new BookingStatusChangedEvent(
+                booking.getId(),
+                booking.getCustomer().getId(),
+                booking.getProvider() != null ? booking.getProvider().getId() : null,
+                booking.getBookingDateTime(),
+                booking.getCreatedAt(),
+                booking.getAmount(),
+                previous,
+                booking.getStatus()));
+    }
+
     // ================= DTO MAPPING =================
     private BookingResponseDTO mapToDTO(Booking b) {
 
@@ -272,7 +737,101 @@ public class BookingService {
                 .build();
     }
 
-    private PageResponse<BookingResponseDTO> mapPage(Page<Booking> page) {
+    // List endpoints read BookingRow projections so each page costs one select plus its count
+    private BookingResponseDTO mapToDTO(BookingRow r) {
+
+        return BookingResponseDTO.builder()
+                .bookingId(r.bookingId())
+                .customer(CustomerDTO.builder()
+                        .id(r.customerId())
+                        .name(r.customerName())
+                        .email(r.customerEmail())
+                        .mobile(r.customerMobile())
+                        .build())
+                .provider(r.providerId() == null ? null :
+                        ProviderDTO.builder()
+                                .id(r.providerId())
+                                .name(r.providerName())
+                                .rating(r.providerRating())
+                                .build())
+                .service(ServiceDTO.builder()
+                        .id(r.serviceId())
+                        .name(r.serviceName())
+                        .category(r.categoryName())
+                        .price(r.servicePrice())
+                        .build())
+                .bookingDateTime(r.bookingDateTime())
+                .location(r.location())
+                .status(r.status())
+                .amount(r.amount())
+                .createdAt(r.createdAt())
+                .build();
+    }
+
+    // Customer history spans booking_view and bookings_archive: both are read
+    // newest first up to the end of the requested page and merged, so the
+    // depth is capped and deeper reads go through the keyset feed
+    private PageResponse<BookingResponseDTO> customerHistoryPage(Long customerId, int page, int size) {
+
+        if ((page + 1L) * size > historyMaxWindow) {
+            throw new BadRequestException("Booking history pages reach at most " + historyMaxWindow
+                    + " bookings deep; use /api/bookings/customer/feed to read further");
+        }
+
+        Sort newestFirst = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("bookingId"));
+        long archivedCount = archivedBookingRepository.countByCustomerId(customerId);
+
+        if (archivedCount == 0) {
+            return mapRowPage(bookingViewRepository.findRowsByCustomerId(
+                    customerId, PageRequest.of(page, size, newestFirst)));
+        }
+
+        int window = (page + 1) * size;
+
+        Page<BookingRow> live = bookingViewRepository.findRowsByCustomerId(
+                customerId, PageRequest.of(0, window, newestFirst));
+        Slice<BookingRow> archived = archivedBookingRepository.findFeedByCustomerId(
+                customerId, PageRequest.of(0, window));
+
+        List<BookingRow> merged = mergeNewestFirst(live.getContent(), archived.getContent());
+        List<BookingRow> content = merged.subList(
+                Math.min(page * size, merged.size()), Math.min(window, merged.size()));
+
+        return mapRowPage(new PageImpl<>(
+                content, PageRequest.of(page, size), live.getTotalElements() + archivedCount));
+    }
+
+    private List<BookingRow> mergeNewestFirst(List<BookingRow> live, List<BookingRow> archived) {
+
+        List<BookingRow> merged = new ArrayList<>(live.size() + archived.size());
+        merged.addAll(live);
+        merged.addAll(archived);
+        merged.sort(NEWEST_FIRST);
+        return merged;
+    }
+
+    private BookingRow toRow(BookingView v) {
+        return new BookingRow(
+                v.getBookingId(),
+                v.getCustomerId(),
+                v.getCustomerName(),
+                v.getCustomerEmail(),
+                v.getCustomerMobile(),
+                v.getProviderId(),
+                v.getProviderName(),
+                v.getProviderRating(),
+                v.getServiceId(),
+                v.getServiceName(),
+                v.getCategoryName(),
+                v.getServicePrice(),
+                v.getBookingDateTime(),
+                v.getLocation(),
+                v.getStatus(),
+                v.getAmount(),
+                v.getCreatedAt());
+    }
+
+    private PageResponse<BookingResponseDTO> mapRowPage(Page<BookingRow> page) {
 
         return new PageResponse<>(
                 page.getContent().stream().map(this::mapToDTO).toList(),
@@ -283,4 +842,17 @@ public class BookingService {
                 page.isLast()
         );
     }
-}
\ No newline at end of file
+
+    private CursorPageResponse<BookingResponseDTO> mapRowSlice(Slice<BookingRow> slice) {
+
+        List<BookingRow> rows = slice.getContent();
+        BookingRow last = rows.isEmpty() ? null : rows.get(rows.size() - 1);
+
+        return new CursorPageResponse<>(
+                rows.stream().map(this::mapToDTO).toList(),
+                slice.getSize(),
+                slice.hasNext() ? new PageCursor(last.createdAt(), last.bookingId()).encode() : null,
+                slice.hasNext()
+        );
+    }
+}
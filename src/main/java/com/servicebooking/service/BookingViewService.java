@@ -0,0 +1,242 @@
+package com.servicebooking.service;
+
+import com.servicebooking.dto.projection.BookingRow;
+import com.servicebooking.entity.BookingView;
+import com.servicebooking.entity.JobMarker;
+import com.servicebooking.enums.BookingStatus;
+import com.servicebooking.event.BookingStatusBatchChangedEvent;
+import com.servicebooking.event.BookingStatusChangedEvent;
+import com.servicebooking.event.ProviderRatingChangedEvent;
+import com.servicebooking.event.ServiceCategoryChangedEvent;
+import com.servicebooking.event.ServiceItemChangedEvent;
+import com.servicebooking.event.UserDetailsChangedEvent;
+import com.servicebooking.exception.ServiceUnavailableException;
+import com.servicebooking.repository.BookingRepository;
+import com.servicebooking.repository.BookingViewRepository;
+import com.servicebooking.repository.JobMarkerRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Maintains booking_view. Listeners are synchronous, so each view change commits
+// or rolls back with the booking, user, provider or catalog change behind it.
+// New and newly accepted bookings are re-read in full (the provider columns
+// change on assignment); every other change is a set-based column update.
+@Service
+public class BookingViewService {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingViewService.class);
+
+    static final String BUILT_MARKER = "booking-view.built";
+
+    @Autowired
+    private BookingViewRepository bookingViewRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private JobMarkerRepository jobMarkerRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${booking.view.rebuild-batch-size:500}")
+    private int rebuildBatchSize;
+
+    @Value("${booking.view.backfill-on-startup:true}")
+    private boolean backfillOnStartup;
+
+    private volatile boolean ready;
+
+    // ================= BOOKINGS =================
+    @EventListener
+    public void onBookingStatusChanged(BookingStatusChangedEvent event) {
+
+        if (event.previousStatus() == null || event.newStatus() == BookingStatus.ACCEPTED) {
+            bookingRepository.findRowById(event.bookingId())
+                    .ifPresent(row -> bookingViewRepository.save(toView(row)));
+            return;
+        }
+
+        bookingViewRepository.updateStatus(event.bookingId(), event.newStatus());
+    }
+
+    // One UPDATE per target status instead of one per booking
+    @EventListener
+    public void onBookingStatusBatchChanged(BookingStatusBatchChangedEvent batch) {
+
+        Map<BookingStatus, List<Long>> byStatus = new EnumMap<>(BookingStatus.class);
+
+        for (BookingStatusChangedEvent event : batch.changes()) {
+            if (event.previousStatus() == null || event.newStatus() == BookingStatus.ACCEPTED) {
+                onBookingStatusChanged(event);
+            } else {
+                byStatus.computeIfAbsent(event.newStatus(), s -> new ArrayList<>()).add(event.bookingId());
+            }
+        }
+
+        byStatus.forEach((status, ids) -> bookingViewRepository.updateStatusBulk(ids, status));
+    }
+
+    // ================= DIMENSIONS =================
+    @EventListener
+    public void onUserDetailsChanged(UserDetailsChangedEvent event) {
+        bookingViewRepository.updateCustomerDetails(
+                event.userId(), event.name(), event.email(), event.mobileNumber());
+        bookingViewRepository.updateProviderName(event.userId(), event.name());
+    }
+
+    @EventListener
+    public void onProviderRatingChanged(ProviderRatingChangedEvent event) {
+        bookingViewRepository.updateProviderRating(event.providerId(), event.rating());
+    }
+
+    @EventListener
+    public void onServiceItemChanged(ServiceItemChangedEvent event) {
+        bookingViewRepository.updateService(event.serviceId(), event.name(), event.basePrice());
+    }
+
+    @EventListener
+    public void onServiceCategoryChanged(ServiceCategoryChangedEvent event) {
+        bookingViewRepository.updateCategoryName(event.categoryId(), event.name());
+    }
+
+    // ================= REBUILD =================
+    // Re-reads every live booking in id order, one short transaction per batch.
+    // Each batch locks its bookings rows and then their view rows, the same order
+    // a booking change takes them, so a change is either committed before the
+    // batch re-reads it or waits for the batch and is applied on top of it.
+    // View rows whose booking no longer exists are deleted along the way.
+    public Map<String, Object> rebuild() {
+
+        long afterId = 0;
+        int written = 0;
+        int deleted = 0;
+        int batches = 0;
+
+        while (true) {
+            final long from = afterId;
+
+            RebuildBatch batch = transactionTemplate.execute(status -> writeBatch(from));
+            if (batch == null) break;
+
+            written += batch.written();
+            deleted += batch.deleted();
+            if (batch.lastId() == null) break;
+
+            afterId = batch.lastId();
+            batches++;
+        }
+
+        markBuilt();
+
+        log.info("Rebuilt booking_view: {} rows written, {} orphans deleted in {} batches",
+                written, deleted, batches);
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("rowsWritten", written);
+        result.put("rowsDeleted", deleted);
+        result.put("batches", batches);
+        return result;
+    }
+
+    private RebuildBatch writeBatch(long afterId) {
+
+        List<Long> ids = bookingRepository.findIdsAfter(afterId, PageRequest.of(0, rebuildBatchSize));
+        boolean last = ids.size() < rebuildBatchSize;
+
+        if (ids.isEmpty()) {
+            return new RebuildBatch(null, 0, bookingViewRepository.deleteOrphans(afterId, Long.MAX_VALUE));
+        }
+
+        bookingRepository.lockByIds(ids);
+        bookingViewRepository.lockByBookingIds(ids);
+
+        // re-read under the locks; a booking archived since the id read is simply absent
+        List<BookingRow> rows = bookingRepository.findRowsByIds(ids);
+
+        // load existing rows first so the merges below hit the persistence context
+        bookingViewRepository.findAllById(ids);
+        bookingViewRepository.saveAll(rows.stream().map(this::toView).toList());
+
+        Long lastId = ids.get(ids.size() - 1);
+        int deleted = bookingViewRepository.deleteOrphans(afterId, last ? Long.MAX_VALUE : lastId);
+
+        return new RebuildBatch(last ? null : lastId, rows.size(), deleted);
+    }
+
+    private record RebuildBatch(Long lastId, int written, int deleted) {}
+
+    // ================= WARM-UP =================
+    // Seeds the view until one full rebuild has completed, recorded by a marker
+    // row written after the last batch. A row count can't tell a finished view
+    // from one whose rebuild died partway, so list reads are refused until the
+    // marker exists.
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfIncomplete() {
+
+        if (!backfillOnStartup || jobMarkerRepository.existsById(BUILT_MARKER)) {
+            ready = true;
+            return;
+        }
+
+        if (bookingRepository.count() == 0) {
+            // nothing to seed; listeners keep the view in step from here on
+            markBuilt();
+            return;
+        }
+
+        // a failed backfill leaves the gate shut until a rebuild succeeds
+        rebuild();
+    }
+
+    private void markBuilt() {
+        jobMarkerRepository.save(new JobMarker(BUILT_MARKER, LocalDateTime.now()));
+        ready = true;
+    }
+
+    public void requireReady() {
+        if (!ready) {
+            throw new ServiceUnavailableException("Booking lists are warming up, please retry");
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    private BookingView toView(BookingRow row) {
+        return new BookingView(
+                row.bookingId(),
+                row.customerId(),
+                row.customerName(),
+                row.customerEmail(),
+                row.customerMobile(),
+                row.providerId(),
+                row.providerName(),
+                row.providerRating(),
+                row.serviceId(),
+                row.serviceName(),
+                row.categoryName(),
+                row.servicePrice(),
+                row.bookingDateTime(),
+                row.location(),
+                row.status(),
+                row.amount(),
+                row.createdAt());
+    }
+}
@@ -0,0 +1,75 @@
+package com.servicebooking.service;
+
+import com.servicebooking.entity.CustomerProfile;
+import com.servicebooking.entity.ProviderProfile;
+import com.servicebooking.entity.User;
+import com.servicebooking.exception.ResourceNotFoundException;
+import com.servicebooking.repository.CustomerProfileRepository;
+import com.servicebooking.repository.ProviderProfileRepository;
+import com.servicebooking.repository.UserRepository;
+import com.servicebooking.security.JwtPrincipal;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+
+import java.util.Optional;
+
+// Loads the authenticated user and their profile at most once per request
+@Component
+@RequestScope
+public class CurrentUserResolver {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CustomerProfileRepository customerProfileRepository;
+
+    @Autowired
+    private ProviderProfileRepository providerProfileRepository;
+
+    private User user;
+    private CustomerProfile customerProfile;
+    private ProviderProfile providerProfile;
+
+    public User getUser() {
+        if (user == null) {
+            user = loadUser();
+        }
+        return user;
+    }
+
+    public Optional<CustomerProfile> getCustomerProfile() {
+        if (customerProfile == null) {
+            customerProfile = customerProfileRepository
+                    .findByUserId(getUser().getId())
+                    .orElse(null);
+        }
+        return Optional.ofNullable(customerProfile);
+    }
+
+    public Optional<ProviderProfile> getProviderProfile() {
+        if (providerProfile == null) {
+            providerProfile = providerProfileRepository
+                    .findByUserId(getUser().getId())
+                    .orElse(null);
+        }
+        return Optional.ofNullable(providerProfile);
+    }
+
+    private User loadUser() {
+
+        Authentication auth = SecurityContextHolder
+                .getContext()
+                .getAuthentication();
+
+        Optional<User> found = auth.getPrincipal() instanceof JwtPrincipal principal
+                ? userRepository.findById(principal.userId())
+                : userRepository.findByEmailIgnoreCase(auth.getName());
+
+        return found.orElseThrow(() ->
+                new ResourceNotFoundException("User not found"));
+    }
+}
@@ -3,9 +3,14 @@ package com.servicebooking.service;
 import com.servicebooking.dto.response.CustomerProfileResponseDTO;
 import com.servicebooking.entity.CustomerProfile;
 import com.servicebooking.entity.User;
+import com.servicebooking.event.UserAccountChangedEvent;
+import com.servicebooking.event.UserDetailsChangedEvent;
 import com.servicebooking.repository.CustomerProfileRepository;
+import com.servicebooking.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 @Service
@@ -17,21 +22,27 @@ public class CustomerProfileService {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     // ✅ Get My Profile
     public CustomerProfile getMyProfile() {
-        User user = userService.getCurrentUser();
-
-        return repository.findByUser(user)
+        return userService.findCurrentCustomerProfile()
                 .orElseThrow(() -> new RuntimeException("Profile not found"));
     }
 
     // ✅ Update profile with email + optional image
+    @Transactional
     public CustomerProfileResponseDTO updateProfile(String email, MultipartFile imageFile) {
 
         try {
             User user = userService.getCurrentUser();
+            String previousEmail = user.getEmail();
 
-            CustomerProfile profile = repository.findByUser(user)
+            CustomerProfile profile = userService.findCurrentCustomerProfile()
                     .orElse(new CustomerProfile());
 
             profile.setUser(user);
@@ -51,6 +62,14 @@ public class CustomerProfileService {
 
             CustomerProfile savedProfile = repository.save(profile);
 
+            if (!user.getEmail().equals(previousEmail)) {
+                userRepository.save(user);
+                // the principal cache is keyed by the old address
+                eventPublisher.publishEvent(new UserAccountChangedEvent(previousEmail));
+                eventPublisher.publishEvent(new UserDetailsChangedEvent(
+                        user.getId(), user.getName(), user.getEmail(), user.getMobileNumber()));
+            }
+
             // ✅ Convert Entity → DTO
             return CustomerProfileResponseDTO.builder()
                     .id(savedProfile.getId())
@@ -73,9 +92,7 @@ public class CustomerProfileService {
 
     // ✅ Delete profile
     public void deleteProfile() {
-        User user = userService.getCurrentUser();
-
-        CustomerProfile profile = repository.findByUser(user)
+        CustomerProfile profile = userService.findCurrentCustomerProfile()
                 .orElseThrow(() -> new RuntimeException("Profile not found"));
 
         repository.delete(profile);
@@ -0,0 +1,271 @@
+package com.servicebooking.service;
+
+import com.servicebooking.dto.projection.StatsTotals;
+import com.servicebooking.entity.DailyStats;
+import com.servicebooking.entity.JobMarker;
+import com.servicebooking.enums.BookingStatus;
+import com.servicebooking.enums.PaymentStatus;
+import com.servicebooking.event.BookingStatusBatchChangedEvent;
+import com.servicebooking.event.BookingStatusChangedEvent;
+import com.servicebooking.event.PaymentStatusChangedEvent;
+import com.servicebooking.repository.ArchivedBookingRepository;
+import com.servicebooking.repository.ArchivedPaymentRepository;
+import com.servicebooking.repository.BookingRepository;
+import com.servicebooking.repository.DailyStatsRepository;
+import com.servicebooking.repository.JobMarkerRepository;
+import com.servicebooking.repository.PaymentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+public class DailyStatsService {
+
+    private static final Logger log = LoggerFactory.getLogger(DailyStatsService.class);
+
+    static final String RECONCILED_MARKER = "daily-stats.reconciled-through";
+
+    @Autowired
+    private DailyStatsRepository dailyStatsRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private ArchivedBookingRepository archivedBookingRepository;
+
+    @Autowired
+    private ArchivedPaymentRepository archivedPaymentRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JobMarkerRepository jobMarkerRepository;
+
+    @Value("${stats.daily.backfill-on-startup:true}")
+    private boolean backfillOnStartup;
+
+    @Value("${stats.daily.reconcile-overlap-ms:60000}")
+    private long reconcileOverlapMs;
+
+    private final Set<LocalDate> dirtyDays = ConcurrentHashMap.newKeySet();
+
+    // ================= DIRTY DAYS =================
+    // Booking and payment transactions never touch daily_stats; after commit they
+    // only mark the day, and flushDirtyDays recomputes it from the source tables.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingStatusChanged(BookingStatusChangedEvent event) {
+
+        if (event.previousStatus() == event.newStatus()) return;
+
+        dirtyDays.add(dayOf(event.createdAt()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingStatusBatchChanged(BookingStatusBatchChangedEvent batch) {
+        batch.changes().forEach(this::onBookingStatusChanged);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPaymentStatusChanged(PaymentStatusChangedEvent event) {
+
+        boolean was = event.previousStatus() == PaymentStatus.COMPLETED;
+        boolean is = event.newStatus() == PaymentStatus.COMPLETED;
+
+        if (was == is) return;
+
+        dirtyDays.add(dayOf(event.createdAt()));
+    }
+
+    @Scheduled(fixedDelayString = "${stats.daily.flush-ms:2000}")
+    public void flushDirtyDays() {
+
+        for (LocalDate day : new TreeSet<>(dirtyDays)) {
+
+            dirtyDays.remove(day);
+
+            try {
+                refreshDay(day);
+            } catch (RuntimeException e) {
+                dirtyDays.add(day);
+                log.warn("Daily stats refresh for {} failed: {}", day, e.getMessage());
+            }
+        }
+    }
+
+    // Marks lost on a crash between commit and flush are repaired here: every day
+    // with a booking or payment updated since the last reconcile is refreshed, and
+    // only then does the persisted watermark move. The overlap covers transactions
+    // that stamped updatedAt before the previous pass and committed after it.
+    @Scheduled(fixedDelayString = "${stats.daily.reconcile-ms:300000}",
+            initialDelayString = "${stats.daily.reconcile-ms:300000}")
+    public void reconcileChangedDays() {
+        try {
+            reconcile();
+        } catch (RuntimeException e) {
+            log.warn("Daily stats reconcile failed: {}", e.getMessage());
+        }
+    }
+
+    public int reconcile() {
+
+        LocalDateTime startedAt = LocalDateTime.now();
+        LocalDateTime since = jobMarkerRepository.findById(RECONCILED_MARKER)
+                .map(marker -> marker.getMarkedAt().minus(Duration.ofMillis(reconcileOverlapMs)))
+                .orElse(startedAt.toLocalDate().minusDays(1).atStartOfDay());
+
+        Set<LocalDate> days = new TreeSet<>(bookingRepository.findCreatedDaysUpdatedSince(since));
+        days.addAll(paymentRepository.findCreatedDaysUpdatedSince(since));
+
+        for (LocalDate day : days) {
+            refreshDay(day);
+        }
+
+        jobMarkerRepository.save(new JobMarker(RECONCILED_MARKER, startedAt));
+        return days.size();
+    }
+
+    public int pendingDays() {
+        return dirtyDays.size();
+    }
+
+    // ================= READS =================
+    public StatsTotals getTotals() {
+        return dailyStatsRepository.sumAll();
+    }
+
+    public StatsTotals getTotalsBetween(LocalDate from, LocalDate to) {
+        return dailyStatsRepository.sumBetween(from, to);
+    }
+
+    // ================= REBUILD =================
+    // Refreshes every day in the range that has source rows or a stored row, one
+    // locked day at a time, so it is safe to run while bookings are written
+    public Map<String, Object> rebuild(LocalDate from, LocalDate to) {
+
+        Set<LocalDate> days = new TreeSet<>(computeDays(from, to).keySet());
+        days.addAll(dailyStatsRepository.findDaysBetween(from, to));
+
+        int written = 0;
+        int removed = 0;
+
+        for (LocalDate day : days) {
+            if (refreshDay(day)) written++;
+            else removed++;
+        }
+
+        log.info("Rebuilt daily_stats {}..{}: {} rows written, {} rows removed", from, to, written, removed);
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("from", from);
+        result.put("to", to);
+        result.put("rowsRemoved", removed);
+        result.put("rowsWritten", written);
+        return result;
+    }
+
+    // Locks the day's row (creating it if needed) before counting, so two nodes
+    // refreshing the same day serialize and the later one sees the earlier commit.
+    // Returns false when the day has no activity and its row was removed.
+    private boolean refreshDay(LocalDate day) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+
+            dailyStatsRepository.insertIfAbsent(day);
+            DailyStats row = dailyStatsRepository.lockByDay(day).orElseThrow();
+
+            DailyStats fresh = computeDays(day, day).get(day);
+
+            if (fresh == null) {
+                dailyStatsRepository.delete(row);
+                return false;
+            }
+
+            row.setTotalBookings(fresh.getTotalBookings());
+            row.setPendingBookings(fresh.getPendingBookings());
+            row.setAcceptedBookings(fresh.getAcceptedBookings());
+            row.setCompletedBookings(fresh.getCompletedBookings());
+            row.setCancelledBookings(fresh.getCancelledBookings());
+            row.setCompletedPayments(fresh.getCompletedPayments());
+            row.setRevenue(fresh.getRevenue());
+            return true;
+        }));
+    }
+
+    // Absolute per-day values from live and archived rows
+    private Map<LocalDate, DailyStats> computeDays(LocalDate from, LocalDate to) {
+
+        LocalDateTime start = from.atStartOfDay();
+        LocalDateTime end = to.plusDays(1).atStartOfDay();
+
+        Map<LocalDate, DailyStats> days = new TreeMap<>();
+
+        // archived bookings and payments still belong to the days they were created
+        List<Object[]> bookingCounts = new ArrayList<>(bookingRepository.countByDayAndStatus(start, end));
+        bookingCounts.addAll(archivedBookingRepository.countByDayAndStatus(start, end));
+
+        List<Object[]> paymentSums = new ArrayList<>(paymentRepository.sumCompletedByDay(start, end));
+        paymentSums.addAll(archivedPaymentRepository.sumCompletedByDay(start, end));
+
+        for (Object[] row : bookingCounts) {
+            DailyStats stats = days.computeIfAbsent((LocalDate) row[0], DailyStats::new);
+            long count = (Long) row[2];
+
+            stats.setTotalBookings(stats.getTotalBookings() + count);
+
+            switch ((BookingStatus) row[1]) {
+                case PENDING -> stats.setPendingBookings(stats.getPendingBookings() + count);
+                case ACCEPTED -> stats.setAcceptedBookings(stats.getAcceptedBookings() + count);
+                case COMPLETED -> stats.setCompletedBookings(stats.getCompletedBookings() + count);
+                case CANCELLED -> stats.setCancelledBookings(stats.getCancelledBookings() + count);
+            }
+        }
+
+        for (Object[] row : paymentSums) {
+            DailyStats stats = days.computeIfAbsent((LocalDate) row[0], DailyStats::new);
+            stats.setCompletedPayments(stats.getCompletedPayments() + (Long) row[1]);
+            stats.setRevenue(stats.getRevenue().add(row[2] != null ? (BigDecimal) row[2] : BigDecimal.ZERO));
+        }
+
+        return days;
+    }
+
+    // Seeds the rollup once for databases that predate the table
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+
+        if (!backfillOnStartup || dailyStatsRepository.count() > 0 || bookingRepository.count() == 0) return;
+
+        rebuild(LocalDate.EPOCH, LocalDate.now());
+    }
+
+    private LocalDate dayOf(LocalDateTime createdAt) {
+        return createdAt != null ? createdAt.toLocalDate() : LocalDate.now();
+    }
+}
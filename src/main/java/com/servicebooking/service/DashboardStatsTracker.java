@@ -0,0 +1,179 @@
+package com.servicebooking.service;
+
+import com.servicebooking.dto.projection.StatsTotals;
+import com.servicebooking.enums.BookingStatus;
+import com.servicebooking.enums.PaymentStatus;
+import com.servicebooking.event.BookingStatusBatchChangedEvent;
+import com.servicebooking.event.BookingStatusChangedEvent;
+import com.servicebooking.event.PaymentStatusChangedEvent;
+import com.servicebooking.event.UserRegisteredEvent;
+import com.servicebooking.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+// In-process dashboard counters. Committed events move them immediately; a
+// periodic reconcile against daily_stats and users corrects drift from other
+// nodes, rolled-back work or missed events.
+@Component
+public class DashboardStatsTracker {
+
+    private static final Logger log = LoggerFactory.getLogger(DashboardStatsTracker.class);
+
+    @Autowired
+    private DailyStatsService dailyStatsService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final LongAdder totalUsers = new LongAdder();
+    private final LongAdder totalBookings = new LongAdder();
+    private final Map<BookingStatus, LongAdder> bookingsByStatus = new EnumMap<>(BookingStatus.class);
+    private final LongAdder monthRevenueCents = new LongAdder();
+
+    private volatile YearMonth revenueMonth = YearMonth.now();
+    private volatile LocalDateTime reconciledAt;
+
+    public DashboardStatsTracker() {
+        for (BookingStatus status : BookingStatus.values()) {
+            bookingsByStatus.put(status, new LongAdder());
+        }
+    }
+
+    // ================= LIVE UPDATES =================
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingStatusChanged(BookingStatusChangedEvent event) {
+
+        if (event.previousStatus() == event.newStatus()) return;
+
+        if (event.previousStatus() == null) {
+            totalBookings.increment();
+        } else {
+            bookingsByStatus.get(event.previousStatus()).decrement();
+        }
+
+        bookingsByStatus.get(event.newStatus()).increment();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingStatusBatchChanged(BookingStatusBatchChangedEvent batch) {
+        batch.changes().forEach(this::onBookingStatusChanged);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPaymentStatusChanged(PaymentStatusChangedEvent event) {
+
+        int was = event.previousStatus() == PaymentStatus.COMPLETED ? 1 : 0;
+        int is = event.newStatus() == PaymentStatus.COMPLETED ? 1 : 0;
+
+        if (was == is || event.amount() == null) return;
+
+        YearMonth month = event.createdAt() != null ? YearMonth.from(event.createdAt()) : YearMonth.now();
+        if (!month.equals(currentRevenueMonth())) return;
+
+        long cents = toCents(event.amount());
+        monthRevenueCents.add(is > was ? cents : -cents);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserRegistered(UserRegisteredEvent event) {
+        totalUsers.increment();
+    }
+
+    // ================= RECONCILE =================
+    // Runs after the daily_stats backfill so a fresh node starts from real totals
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        reconcile();
+    }
+
+    @Scheduled(fixedDelayString = "${stats.dashboard.reconcile-ms:30000}",
+            initialDelayString = "${stats.dashboard.reconcile-ms:30000}")
+    public void reconcile() {
+
+        try {
+            // pick up this node's committed changes that are still waiting for a flush
+            dailyStatsService.flushDirtyDays();
+
+            LocalDate today = LocalDate.now();
+            StatsTotals totals = dailyStatsService.getTotals();
+            StatsTotals month = dailyStatsService.getTotalsBetween(today.withDayOfMonth(1), today);
+            long users = userRepository.count();
+
+            // Apply the difference rather than reset, so increments racing with
+            // the reconcile are not thrown away
+            correct(totalUsers, users);
+            correct(totalBookings, totals.totalBookings());
+            correct(bookingsByStatus.get(BookingStatus.PENDING), totals.pendingBookings());
+            correct(bookingsByStatus.get(BookingStatus.ACCEPTED), totals.acceptedBookings());
+            correct(bookingsByStatus.get(BookingStatus.COMPLETED), totals.completedBookings());
+            correct(bookingsByStatus.get(BookingStatus.CANCELLED), totals.cancelledBookings());
+
+            revenueMonth = YearMonth.from(today);
+            correct(monthRevenueCents, toCents(month.revenue()));
+
+            reconciledAt = LocalDateTime.now();
+        } catch (Exception e) {
+            log.warn("Dashboard stats reconcile failed: {}", e.getMessage());
+        }
+    }
+
+    // ================= SNAPSHOT =================
+    public Map<String, Object> snapshot() {
+
+        Map<String, Object> stats = new HashMap<>();
+
+        stats.put("totalUsers", totalUsers.sum());
+        stats.put("totalBookings", totalBookings.sum());
+        stats.put("pendingBookings", bookingsByStatus.get(BookingStatus.PENDING).sum());
+        stats.put("acceptedBookings", bookingsByStatus.get(BookingStatus.ACCEPTED).sum());
+        stats.put("completedBookings", bookingsByStatus.get(BookingStatus.COMPLETED).sum());
+        stats.put("cancelledBookings", bookingsByStatus.get(BookingStatus.CANCELLED).sum());
+        stats.put("monthlyRevenue", currentRevenueMonth().equals(revenueMonth)
+                ? BigDecimal.valueOf(monthRevenueCents.sum(), 2)
+                : BigDecimal.ZERO.setScale(2));
+        stats.put("reconciledAt", reconciledAt);
+
+        return stats;
+    }
+
+    // Starts a fresh revenue counter when the calendar month rolls over
+    private synchronized YearMonth currentRevenueMonth() {
+
+        YearMonth now = YearMonth.now();
+
+        if (!now.equals(revenueMonth)) {
+            monthRevenueCents.reset();
+            revenueMonth = now;
+        }
+
+        return now;
+    }
+
+    private void correct(LongAdder adder, long truth) {
+        long drift = truth - adder.sum();
+        if (drift != 0) adder.add(drift);
+    }
+
+    private long toCents(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValue();
+    }
+}
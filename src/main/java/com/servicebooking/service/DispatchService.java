@@ -0,0 +1,298 @@
+package com.servicebooking.service;
+
+import com.servicebooking.dto.projection.PendingBookingRow;
+import com.servicebooking.dto.projection.ProviderCandidateRow;
+import com.servicebooking.entity.ServiceItem;
+import com.servicebooking.enums.BookingStatus;
+import com.servicebooking.enums.ProviderStatus;
+import com.servicebooking.exception.BadRequestException;
+import com.servicebooking.exception.ConflictException;
+import com.servicebooking.exception.ResourceNotFoundException;
+import com.servicebooking.repository.BookingRepository;
+import com.servicebooking.repository.ProviderProfileRepository;
+import com.servicebooking.repository.ServiceItemRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Matches unassigned PENDING bookings to APPROVED/ONLINE providers in batches.
+// Candidate lists per service are precomputed and refreshed periodically; within
+// a run each service has a priority queue ordered by score, which falls as a
+// provider picks up load. Run it on one node only (dispatch.enabled).
+@Service
+public class DispatchService {
+
+    private static final Logger log = LoggerFactory.getLogger(DispatchService.class);
+
+    private static final List<ProviderStatus> DISPATCHABLE =
+            List.of(ProviderStatus.APPROVED, ProviderStatus.ONLINE);
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ProviderProfileRepository providerRepo;
+
+    @Autowired
+    private ServiceItemRepository serviceRepo;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private ProviderScheduleIndex scheduleIndex;
+
+    @Value("${dispatch.enabled:false}")
+    private boolean enabled;
+
+    @Value("${dispatch.batch-size:200}")
+    private int batchSize;
+
+    @Value("${dispatch.max-batches-per-run:10}")
+    private int maxBatchesPerRun;
+
+    @Value("${dispatch.max-open-bookings:8}")
+    private int maxOpenBookings;
+
+    @Value("${dispatch.candidate-refresh-ms:60000}")
+    private long candidateRefreshMs;
+
+    @Value("${dispatch.weight.rating:1.0}")
+    private double ratingWeight;
+
+    @Value("${dispatch.weight.experience:0.5}")
+    private double experienceWeight;
+
+    @Value("${dispatch.weight.load:0.75}")
+    private double loadWeight;
+
+    private volatile Map<Long, List<Candidate>> candidatesByService = Map.of();
+    private volatile long candidatesLoadedAt;
+
+    private final AtomicLong assigned = new AtomicLong();
+    private final AtomicLong unmatched = new AtomicLong();
+    private final AtomicLong conflicts = new AtomicLong();
+
+    // ================= SCHEDULED RUN =================
+    @Scheduled(fixedDelayString = "${dispatch.interval-ms:5000}")
+    public void dispatchPending() {
+
+        if (!enabled) return;
+
+        try {
+            runOnce();
+        } catch (Exception e) {
+            log.warn("Dispatch run failed: {}", e.getMessage());
+        }
+    }
+
+    public synchronized Map<String, Object> runOnce() {
+
+        if (System.currentTimeMillis() - candidatesLoadedAt > candidateRefreshMs) {
+            refreshCandidates();
+        }
+
+        Map<Long, PriorityQueue<QueueEntry>> queues = new HashMap<>();
+        int runAssigned = 0;
+        int runUnmatched = 0;
+        long afterId = 0;
+
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+
+            // keyset on id: assigned rows drop out of the set, so OFFSET would skip bookings
+            List<PendingBookingRow> pending = bookingRepository.findUnassigned(
+                    BookingStatus.PENDING, afterId, PageRequest.of(0, batchSize));
+
+            if (pending.isEmpty()) break;
+
+            for (PendingBookingRow booking : pending) {
+                afterId = booking.bookingId();
+
+                PriorityQueue<QueueEntry> queue = queues.computeIfAbsent(
+                        booking.serviceId(), this::newQueue);
+
+                if (assign(booking, queue)) {
+                    runAssigned++;
+                } else {
+                    runUnmatched++;
+                }
+            }
+
+            if (pending.size() < batchSize) break;
+        }
+
+        assigned.addAndGet(runAssigned);
+        unmatched.addAndGet(runUnmatched);
+
+        if (runAssigned > 0) {
+            log.info("Dispatch assigned {} bookings, {} left unmatched", runAssigned, runUnmatched);
+        }
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("assigned", runAssigned);
+        result.put("unmatched", runUnmatched);
+        return result;
+    }
+
+    // Pops candidates best-first until one is free at that time and under its load cap.
+    // A provider sits in several service queues, so an entry whose score went stale
+    // (the provider took load elsewhere) is re-queued at its current score.
+    private boolean assign(PendingBookingRow booking, PriorityQueue<QueueEntry> queue) {
+
+        List<QueueEntry> passed = new ArrayList<>();
+
+        try {
+            while (!queue.isEmpty()) {
+                QueueEntry entry = queue.poll();
+                Candidate candidate = entry.candidate();
+
+                if (entry.score() != candidate.score) {
+                    queue.add(new QueueEntry(candidate, candidate.score));
+                    continue;
+                }
+
+                if (candidate.load >= maxOpenBookings) {
+                    // queue is score-ordered, but a full provider stays out for the rest of the run
+                    continue;
+                }
+
+                if (scheduleIndex.findConflict(candidate.providerId, booking.bookingDateTime(), booking.bookingId()) != null) {
+                    passed.add(entry);
+                    continue;
+                }
+
+                try {
+                    bookingService.assignProvider(booking.bookingId(), candidate.providerId);
+                } catch (BadRequestException | ConflictException | ResourceNotFoundException e) {
+                    conflicts.incrementAndGet();
+                    passed.add(entry);
+                    // a booking cancelled or assigned since it was listed fails the same way for every provider
+                    if (!stillUnassigned(booking.bookingId())) {
+                        return false;
+                    }
+                    // lost the provider's slot to another assignment; try the next provider
+                    continue;
+                }
+
+                candidate.load++;
+                candidate.score = score(candidate);
+                passed.add(new QueueEntry(candidate, candidate.score));
+                return true;
+            }
+
+            return false;
+        } finally {
+            queue.addAll(passed);
+        }
+    }
+
+    private boolean stillUnassigned(Long bookingId) {
+        return bookingRepository.findStatesByIds(List.of(bookingId)).stream()
+                .anyMatch(state -> state.status() == BookingStatus.PENDING && state.providerId() == null);
+    }
+
+    // ================= CANDIDATES =================
+    public synchronized void refreshCandidates() {
+
+        Map<Long, Long> load = new HashMap<>();
+        for (Object[] row : bookingRepository.countByProviderAndStatus(BookingStatus.ACCEPTED)) {
+            load.put((Long) row[0], (Long) row[1]);
+        }
+
+        List<Candidate> candidates = new ArrayList<>();
+        for (ProviderCandidateRow row : providerRepo.findCandidates(DISPATCHABLE)) {
+            Candidate candidate = new Candidate(row, load.getOrDefault(row.providerId(), 0L).intValue());
+            candidate.score = score(candidate);
+            candidates.add(candidate);
+        }
+
+        Map<Long, List<Candidate>> byService = new HashMap<>();
+
+        for (ServiceItem service : serviceRepo.findAll()) {
+            String id = String.valueOf(service.getId());
+            String name = service.getName().trim().toLowerCase();
+
+            List<Candidate> matching = new ArrayList<>();
+            for (Candidate candidate : candidates) {
+                if (candidate.services.contains(id) || candidate.services.contains(name)) {
+                    matching.add(candidate);
+                }
+            }
+
+            if (!matching.isEmpty()) {
+                byService.put(service.getId(), matching);
+            }
+        }
+
+        candidatesByService = byService;
+        candidatesLoadedAt = System.currentTimeMillis();
+    }
+
+    private PriorityQueue<QueueEntry> newQueue(Long serviceId) {
+
+        PriorityQueue<QueueEntry> queue = new PriorityQueue<>(
+                Comparator.comparingDouble(QueueEntry::score).reversed()
+                        .thenComparingLong(e -> e.candidate().providerId));
+
+        for (Candidate candidate : candidatesByService.getOrDefault(serviceId, List.of())) {
+            queue.add(new QueueEntry(candidate, candidate.score));
+        }
+        return queue;
+    }
+
+    private double score(Candidate c) {
+        return ratingWeight * c.rating
+                + experienceWeight * Math.log1p(c.completedJobs)
+                - loadWeight * c.load;
+    }
+
+    public Map<String, Object> getStats() {
+        return Map.of(
+                "enabled", enabled,
+                "servicesWithCandidates", candidatesByService.size(),
+                "assigned", assigned.get(),
+                "unmatched", unmatched.get(),
+                "conflicts", conflicts.get());
+    }
+
+    private record QueueEntry(Candidate candidate, double score) {
+    }
+
+    private static final class Candidate {
+
+        final Long providerId;
+        final double rating;
+        final int completedJobs;
+        final Set<String> services;
+        int load;
+        double score;
+
+        Candidate(ProviderCandidateRow row, int load) {
+            this.providerId = row.providerId();
+            this.rating = row.rating() != null ? row.rating() : 0.0;
+            this.completedJobs = row.completedJobs() != null ? row.completedJobs() : 0;
+            this.services = parseServices(row.selectedServices());
+            this.load = load;
+        }
+
+        // selectedServices is a free-form comma separated list of service ids or names
+        private static Set<String> parseServices(String selected) {
+
+            if (selected == null || selected.isBlank()) return Set.of();
+
+            Set<String> tokens = new HashSet<>();
+            for (String token : selected.split(",")) {
+                String t = token.trim().toLowerCase();
+                if (!t.isEmpty()) tokens.add(t);
+            }
+            return tokens;
+        }
+    }
+}
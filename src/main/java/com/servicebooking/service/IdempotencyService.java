@@ -0,0 +1,352 @@
+package com.servicebooking.service;
+
+import com.servicebooking.dto.response.ApiResponse;
+import com.servicebooking.entity.IdempotencyRecord;
+import com.servicebooking.enums.IdempotencyStatus;
+import com.servicebooking.exception.BadRequestException;
+import com.servicebooking.exception.ConflictException;
+import com.servicebooking.repository.IdempotencyRecordRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// Idempotency-Key handling for non-idempotent POSTs. Lookup order: recent-key
+// LRU, then requests already running on this node (waiters share the leader's
+// result), then the idempotency_keys table, which also fences other nodes.
+// Only the created resource's id and the message are stored; a replay re-reads
+// the resource, so no serialized entity graph ends up in the table.
+//
+// A claim holds a lease that this node renews while the action runs. Another
+// request may take the key over only once the lease has lapsed, i.e. the
+// holder stopped renewing because it died, not merely because it is slow. The
+// action and the COMPLETED update commit in one transaction, so a key is never
+// left IN_PROGRESS behind a resource that already exists.
+@Service
+public class IdempotencyService {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyService.class);
+
+    @Autowired
+    private IdempotencyRecordRepository repository;
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${idempotency.ttl-hours:24}")
+    private long ttlHours;
+
+    @Value("${idempotency.lease-ms:30000}")
+    private long leaseMs;
+
+    @Value("${idempotency.wait-timeout-ms:30000}")
+    private long waitTimeoutMs;
+
+    @Value("${idempotency.cache.max-entries:10000}")
+    private int maxCacheEntries;
+
+    private TransactionTemplate requiresNew;
+    private TransactionTemplate inTransaction;
+    private Map<String, StoredResponse> recent;
+
+    private final ConcurrentHashMap<String, CompletableFuture<StoredResponse>> inFlight = new ConcurrentHashMap<>();
+
+    // keyHash -> lease owner token for claims this node is still working on
+    private final ConcurrentHashMap<String, String> leases = new ConcurrentHashMap<>();
+
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder storeHits = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder takeovers = new LongAdder();
+    private final LongAdder leasesLost = new LongAdder();
+
+    @PostConstruct
+    void init() {
+        requiresNew = new TransactionTemplate(transactionManager);
+        requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        inTransaction = new TransactionTemplate(transactionManager);
+
+        recent = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, StoredResponse> eldest) {
+                return size() > maxCacheEntries;
+            }
+        };
+    }
+
+    // ================= EXECUTE =================
+    // idOf extracts the created resource's id from the response; reload reads it back for a replay
+    public <T> ApiResponse<T> execute(
+            String scope,
+            String key,
+            Object request,
+            Function<T, Long> idOf,
+            Function<Long, T> reload,
+            Supplier<ApiResponse<T>> action) {
+
+        if (key == null || key.isBlank()) return action.get();
+
+        if (key.length() > 255) {
+            throw new BadRequestException("Idempotency-Key must be at most 255 characters");
+        }
+
+        String keyHash = sha256(scope + "\n" + currentPrincipal() + "\n" + key);
+        String requestHash = sha256(jsonMapper.writeValueAsString(request));
+
+        StoredResponse cached = cacheGet(keyHash);
+        if (cached != null) {
+            cacheHits.increment();
+            return replay(cached, requestHash, reload);
+        }
+
+        CompletableFuture<StoredResponse> mine = new CompletableFuture<>();
+        CompletableFuture<StoredResponse> running = inFlight.putIfAbsent(keyHash, mine);
+
+        if (running != null) {
+            coalesced.increment();
+            return replay(await(running), requestHash, reload);
+        }
+
+        String owner = UUID.randomUUID().toString();
+
+        try {
+            IdempotencyRecord stored = claim(scope, keyHash, requestHash, owner);
+
+            if (stored != null) {
+                storeHits.increment();
+                StoredResponse response = remember(keyHash, stored.getRequestHash(),
+                        stored.getResourceId(), stored.getResponseMessage());
+                mine.complete(response);
+                return replay(response, requestHash, reload);
+            }
+
+            leases.put(keyHash, owner);
+
+            ApiResponse<T> result;
+            try {
+                // the key flips to COMPLETED in the same commit as the action's writes, so a
+                // crash in between leaves neither; a takeover blocks on the row until then
+                result = inTransaction.execute(tx -> {
+                    ApiResponse<T> done = action.get();
+                    Long resourceId = done.getData() != null ? idOf.apply(done.getData()) : null;
+
+                    if (repository.complete(keyHash, owner, IdempotencyStatus.COMPLETED,
+                            resourceId, done.getMessage()) == 0) {
+                        // the lease lapsed and another request took the key over; undo this one
+                        leasesLost.increment();
+                        log.warn("Idempotency lease for scope {} was lost before completion", scope);
+                        throw new ConflictException("A request with this Idempotency-Key is already in progress");
+                    }
+                    return done;
+                });
+            } catch (RuntimeException e) {
+                // release the key so the client can retry a failed request
+                leases.remove(keyHash, owner);
+                requiresNew.executeWithoutResult(tx -> repository.release(keyHash, owner));
+                throw e;
+            }
+
+            executed.increment();
+
+            Long resourceId = result.getData() != null ? idOf.apply(result.getData()) : null;
+            mine.complete(remember(keyHash, requestHash, resourceId, result.getMessage()));
+            return result;
+
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            leases.remove(keyHash, owner);
+            inFlight.remove(keyHash, mine);
+        }
+    }
+
+    // ================= STORE =================
+    // Returns the completed record to replay, or null once this caller owns the key.
+    // The row is read under a write lock, so two nodes can't both take over a lapsed lease.
+    private IdempotencyRecord claim(String scope, String keyHash, String requestHash, String owner) {
+
+        try {
+            return requiresNew.execute(tx -> {
+
+                LocalDateTime now = LocalDateTime.now();
+                IdempotencyRecord record = repository.findByKeyHash(keyHash).orElse(null);
+
+                if (record != null && record.getExpiresAt().isAfter(now)) {
+
+                    if (record.getStatus() == IdempotencyStatus.COMPLETED) {
+                        return record;
+                    }
+
+                    if (leaseUntil(record).isAfter(now)) {
+                        throw new ConflictException("A request with this Idempotency-Key is already in progress");
+                    }
+
+                    takeovers.increment();
+                    log.warn("Taking over idempotency key in scope {}: lease lapsed at {}", scope, leaseUntil(record));
+                }
+
+                if (record == null) {
+                    record = new IdempotencyRecord();
+                    record.setKeyHash(keyHash);
+                }
+
+                record.setScope(scope);
+                record.setRequestHash(requestHash);
+                record.setStatus(IdempotencyStatus.IN_PROGRESS);
+                record.setResourceId(null);
+                record.setResponseMessage(null);
+                record.setLeaseOwner(owner);
+                record.setLeaseUntil(now.plusNanos(leaseMs * 1_000_000));
+                record.setCreatedAt(now);
+                record.setExpiresAt(now.plusHours(ttlHours));
+
+                repository.save(record);
+                return null;
+            });
+        } catch (DataIntegrityViolationException e) {
+            // another node inserted the same key first
+            throw new ConflictException("A request with this Idempotency-Key is already in progress");
+        }
+    }
+
+    // Rows claimed before leases existed have none; treat them as leased from createdAt
+    private LocalDateTime leaseUntil(IdempotencyRecord record) {
+        return record.getLeaseUntil() != null
+                ? record.getLeaseUntil()
+                : record.getCreatedAt().plusNanos(leaseMs * 1_000_000);
+    }
+
+    // Runs well inside the lease so a live holder never looks abandoned
+    @Scheduled(fixedDelayString = "${idempotency.lease-renew-ms:10000}")
+    public void renewLeases() {
+
+        LocalDateTime until = LocalDateTime.now().plusNanos(leaseMs * 1_000_000);
+
+        leases.forEach((keyHash, owner) -> {
+            try {
+                if (repository.renewLease(keyHash, owner, IdempotencyStatus.IN_PROGRESS, until) == 0) {
+                    leases.remove(keyHash, owner);
+                }
+            } catch (Exception e) {
+                log.warn("Idempotency lease renewal failed: {}", e.getMessage());
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${idempotency.purge-ms:600000}")
+    public void purgeExpired() {
+        try {
+            int removed = repository.deleteExpired(LocalDateTime.now());
+            if (removed > 0) log.info("Purged {} expired idempotency keys", removed);
+        } catch (Exception e) {
+            log.warn("Idempotency key purge failed: {}", e.getMessage());
+        }
+    }
+
+    // ================= HELPERS =================
+    private <T> ApiResponse<T> replay(StoredResponse stored, String requestHash, Function<Long, T> reload) {
+
+        if (!stored.requestHash().equals(requestHash)) {
+            throw new BadRequestException("Idempotency-Key was already used with a different request");
+        }
+
+        T data = stored.resourceId() != null ? reload.apply(stored.resourceId()) : null;
+        return ApiResponse.success(stored.message(), data);
+    }
+
+    private StoredResponse await(CompletableFuture<StoredResponse> running) {
+        try {
+            return running.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new ConflictException("A request with this Idempotency-Key is already in progress");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) throw runtime;
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConflictException("Interrupted while waiting for the original request");
+        }
+    }
+
+    private StoredResponse cacheGet(String keyHash) {
+        synchronized (recent) {
+            StoredResponse stored = recent.get(keyHash);
+            if (stored != null && stored.expiresAt() < System.currentTimeMillis()) {
+                recent.remove(keyHash);
+                return null;
+            }
+            return stored;
+        }
+    }
+
+    private StoredResponse remember(String keyHash, String requestHash, Long resourceId, String message) {
+        StoredResponse stored = new StoredResponse(requestHash, resourceId, message,
+                System.currentTimeMillis() + TimeUnit.HOURS.toMillis(ttlHours));
+        synchronized (recent) {
+            recent.put(keyHash, stored);
+        }
+        return stored;
+    }
+
+    private String currentPrincipal() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth != null ? auth.getName() : "anonymous";
+    }
+
+    private String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        int cached;
+        synchronized (recent) {
+            cached = recent.size();
+        }
+        return Map.of(
+                "cachedKeys", cached,
+                "inFlight", inFlight.size(),
+                "cacheHits", cacheHits.sum(),
+                "storeHits", storeHits.sum(),
+                "coalesced", coalesced.sum(),
+                "executed", executed.sum(),
+                "leasesHeld", leases.size(),
+                "takeovers", takeovers.sum(),
+                "leasesLost", leasesLost.sum());
+    }
+
+    private record StoredResponse(String requestHash, Long resourceId, String message, long expiresAt) {
+    }
+}
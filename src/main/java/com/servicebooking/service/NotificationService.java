@@ -1,20 +1,25 @@
 package com.servicebooking.service;
 
 import com.servicebooking.dto.response.ApiResponse;
+import com.servicebooking.dto.response.CursorPageResponse;
 import com.servicebooking.dto.response.PageResponse;
 import com.servicebooking.entity.Notification;
 import com.servicebooking.entity.User;
 import com.servicebooking.exception.ResourceNotFoundException;
 import com.servicebooking.repository.NotificationRepository;
 import com.servicebooking.repository.UserRepository;
+import com.servicebooking.util.PageCursor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+
 @Service
 public class NotificationService {
 
@@ -58,6 +63,29 @@ public class NotificationService {
         return ApiResponse.success("Notifications fetched successfully", response);
     }
 
+    public ApiResponse<CursorPageResponse<Notification>> getUserNotificationFeed(String cursor, int size) {
+        User currentUser = userService.getCurrentUser();
+        PageCursor after = PageCursor.decode(cursor);
+        Pageable limit = PageRequest.of(0, size);
+
+        Slice<Notification> slice = after == null
+                ? notificationRepository.findFeedByUserId(currentUser.getId(), limit)
+                : notificationRepository.findFeedByUserIdAfter(
+                        currentUser.getId(), after.createdAt(), after.id(), limit);
+
+        List<Notification> content = slice.getContent();
+        Notification last = content.isEmpty() ? null : content.get(content.size() - 1);
+
+        CursorPageResponse<Notification> response = new CursorPageResponse<>(
+                content,
+                slice.getSize(),
+                slice.hasNext() ? new PageCursor(last.getCreatedAt(), last.getId()).encode() : null,
+                slice.hasNext()
+        );
+
+        return ApiResponse.success("Notifications fetched successfully", response);
+    }
+
     @Transactional
     public ApiResponse<String> markAsRead(Long notificationId) {
         Notification notification = notificationRepository.findById(notificationId)
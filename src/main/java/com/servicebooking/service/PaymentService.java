@@ -5,11 +5,13 @@ import com.servicebooking.entity.Booking;
 import com.servicebooking.entity.Payment;
 import com.servicebooking.enums.PaymentMethod;
 import com.servicebooking.enums.PaymentStatus;
+import com.servicebooking.event.PaymentStatusChangedEvent;
 import com.servicebooking.exception.ResourceNotFoundException;
 import com.servicebooking.repository.BookingRepository;
 import com.servicebooking.repository.PaymentRepository;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.*;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -28,6 +30,9 @@ public class PaymentService {
     @Autowired
     private BookingRepository bookingRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     // ================= RECORD PAYMENT =================
     @Transactional
     public ApiResponse<Payment> recordPayment(Map<String, Object> request) {
@@ -44,10 +49,17 @@ public class PaymentService {
         payment.setStatus(PaymentStatus.COMPLETED);
 
         payment = paymentRepository.save(payment);
+        publishStatusChange(payment, null);
 
         return ApiResponse.success("Payment recorded successfully", payment);
     }
 
+    // ================= GET PAYMENT =================
+    public Payment getPayment(Long id) {
+        return paymentRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Payment not found"));
+    }
+
     // ================= MARK COMPLETE =================
     @Transactional
     public ApiResponse<Payment> markComplete(Long paymentId) {
@@ -55,9 +67,12 @@ public class PaymentService {
         Payment payment = paymentRepository.findById(paymentId)
                 .orElseThrow(() -> new ResourceNotFoundException("Payment not found"));
 
+        PaymentStatus previous = payment.getStatus();
+
         payment.setStatus(PaymentStatus.COMPLETED);
 
         payment = paymentRepository.save(payment);
+        publishStatusChange(payment, previous);
 
         return ApiResponse.success("Payment marked as complete", payment);
     }
@@ -108,4 +123,16 @@ public class PaymentService {
 
         return ApiResponse.success("Revenue calculated", revenue);
     }
-}
\ No newline at end of file
+
+    // ================= EVENTS =================
+    private void publishStatusChange(Payment payment, PaymentStatus previous) {
+
+        eventPublisher.publishEvent(new PaymentStatusChangedEvent(
+                payment.getId(),
+                payment.getBooking().getId(),
+                payment.getAmount(),
+                payment.getCreatedAt(),
+                previous,
+                payment.getStatus()));
+    }
+}
@@ -0,0 +1,308 @@
+package com.servicebooking.service;
+
+import com.servicebooking.dto.response.BookingStreamEventDTO;
+import com.servicebooking.event.BookingStatusBatchChangedEvent;
+import com.servicebooking.event.BookingStatusChangedEvent;
+import com.servicebooking.exception.ServiceUnavailableException;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Per-provider Server-Sent Events feed. Connections are async servlet requests,
+// so an idle subscriber costs an emitter and a small queue, not a thread. Each
+// subscriber has a bounded queue drained on a shared pool; one that falls too
+// far behind is disconnected and resumes from the replay buffer via Last-Event-ID.
+//
+// Single node only: subscribers, the replay buffer and the id sequence live in
+// this JVM. A provider connected to another node never sees events published
+// here, so run the stream on one node or put a shared broker in front of it.
+// Ids are "<epoch>-<seq>" with a per-start epoch, so a Last-Event-ID from before
+// a restart or from another node can't be mistaken for a position here and
+// gets a resync instead.
+@Component
+public class ProviderBookingStream {
+
+    private static final Logger log = LoggerFactory.getLogger(ProviderBookingStream.class);
+
+    @Value("${booking.stream.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${booking.stream.replay-size:2000}")
+    private int replaySize;
+
+    @Value("${booking.stream.queue-size:64}")
+    private int queueSize;
+
+    @Value("${booking.stream.max-subscribers:50000}")
+    private int maxSubscribers;
+
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong eventIds = new AtomicLong();
+    private final Deque<StreamEvent> replay = new ArrayDeque<>();
+
+    private final ExecutorService senders = Executors.newFixedThreadPool(
+            Math.max(2, Runtime.getRuntime().availableProcessors()), r -> {
+                Thread t = new Thread(r, "booking-sse");
+                t.setDaemon(true);
+                return t;
+            });
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    // ================= SUBSCRIBE =================
+    public SseEmitter subscribe(Long providerId, String lastEventId) {
+
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new ServiceUnavailableException("Booking stream is at capacity, please retry");
+        }
+
+        SseEmitter emitter = newEmitter();
+        Subscriber subscriber = new Subscriber(providerId, emitter, new ArrayBlockingQueue<>(queueSize));
+
+        emitter.onCompletion(() -> unregister(subscriber));
+        emitter.onTimeout(() -> unregister(subscriber));
+        emitter.onError(e -> unregister(subscriber));
+
+        // publishers append and fan out under this monitor too, so every event
+        // reaches the subscriber once: from the snapshot if published before, live after
+        synchronized (replay) {
+            subscribers.computeIfAbsent(providerId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+
+            for (StreamEvent event : missedSince(providerId, lastEventId)) {
+                offer(subscriber, event);
+            }
+        }
+
+        return emitter;
+    }
+
+    SseEmitter newEmitter() {
+        return new SseEmitter(timeoutMs);
+    }
+
+    // ================= PUBLISH =================
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingStatusChanged(BookingStatusChangedEvent event) {
+
+        if (event.providerId() == null) return;
+
+        StreamEvent streamEvent;
+
+        synchronized (replay) {
+            streamEvent = new StreamEvent(
+                    eventIds.incrementAndGet(),
+                    event.providerId(),
+                    "booking",
+                    new BookingStreamEventDTO(
+                            event.bookingId(),
+                            event.previousStatus(),
+                            event.newStatus(),
+                            event.bookingDateTime(),
+                            event.amount()));
+
+            replay.addLast(streamEvent);
+            while (replay.size() > replaySize) replay.removeFirst();
+
+            // offer only queues and hands off to a sender, so this stays short
+            Set<Subscriber> targets = subscribers.get(event.providerId());
+            if (targets != null) {
+                for (Subscriber subscriber : targets) {
+                    offer(subscriber, streamEvent);
+                }
+            }
+        }
+
+        published.increment();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingStatusBatchChanged(BookingStatusBatchChangedEvent batch) {
+        batch.changes().forEach(this::onBookingStatusChanged);
+    }
+
+    @Scheduled(fixedDelayString = "${booking.stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        for (Set<Subscriber> set : subscribers.values()) {
+            for (Subscriber subscriber : set) {
+                offer(subscriber, StreamEvent.HEARTBEAT);
+            }
+        }
+    }
+
+    // ================= DELIVERY =================
+    private void offer(Subscriber subscriber, StreamEvent event) {
+
+        if (!subscriber.queue.offer(event)) {
+            // slow consumer: disconnect rather than buffer without bound
+            dropped.increment();
+            subscriber.emitter.complete();
+            unregister(subscriber);
+            return;
+        }
+
+        if (subscriber.draining.compareAndSet(false, true)) {
+            senders.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+
+        try {
+            StreamEvent event;
+            while ((event = subscriber.queue.poll()) != null) {
+                if (event == StreamEvent.HEARTBEAT) {
+                    subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+                } else {
+                    subscriber.emitter.send(SseEmitter.event()
+                            .id(epoch + "-" + event.id())
+                            .name(event.name())
+                            .data(event.payload(), MediaType.APPLICATION_JSON));
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // client gone, emitter already closed, or a payload that won't serialize
+            close(subscriber, e);
+            return;
+        } finally {
+            subscriber.draining.set(false);
+        }
+
+        // an event may have arrived after the last poll but before draining was cleared
+        if (!subscriber.queue.isEmpty() && subscriber.draining.compareAndSet(false, true)) {
+            senders.execute(() -> drain(subscriber));
+        }
+    }
+
+    // Events for the provider after lastEventId. An id from another epoch, or a gap
+    // older than the buffer, gets a resync marker instead.
+    private List<StreamEvent> missedSince(Long providerId, String lastEventId) {
+
+        List<StreamEvent> missed = new ArrayList<>();
+        if (lastEventId == null || lastEventId.isBlank()) return missed;
+
+        long after = sequenceOf(lastEventId.trim());
+        if (after < 0) return List.of(resync(providerId));
+
+        synchronized (replay) {
+            StreamEvent oldest = replay.peekFirst();
+
+            if (after > eventIds.get() || (oldest != null && oldest.id() > after + 1)) {
+                missed.add(resync(providerId));
+                return missed;
+            }
+
+            for (StreamEvent event : replay) {
+                if (event.id() > after && event.providerId().equals(providerId)) {
+                    missed.add(event);
+                }
+            }
+        }
+
+        // the bounded queue must hold the whole backlog
+        if (missed.size() > queueSize) {
+            return List.of(resync(providerId));
+        }
+
+        return missed;
+    }
+
+    // Sequence number of an id issued in this epoch, or -1 for anything else
+    private long sequenceOf(String eventId) {
+
+        int dash = eventId.lastIndexOf('-');
+        if (dash <= 0 || !eventId.substring(0, dash).equals(epoch)) return -1;
+
+        try {
+            return Long.parseLong(eventId.substring(dash + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private StreamEvent resync(Long providerId) {
+        return new StreamEvent(eventIds.get(), providerId, "resync", Map.of("type", "resync"));
+    }
+
+    private void close(Subscriber subscriber, Exception cause) {
+        try {
+            subscriber.emitter.completeWithError(cause);
+        } catch (RuntimeException ignored) {
+            // already completed
+        }
+        unregister(subscriber);
+    }
+
+    private void unregister(Subscriber subscriber) {
+
+        if (!subscriber.registered.compareAndSet(true, false)) return;
+
+        subscriberCount.decrementAndGet();
+
+        subscribers.computeIfPresent(subscriber.providerId, (id, set) -> {
+            set.remove(subscriber);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    public Map<String, Object> getStats() {
+        return Map.of(
+                "subscribers", subscriberCount.get(),
+                "providers", subscribers.size(),
+                "lastEventId", epoch + "-" + eventIds.get(),
+                "published", published.sum(),
+                "droppedSlowSubscribers", dropped.sum());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        subscribers.values().forEach(set -> set.forEach(s -> s.emitter.complete()));
+        senders.shutdown();
+    }
+
+    private record StreamEvent(long id, Long providerId, String name, Object payload) {
+        static final StreamEvent HEARTBEAT = new StreamEvent(0, null, "heartbeat", null);
+    }
+
+    private static final class Subscriber {
+
+        final Long providerId;
+        final SseEmitter emitter;
+        final Queue<StreamEvent> queue;
+        final AtomicBoolean draining = new AtomicBoolean();
+        final AtomicBoolean registered = new AtomicBoolean(true);
+
+        Subscriber(Long providerId, SseEmitter emitter, Queue<StreamEvent> queue) {
+            this.providerId = providerId;
+            this.emitter = emitter;
+            this.queue = queue;
+        }
+    }
+}
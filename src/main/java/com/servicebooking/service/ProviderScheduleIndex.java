@@ -0,0 +1,246 @@
+package com.servicebooking.service;
+
+import com.servicebooking.dto.projection.ProviderBookingSlot;
+import com.servicebooking.enums.BookingStatus;
+import com.servicebooking.event.BookingStatusBatchChangedEvent;
+import com.servicebooking.event.BookingStatusChangedEvent;
+import com.servicebooking.repository.BookingRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Per-provider sorted map of accepted booking start times. Every booking
+// occupies [start, start + slot), so a conflict is at most a floor and a
+// ceiling lookup. The index is node-local and only a fast pre-check;
+// BookingService re-checks the overlap in the database under a provider
+// row lock, with the unique (provider_id, provider_slot) key as a backstop.
+@Component
+public class ProviderScheduleIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ProviderScheduleIndex.class);
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Value("${booking.slot-minutes:60}")
+    private int slotMinutes;
+
+    @Value("${booking.day-start:08:00}")
+    private String dayStart;
+
+    @Value("${booking.day-end:20:00}")
+    private String dayEnd;
+
+    private volatile Map<Long, TreeMap<LocalDateTime, Long>> byProvider = new ConcurrentHashMap<>();
+    private volatile Map<Long, ProviderBookingSlot> byBooking = new ConcurrentHashMap<>();
+
+    // Events seen while a rebuild is loading; replayed onto the new maps before the swap
+    private List<BookingStatusChangedEvent> pendingReplay;
+    private final Object rebuildLock = new Object();
+
+    // ================= LOOKUPS =================
+    // Returns the id of an accepted booking overlapping the slot starting at start, if any
+    public Long findConflict(Long providerId, LocalDateTime start, Long ignoreBookingId) {
+
+        TreeMap<LocalDateTime, Long> schedule = byProvider.get(providerId);
+        if (schedule == null) return null;
+
+        Duration slot = slotLength();
+
+        synchronized (schedule) {
+            Map.Entry<LocalDateTime, Long> before = schedule.floorEntry(start);
+            if (before != null && !before.getValue().equals(ignoreBookingId)
+                    && before.getKey().plus(slot).isAfter(start)) {
+                return before.getValue();
+            }
+
+            Map.Entry<LocalDateTime, Long> after = schedule.higherEntry(start);
+            if (after != null && !after.getValue().equals(ignoreBookingId)
+                    && after.getKey().isBefore(start.plus(slot))) {
+                return after.getValue();
+            }
+        }
+
+        return null;
+    }
+
+    public List<LocalDateTime> freeSlots(Long providerId, LocalDate day) {
+
+        List<LocalDateTime> free = new ArrayList<>();
+        LocalDateTime end = day.atTime(LocalTime.parse(dayEnd));
+        Duration slot = slotLength();
+
+        for (LocalDateTime start = day.atTime(LocalTime.parse(dayStart)); !start.plus(slot).isAfter(end); start = start.plus(slot)) {
+            if (findConflict(providerId, start, null) == null) {
+                free.add(start);
+            }
+        }
+
+        return free;
+    }
+
+    // Start of the fixed slot grid cell containing the time; used for the DB guard
+    public LocalDateTime slotOf(LocalDateTime time) {
+
+        long minutes = time.toLocalTime().toSecondOfDay() / 60;
+        long aligned = minutes - minutes % slotMinutes;
+
+        return time.toLocalDate().atStartOfDay().plusMinutes(aligned);
+    }
+
+    public Duration slotLength() {
+        return Duration.ofMinutes(slotMinutes);
+    }
+
+    public int size() {
+        return byBooking.size();
+    }
+
+    // ================= UPDATES =================
+    // Writers hold the monitor so an event can't slip between a rebuild's load and its swap
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onBookingStatusChanged(BookingStatusChangedEvent event) {
+
+        if (pendingReplay != null) {
+            pendingReplay.add(event);
+        }
+
+        apply(event, byProvider, byBooking);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onBookingStatusBatchChanged(BookingStatusBatchChangedEvent batch) {
+        batch.changes().forEach(this::onBookingStatusChanged);
+    }
+
+    private static void apply(BookingStatusChangedEvent event,
+                              Map<Long, TreeMap<LocalDateTime, Long>> providers,
+                              Map<Long, ProviderBookingSlot> bookings) {
+
+        remove(event.bookingId(), providers, bookings);
+
+        if (event.newStatus() == BookingStatus.ACCEPTED && event.providerId() != null) {
+            add(new ProviderBookingSlot(event.providerId(), event.bookingId(), event.bookingDateTime()),
+                    providers, bookings);
+        }
+    }
+
+    private static void add(ProviderBookingSlot slot,
+                            Map<Long, TreeMap<LocalDateTime, Long>> providers,
+                            Map<Long, ProviderBookingSlot> bookings) {
+
+        TreeMap<LocalDateTime, Long> schedule =
+                providers.computeIfAbsent(slot.providerId(), id -> new TreeMap<>());
+
+        synchronized (schedule) {
+            schedule.put(slot.start(), slot.bookingId());
+        }
+
+        bookings.put(slot.bookingId(), slot);
+    }
+
+    private static void remove(Long bookingId,
+                               Map<Long, TreeMap<LocalDateTime, Long>> providers,
+                               Map<Long, ProviderBookingSlot> bookings) {
+
+        ProviderBookingSlot slot = bookings.remove(bookingId);
+        if (slot == null) return;
+
+        TreeMap<LocalDateTime, Long> schedule = providers.get(slot.providerId());
+        if (schedule == null) return;
+
+        synchronized (schedule) {
+            schedule.remove(slot.start(), slot.bookingId());
+        }
+    }
+
+    // ================= REBUILD =================
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+
+        backfillProviderSlots();
+        rebuild();
+    }
+
+    // Loads accepted bookings from one slot ago onwards; past bookings can't conflict.
+    // The load runs without the monitor; events arriving meanwhile are applied to the
+    // live maps and recorded, then replayed onto the loaded maps before the swap.
+    @Scheduled(fixedDelayString = "${booking.schedule.resync-ms:300000}",
+            initialDelayString = "${booking.schedule.resync-ms:300000}")
+    public void rebuild() {
+
+        synchronized (rebuildLock) {
+            synchronized (this) {
+                pendingReplay = new ArrayList<>();
+            }
+
+            try {
+                Map<Long, TreeMap<LocalDateTime, Long>> providers = new ConcurrentHashMap<>();
+                Map<Long, ProviderBookingSlot> bookings = new ConcurrentHashMap<>();
+
+                LocalDateTime from = LocalDateTime.now().minus(slotLength());
+
+                for (ProviderBookingSlot slot : bookingRepository.findProviderSlotsFrom(BookingStatus.ACCEPTED, from)) {
+                    add(slot, providers, bookings);
+                }
+
+                synchronized (this) {
+                    for (BookingStatusChangedEvent event : pendingReplay) {
+                        apply(event, providers, bookings);
+                    }
+
+                    byProvider = providers;
+                    byBooking = bookings;
+                }
+
+                log.info("Provider schedule index rebuilt: {} bookings across {} providers",
+                        bookings.size(), providers.size());
+            } catch (Exception e) {
+                log.warn("Provider schedule index rebuild failed: {}", e.getMessage());
+            } finally {
+                synchronized (this) {
+                    pendingReplay = null;
+                }
+            }
+        }
+    }
+
+    // Accepted rows written before provider_slot existed hold no slot, so the unique
+    // key can't see them. Fill them one row at a time; a clash is logged and left null.
+    public int backfillProviderSlots() {
+
+        int filled = 0;
+
+        for (ProviderBookingSlot slot : bookingRepository.findMissingProviderSlots(BookingStatus.ACCEPTED)) {
+            try {
+                filled += bookingRepository.fillProviderSlot(slot.bookingId(), BookingStatus.ACCEPTED, slotOf(slot.start()));
+            } catch (DataIntegrityViolationException e) {
+                log.warn("Booking {} overlaps another accepted booking of provider {} at {}; slot left empty",
+                        slot.bookingId(), slot.providerId(), slot.start());
+            }
+        }
+
+        if (filled > 0) {
+            log.info("Backfilled provider_slot on {} accepted bookings", filled);
+        }
+
+        return filled;
+    }
+}
@@ -5,7 +5,6 @@ import com.servicebooking.dto.response.PageResponse;
 import com.servicebooking.dto.response.ProviderProfileResponseDTO;
 import com.servicebooking.entity.Booking;
 import com.servicebooking.entity.ProviderProfile;
-import com.servicebooking.entity.User;
 import com.servicebooking.enums.ProviderStatus;
 import com.servicebooking.exception.ResourceNotFoundException;
 import com.servicebooking.repository.BookingRepository;
@@ -40,10 +39,7 @@ public class ProviderService {
             MultipartFile documentFile,
             String selectedServices) {
 
-        User currentUser = userService.getCurrentUser();
-
-        ProviderProfile provider = providerRepository.findByUser(currentUser)
-                .orElseThrow(() -> new ResourceNotFoundException("Provider profile not found"));
+        ProviderProfile provider = userService.getCurrentProviderProfile();
 
         try {
             if (documentFile != null && !documentFile.isEmpty()) {
@@ -79,19 +75,14 @@ public class ProviderService {
 
     // ✅ Download provider document
     public ProviderProfile getProviderDocument() {
-        User user = userService.getCurrentUser();
-        return providerRepository.findByUser(user)
-                .orElseThrow(() -> new ResourceNotFoundException("Provider profile not found"));
+        return userService.getCurrentProviderProfile();
     }
 
     // ✅ Update availability status
     @Transactional
     public ApiResponse<ProviderProfileResponseDTO> updateStatus(ProviderStatus status) {
 
-        User user = userService.getCurrentUser();
-
-        ProviderProfile provider = providerRepository.findByUser(user)
-                .orElseThrow(() -> new ResourceNotFoundException("Provider profile not found"));
+        ProviderProfile provider = userService.getCurrentProviderProfile();
 
         provider.setStatus(status);
         providerRepository.save(provider);
@@ -161,20 +152,23 @@ public class ProviderService {
     }
 
     // ✅ Update provider completed jobs & earnings on booking complete
+    // Called once, by the transaction that won the move to COMPLETED; the
+    // increment is done in SQL so concurrent completions never lose a count
     @Transactional
     public void updateProviderStatsOnBookingComplete(Booking booking) {
 
         ProviderProfile provider = booking.getProvider();
         if (provider == null) return;
 
-        // Update completed jobs
-        provider.setCompletedJobs(provider.getCompletedJobs() + 1);
-
-        // Update total earnings
         BigDecimal amount = booking.getAmount() == null ? BigDecimal.ZERO : booking.getAmount();
-        provider.setTotalEarnings(provider.getTotalEarnings().add(amount));
 
-        providerRepository.save(provider);
+        providerRepository.addCompletedJobs(provider.getId(), 1, amount);
+    }
+
+    // Bulk variant: one statement per provider for a batch of completions
+    @Transactional
+    public void addCompletedJobs(Long providerId, int jobs, BigDecimal earnings) {
+        providerRepository.addCompletedJobs(providerId, jobs, earnings);
     }
 
     private ProviderProfileResponseDTO toDTO(ProviderProfile profile) {
@@ -1,11 +1,15 @@
 package com.servicebooking.service;
 
+import com.servicebooking.dto.projection.RatingTotals;
 import com.servicebooking.dto.response.*;
 import com.servicebooking.entity.*;
+import com.servicebooking.event.ProviderRatingChangedEvent;
 import com.servicebooking.exception.ResourceNotFoundException;
 import com.servicebooking.repository.*;
+import com.servicebooking.util.PageCursor;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.*;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -25,6 +29,12 @@ public class RatingService {
     @Autowired
     private ProviderProfileRepository providerProfileRepository;
 
+    @Autowired
+    private ArchivedRatingRepository archivedRatingRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     // ================= SUBMIT =================
 
     @Transactional
@@ -79,13 +89,27 @@ public class RatingService {
     // ================= UPDATE PROVIDER AVG =================
     private void updateProviderRating(Long providerId) {
 
-        Double avg = ratingRepository.getAverageRatingForProvider(providerId);
+        Double avg = averageRating(providerId);
 
         ProviderProfile provider = providerProfileRepository.findById(providerId)
                 .orElseThrow(() -> new ResourceNotFoundException("Provider not found"));
 
         provider.setRating(avg != null ? avg : 0.0);
         providerProfileRepository.save(provider);
+
+        eventPublisher.publishEvent(new ProviderRatingChangedEvent(providerId, provider.getRating()));
+    }
+
+    // Ratings of archived bookings live in ratings_archive but still count toward the average
+    private Double averageRating(Long providerId) {
+
+        RatingTotals live = ratingRepository.totalsForProvider(providerId);
+        RatingTotals archived = archivedRatingRepository.totalsForProvider(providerId);
+
+        long count = live.count() + archived.count();
+        if (count == 0) return null;
+
+        return (double) (live.starTotal() + archived.starTotal()) / count;
     }
 
     // ================= GET RATINGS =================
@@ -100,10 +124,34 @@ public class RatingService {
         return buildPageResponse(ratingPage, "Ratings fetched");
     }
 
+    public ApiResponse<CursorPageResponse<RatingResponseDTO>> getProviderRatingFeed(
+            Long providerId, String cursor, int size) {
+
+        PageCursor after = PageCursor.decode(cursor);
+        Pageable limit = PageRequest.of(0, size);
+
+        Slice<Rating> slice = after == null
+                ? ratingRepository.findFeedByProviderId(providerId, limit)
+                : ratingRepository.findFeedByProviderIdAfter(
+                        providerId, after.createdAt(), after.id(), limit);
+
+        List<Rating> content = slice.getContent();
+        Rating last = content.isEmpty() ? null : content.get(content.size() - 1);
+
+        CursorPageResponse<RatingResponseDTO> response =
+                new CursorPageResponse<>(
+                        content.stream().map(this::mapToDTO).toList(),
+                        slice.getSize(),
+                        slice.hasNext() ? new PageCursor(last.getCreatedAt(), last.getId()).encode() : null,
+                        slice.hasNext()
+                );
+
+        return ApiResponse.success("Ratings fetched", response);
+    }
+
     public ApiResponse<Double> getAverageRating(Long providerId) {
 
-        Double avg =
-                ratingRepository.getAverageRatingForProvider(providerId);
+        Double avg = averageRating(providerId);
 
         return ApiResponse.success("Average rating", avg != null ? avg : 0.0);
     }
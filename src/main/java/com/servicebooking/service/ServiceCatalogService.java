@@ -3,11 +3,14 @@ package com.servicebooking.service;
 import com.servicebooking.dto.response.ApiResponse;
 import com.servicebooking.entity.ServiceCategory;
 import com.servicebooking.entity.ServiceItem;
+import com.servicebooking.event.ServiceCategoryChangedEvent;
+import com.servicebooking.event.ServiceItemChangedEvent;
 import com.servicebooking.exception.BadRequestException;
 import com.servicebooking.exception.ResourceNotFoundException;
 import com.servicebooking.repository.ServiceCategoryRepository;
 import com.servicebooking.repository.ServiceItemRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
@@ -26,6 +29,9 @@ public class ServiceCatalogService {
     @Autowired
     private ServiceItemRepository serviceItemRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     // ================= CATEGORY METHODS =================
 
     @Transactional
@@ -76,6 +82,10 @@ public class ServiceCatalogService {
 
         categoryRepository.save(category);
 
+        if (updates.containsKey("name")) {
+            eventPublisher.publishEvent(new ServiceCategoryChangedEvent(category.getId(), category.getName()));
+        }
+
         return ApiResponse.success("Category updated successfully", category);
     }
 
@@ -165,6 +175,11 @@ public class ServiceCatalogService {
 
         serviceItemRepository.save(service);
 
+        if (updates.containsKey("name") || updates.containsKey("basePrice")) {
+            eventPublisher.publishEvent(new ServiceItemChangedEvent(
+                    service.getId(), service.getName(), service.getBasePrice()));
+        }
+
         return ApiResponse.success("Service updated successfully", service);
     }
 
@@ -2,19 +2,25 @@ package com.servicebooking.service;
 
 import com.servicebooking.dto.response.ApiResponse;
 import com.servicebooking.dto.response.PageResponse;
+import com.servicebooking.entity.CustomerProfile;
+import com.servicebooking.entity.ProviderProfile;
 import com.servicebooking.entity.User;
+import com.servicebooking.event.UserAccountChangedEvent;
+import com.servicebooking.event.UserDetailsChangedEvent;
 import com.servicebooking.exception.ResourceNotFoundException;
 import com.servicebooking.repository.UserRepository;
+import com.servicebooking.security.TokenRevocationService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Map;
+import java.util.Optional;
 
 @Service
 public class UserService {
@@ -25,16 +31,33 @@ public class UserService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private CurrentUserResolver currentUserResolver;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
     public User getCurrentUser() {
+        return currentUserResolver.getUser();
+    }
+
+    public CustomerProfile getCurrentCustomerProfile() {
+        return currentUserResolver.getCustomerProfile()
+                .orElseThrow(() ->
+                        new ResourceNotFoundException("Customer profile not found"));
+    }
 
-        String email = SecurityContextHolder
-                .getContext()
-                .getAuthentication()
-                .getName();
+    public Optional<CustomerProfile> findCurrentCustomerProfile() {
+        return currentUserResolver.getCustomerProfile();
+    }
 
-        return userRepository.findByEmailIgnoreCase(email)
+    public ProviderProfile getCurrentProviderProfile() {
+        return currentUserResolver.getProviderProfile()
                 .orElseThrow(() ->
-                        new ResourceNotFoundException("User not found"));
+                        new ResourceNotFoundException("Provider profile not found"));
     }
 
     public ApiResponse<User> getProfile() {
@@ -53,6 +76,9 @@ public class UserService {
         }
 
         user = userRepository.save(user);
+        eventPublisher.publishEvent(new UserAccountChangedEvent(user.getEmail()));
+        eventPublisher.publishEvent(new UserDetailsChangedEvent(
+                user.getId(), user.getName(), user.getEmail(), user.getMobileNumber()));
         user.setPassword(null);
 
         return ApiResponse.success("Profile updated successfully", user);
@@ -63,8 +89,11 @@ public class UserService {
 
         User user = getCurrentUser();
         user.setStatus("DELETED");
+        tokenRevocationService.revokeUserTokens(user);
         userRepository.save(user);
 
+        eventPublisher.publishEvent(new UserAccountChangedEvent(user.getEmail()));
+
         return ApiResponse.success("Account deleted successfully");
     }
 
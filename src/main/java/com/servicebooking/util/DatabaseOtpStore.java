@@ -0,0 +1,90 @@
+package com.servicebooking.util;
+
+import com.servicebooking.entity.OtpCode;
+import com.servicebooking.repository.OtpCodeRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+// Shares OTPs across nodes through the otp_codes table. Validation locks the
+// row so concurrent guesses on different nodes are counted exactly, and runs in
+// its own transaction so a caller that rolls back on a wrong OTP (resetPassword
+// throws BadRequestException) cannot undo the failed-attempt count or lockout.
+@Component
+@ConditionalOnProperty(name = "otp.store", havingValue = "database")
+public class DatabaseOtpStore implements OtpStore {
+
+    @Autowired
+    private OtpCodeRepository otpCodeRepository;
+
+    private final LongAdder expired = new LongAdder();
+    private final LongAdder lockedOut = new LongAdder();
+
+    @Override
+    @Transactional
+    public void store(String email, String otp, LocalDateTime expiry) {
+
+        OtpCode code = otpCodeRepository.findByEmail(email)
+                .orElseGet(OtpCode::new);
+
+        code.setEmail(email);
+        code.setOtp(otp);
+        code.setExpiresAt(expiry);
+        code.setFailedAttempts(0);
+
+        otpCodeRepository.save(code);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public boolean validate(String email, String otp, int maxAttempts) {
+
+        OtpCode code = otpCodeRepository.findByEmail(email).orElse(null);
+
+        if (code == null) return false;
+
+        if (code.getExpiresAt().isBefore(LocalDateTime.now())) {
+            otpCodeRepository.delete(code);
+            expired.increment();
+            return false;
+        }
+
+        if (code.getOtp().equals(otp)) {
+            otpCodeRepository.delete(code);
+            return true;
+        }
+
+        code.setFailedAttempts(code.getFailedAttempts() + 1);
+
+        if (code.getFailedAttempts() >= maxAttempts) {
+            otpCodeRepository.delete(code);
+            lockedOut.increment();
+        } else {
+            otpCodeRepository.save(code);
+        }
+
+        return false;
+    }
+
+    @Scheduled(fixedDelayString = "${otp.sweep-ms:10000}")
+    public void sweepExpired() {
+        int removed = otpCodeRepository.deleteExpired(LocalDateTime.now());
+        expired.add(removed);
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        return Map.of(
+                "store", "database",
+                "liveEntries", otpCodeRepository.count(),
+                "expired", expired.sum(),
+                "lockedOut", lockedOut.sum());
+    }
+}
@@ -0,0 +1,173 @@
+package com.servicebooking.util;
+
+import com.servicebooking.entity.EmailOutbox;
+import com.servicebooking.enums.EmailStatus;
+import com.servicebooking.repository.EmailOutboxRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+// Drains email_outbox in batches. Each batch goes out over a single SMTP
+// connection; failures are retried with exponential backoff and dead-lettered
+// after mail.outbox.max-attempts.
+@Component
+public class EmailDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailDispatcher.class);
+
+    @Autowired
+    private EmailOutboxRepository outboxRepository;
+
+    @Autowired
+    private JavaMailSender mailSender;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${spring.mail.username}")
+    private String fromEmail;
+
+    @Value("${mail.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${mail.outbox.max-batches-per-run:20}")
+    private int maxBatchesPerRun;
+
+    @Value("${mail.outbox.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${mail.outbox.backoff-base-ms:30000}")
+    private long backoffBaseMs;
+
+    @Value("${mail.outbox.backoff-max-ms:3600000}")
+    private long backoffMaxMs;
+
+    // a claimed batch that is never reported back becomes due again after this
+    @Value("${mail.outbox.lease-ms:300000}")
+    private long leaseMs;
+
+    @Value("${mail.outbox.retention-hours:24}")
+    private long retentionHours;
+
+    @Scheduled(fixedDelayString = "${mail.outbox.poll-ms:2000}")
+    public void dispatch() {
+
+        for (int i = 0; i < maxBatchesPerRun; i++) {
+
+            List<EmailOutbox> batch = claimBatch();
+            if (batch.isEmpty()) return;
+
+            Map<EmailOutbox, Exception> failures = send(batch);
+            recordResults(batch, failures);
+
+            if (batch.size() < batchSize) return;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${mail.outbox.purge-ms:3600000}")
+    public void purgeSent() {
+        outboxRepository.deleteSentBefore(
+                EmailStatus.SENT, LocalDateTime.now().minusHours(retentionHours));
+    }
+
+    public Map<String, Object> getStats() {
+        return Map.of(
+                "pending", outboxRepository.countByStatus(EmailStatus.PENDING),
+                "dead", outboxRepository.countByStatus(EmailStatus.DEAD));
+    }
+
+    private List<EmailOutbox> claimBatch() {
+        return transactionTemplate.execute(status -> {
+
+            LocalDateTime now = LocalDateTime.now();
+
+            List<EmailOutbox> due = outboxRepository.findDueForUpdate(
+                    EmailStatus.PENDING, now, PageRequest.of(0, batchSize));
+
+            due.forEach(e -> e.setNextAttemptAt(now.plusNanos(leaseMs * 1_000_000)));
+
+            return outboxRepository.saveAll(due);
+        });
+    }
+
+    private Map<EmailOutbox, Exception> send(List<EmailOutbox> batch) {
+
+        Map<SimpleMailMessage, EmailOutbox> byMessage = new IdentityHashMap<>();
+
+        for (EmailOutbox email : batch) {
+            SimpleMailMessage msg = new SimpleMailMessage();
+            msg.setFrom(fromEmail);
+            msg.setTo(email.getRecipient());
+            msg.setSubject(email.getSubject());
+            msg.setText(email.getBody());
+            byMessage.put(msg, email);
+        }
+
+        Map<EmailOutbox, Exception> failures = new IdentityHashMap<>();
+
+        try {
+            mailSender.send(byMessage.keySet().toArray(new SimpleMailMessage[0]));
+        } catch (MailSendException e) {
+            if (e.getFailedMessages().isEmpty()) {
+                batch.forEach(email -> failures.put(email, e));
+            } else {
+                e.getFailedMessages().forEach((msg, cause) -> {
+                    EmailOutbox email = byMessage.get(msg);
+                    if (email != null) failures.put(email, cause);
+                });
+            }
+        } catch (MailException e) {
+            batch.forEach(email -> failures.put(email, e));
+        }
+
+        return failures;
+    }
+
+    private void recordResults(List<EmailOutbox> batch, Map<EmailOutbox, Exception> failures) {
+
+        LocalDateTime now = LocalDateTime.now();
+
+        for (EmailOutbox email : batch) {
+
+            Exception failure = failures.get(email);
+
+            if (failure == null) {
+                email.setStatus(EmailStatus.SENT);
+                email.setSentAt(now);
+                continue;
+            }
+
+            int attempts = email.getAttempts() + 1;
+            email.setAttempts(attempts);
+            email.setLastError(truncate(failure.getMessage()));
+
+            if (attempts >= maxAttempts) {
+                email.setStatus(EmailStatus.DEAD);
+                log.warn("Email {} to {} dead-lettered after {} attempts",
+                        email.getId(), email.getRecipient(), attempts);
+            } else {
+                long delay = Math.min(backoffMaxMs, backoffBaseMs << Math.min(attempts - 1, 20));
+                email.setNextAttemptAt(now.plusNanos(delay * 1_000_000));
+            }
+        }
+
+        outboxRepository.saveAll(batch);
+    }
+
+    private static String truncate(String message) {
+        if (message == null) return null;
+        return message.length() <= 1000 ? message : message.substring(0, 1000);
+    }
+}
@@ -1,28 +1,32 @@
 package com.servicebooking.util;
 
+import com.servicebooking.entity.EmailOutbox;
+import com.servicebooking.enums.EmailStatus;
+import com.servicebooking.repository.EmailOutboxRepository;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
 
 @Service
 public class EmailService {
 
     @Autowired
-    private JavaMailSender mailSender;
-    @Value("${spring.mail.username}")
-    private String fromEmail;
+    private EmailOutboxRepository outboxRepository;
 
+    // Queues the email in the caller's transaction; EmailDispatcher delivers it
+    // after commit, so no request ever waits on the SMTP server.
+    @Transactional
     public void sendEmail(String to, String subject, String content) {
 
-        SimpleMailMessage msg = new SimpleMailMessage();
-
-        msg.setFrom(fromEmail);
-        msg.setTo(to);
-        msg.setSubject(subject);
-        msg.setText(content);
+        EmailOutbox email = new EmailOutbox();
+        email.setRecipient(to);
+        email.setSubject(subject);
+        email.setBody(content);
+        email.setStatus(EmailStatus.PENDING);
+        email.setNextAttemptAt(LocalDateTime.now());
 
-        mailSender.send(msg);
+        outboxRepository.save(email);
     }
-}
\ No newline at end of file
+}
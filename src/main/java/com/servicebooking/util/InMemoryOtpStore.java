@@ -0,0 +1,104 @@
+package com.servicebooking.util;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+// Single-node OTP store. Every OTP gets the same TTL, so insertion order is also
+// expiry order: the sweeper only walks the expired head of the map, and the
+// capacity bound evicts the oldest entry first.
+@Component
+@ConditionalOnProperty(name = "otp.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryOtpStore implements OtpStore {
+
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+
+    @Value("${otp.store.max-entries:100000}")
+    private int maxEntries;
+
+    private final LongAdder expired = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+    private final LongAdder lockedOut = new LongAdder();
+
+    @Override
+    public synchronized void store(String email, String otp, LocalDateTime expiry) {
+
+        // remove first so the re-issued OTP moves to the tail
+        entries.remove(email);
+        entries.put(email, new Entry(otp, expiry));
+
+        Iterator<Entry> it = entries.values().iterator();
+        while (entries.size() > maxEntries && it.hasNext()) {
+            it.next();
+            it.remove();
+            evicted.increment();
+        }
+    }
+
+    @Override
+    public synchronized boolean validate(String email, String otp, int maxAttempts) {
+
+        Entry entry = entries.get(email);
+
+        if (entry == null) return false;
+
+        if (entry.expiry.isBefore(LocalDateTime.now())) {
+            entries.remove(email);
+            expired.increment();
+            return false;
+        }
+
+        if (entry.otp.equals(otp)) {
+            entries.remove(email);
+            return true;
+        }
+
+        if (++entry.failedAttempts >= maxAttempts) {
+            entries.remove(email);
+            lockedOut.increment();
+        }
+
+        return false;
+    }
+
+    @Scheduled(fixedDelayString = "${otp.sweep-ms:10000}")
+    public synchronized void sweepExpired() {
+
+        LocalDateTime now = LocalDateTime.now();
+        Iterator<Entry> it = entries.values().iterator();
+
+        while (it.hasNext()) {
+            if (!it.next().expiry.isBefore(now)) break;
+            it.remove();
+            expired.increment();
+        }
+    }
+
+    @Override
+    public synchronized Map<String, Object> getStats() {
+        return Map.of(
+                "store", "memory",
+                "liveEntries", entries.size(),
+                "expired", expired.sum(),
+                "evicted", evicted.sum(),
+                "lockedOut", lockedOut.sum());
+    }
+
+    private static class Entry {
+        private final String otp;
+        private final LocalDateTime expiry;
+        private int failedAttempts;
+
+        private Entry(String otp, LocalDateTime expiry) {
+            this.otp = otp;
+            this.expiry = expiry;
+        }
+    }
+}
@@ -1,37 +1,33 @@
 package com.servicebooking.util;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class OtpService {
 
-    private final Map<String, OtpData> otpStore = new ConcurrentHashMap<>();
+    @Autowired
+    private OtpStore otpStore;
+
+    @Value("${otp.expiry-minutes:10}")
+    private long expiryMinutes;
+
+    @Value("${otp.max-attempts:5}")
+    private int maxAttempts;
 
     public void storeOtp(String email, String otp) {
-        otpStore.put(email,
-                new OtpData(otp, LocalDateTime.now().plusMinutes(10)));
+        otpStore.store(email, otp, LocalDateTime.now().plusMinutes(expiryMinutes));
     }
 
     public boolean validateOtp(String email, String otp) {
-        OtpData data = otpStore.get(email);
-
-        if (data == null) return false;
-
-        if (data.expiry().isBefore(LocalDateTime.now())) {
-            otpStore.remove(email);
-            return false;
-        }
-
-        boolean valid = data.otp().equals(otp);
-
-        if (valid) otpStore.remove(email);
-
-        return valid;
+        return otp != null && otpStore.validate(email, otp, maxAttempts);
     }
 
-    private record OtpData(String otp, LocalDateTime expiry) {}
-}
\ No newline at end of file
+    public Map<String, Object> getStats() {
+        return otpStore.getStats();
+    }
+}
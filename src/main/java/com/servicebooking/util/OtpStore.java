@@ -0,0 +1,17 @@
+package com.servicebooking.util;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+// Backing store for password-reset OTPs; selected with otp.store=memory|database
+public interface OtpStore {
+
+    // Replaces any OTP already issued for the email and resets its attempt count
+    void store(String email, String otp, LocalDateTime expiry);
+
+    // Consumes the OTP on a match. Each failed guess counts towards maxAttempts,
+    // after which the OTP is discarded even if the right code is sent later.
+    boolean validate(String email, String otp, int maxAttempts);
+
+    Map<String, Object> getStats();
+}
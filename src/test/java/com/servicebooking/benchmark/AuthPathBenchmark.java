@@ -0,0 +1,133 @@
+package com.servicebooking.benchmark;
+
+import com.servicebooking.entity.User;
+import com.servicebooking.enums.UserRole;
+import com.servicebooking.repository.UserRepository;
+import com.servicebooking.security.CustomUserDetailsService;
+import com.servicebooking.security.JwtAuthenticationFilter;
+import com.servicebooking.security.JwtTokenProvider;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+// Security hot path: token issue/verify, one JwtAuthenticationFilter pass and
+// the user lookups behind it (login reads the row, the filter uses the cached
+// principal). The "Uncached" variants bypass the verified-token and
+// user-details caches to show the cost those caches hide.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthPathBenchmark {
+
+    private static final String EMAIL = "bench-user@example.com";
+
+    private JwtTokenProvider tokenProvider;
+    private JwtTokenProvider uncachedTokenProvider;
+    private JwtAuthenticationFilter filter;
+    private CustomUserDetailsService userDetailsService;
+
+    private Long userId;
+    private String token;
+    private String bearer;
+
+    private final FilterChain noopChain = (req, res) -> { };
+
+    @Setup(Level.Trial)
+    public void setUp() {
+
+        ConfigurableApplicationContext context = BenchmarkContext.get();
+
+        tokenProvider = context.getBean(JwtTokenProvider.class);
+        filter = context.getBean(JwtAuthenticationFilter.class);
+        userDetailsService = context.getBean(CustomUserDetailsService.class);
+
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        User user = userRepository.findByEmailIgnoreCase(EMAIL).orElseGet(() -> {
+            User u = new User();
+            u.setName("Bench User");
+            u.setEmail(EMAIL);
+            u.setMobileNumber("9000000009");
+            u.setPassword("$2a$04$abcdefghijklmnopqrstuuJ4p1Qm6m7pX9xNv0R5k0xv6U3o1x7yS");
+            u.setRole(UserRole.CUSTOMER);
+            return userRepository.save(u);
+        });
+
+        userId = user.getId();
+        token = tokenProvider.generateToken(userId, EMAIL, "CUSTOMER");
+        bearer = "Bearer " + token;
+
+        // same key and expiry, but a cache that never stores anything
+        uncachedTokenProvider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(uncachedTokenProvider, "jwtSecret",
+                context.getEnvironment().getProperty("jwt.secret"));
+        ReflectionTestUtils.setField(uncachedTokenProvider, "jwtExpiration",
+                context.getEnvironment().getProperty("jwt.expiration", Long.class));
+        ReflectionTestUtils.setField(uncachedTokenProvider, "cacheMaxEntries", 0);
+        ReflectionTestUtils.invokeMethod(uncachedTokenProvider, "init");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkContext.close();
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return tokenProvider.generateToken(userId, EMAIL, "CUSTOMER");
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return tokenProvider.validateToken(token);
+    }
+
+    @Benchmark
+    public boolean validateTokenUncached() {
+        return uncachedTokenProvider.validateToken(token);
+    }
+
+    @Benchmark
+    public String getEmailFromToken() {
+        return tokenProvider.getEmailFromToken(token);
+    }
+
+    @Benchmark
+    public void filterPass(Blackhole bh) throws Exception {
+
+        MockHttpServletRequest req = new MockHttpServletRequest("GET", "/api/bookings/customer");
+        req.addHeader("Authorization", bearer);
+        MockHttpServletResponse res = new MockHttpServletResponse();
+
+        filter.doFilter(req, res, noopChain);
+
+        bh.consume(SecurityContextHolder.getContext().getAuthentication());
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public UserDetails loadUserByUsername() {
+        return userDetailsService.loadUserByUsername(EMAIL);
+    }
+
+    @Benchmark
+    public UserDetails loadPrincipal() {
+        return userDetailsService.loadPrincipal(EMAIL);
+    }
+
+    @Benchmark
+    public UserDetails loadPrincipalUncached() {
+        userDetailsService.getCache().invalidate(EMAIL);
+        return userDetailsService.loadPrincipal(EMAIL);
+    }
+}
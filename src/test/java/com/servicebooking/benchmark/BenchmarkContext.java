@@ -0,0 +1,45 @@
+package com.servicebooking.benchmark;
+
+import com.servicebooking.ServiceBookingPlatformApplication;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// One application context per forked benchmark JVM, started with the test
+// profile so everything runs against in-memory H2.
+final class BenchmarkContext {
+
+    private static ConfigurableApplicationContext context;
+
+    private BenchmarkContext() {
+    }
+
+    // extraArgs ("--name=value") only apply to the first call in a JVM
+    static synchronized ConfigurableApplicationContext get(String... extraArgs) {
+
+        if (context == null) {
+            SpringApplication app = new SpringApplication(ServiceBookingPlatformApplication.class);
+            app.setAdditionalProfiles("test");
+
+            List<String> args = new ArrayList<>(List.of(
+                    "--server.port=0",
+                    "--spring.main.banner-mode=off",
+                    "--logging.level.root=WARN",
+                    "--logging.level.com.servicebooking=WARN"));
+            args.addAll(List.of(extraArgs));
+
+            context = app.run(args.toArray(String[]::new));
+        }
+
+        return context;
+    }
+
+    static synchronized void close() {
+        if (context != null) {
+            context.close();
+            context = null;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.servicebooking.benchmark;
+
+import com.servicebooking.entity.Booking;
+import com.servicebooking.entity.CustomerProfile;
+import com.servicebooking.entity.Notification;
+import com.servicebooking.entity.ServiceCategory;
+import com.servicebooking.entity.ServiceItem;
+import com.servicebooking.entity.User;
+import com.servicebooking.enums.BookingStatus;
+import com.servicebooking.enums.UserRole;
+import com.servicebooking.repository.BookingRepository;
+import com.servicebooking.repository.CustomerProfileRepository;
+import com.servicebooking.repository.NotificationRepository;
+import com.servicebooking.repository.ServiceCategoryRepository;
+import com.servicebooking.repository.ServiceItemRepository;
+import com.servicebooking.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Inserts `rows` bookings and `rows` notifications through the repositories,
+// 1000 entities per transaction. batchSize=1 reproduces the old one-round-trip-
+// per-row behaviour of IDENTITY ids; batchSize=50 is the pooled-lo + JDBC batching
+// setup. The "statements" counter is Hibernate's prepared statement count per
+// run, i.e. round trips for the inserts plus the id-block fetches.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class BulkInsertBenchmark {
+
+    private static final int PER_TRANSACTION = 1000;
+
+    @Param({"1", "50"})
+    public int batchSize;
+
+    @Param({"100000"})
+    public int rows;
+
+    private BookingRepository bookingRepository;
+    private NotificationRepository notificationRepository;
+    private TransactionTemplate transactionTemplate;
+    private JdbcTemplate jdbcTemplate;
+    private Statistics statistics;
+
+    private User user;
+    private CustomerProfile customer;
+    private ServiceItem service;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class RoundTrips {
+        public long statements;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+
+        ConfigurableApplicationContext context = BenchmarkContext.get(
+                "--spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize,
+                "--spring.jpa.properties.hibernate.generate_statistics=true");
+
+        bookingRepository = context.getBean(BookingRepository.class);
+        notificationRepository = context.getBean(NotificationRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+
+        User u = new User();
+        u.setName("Bench Bulk");
+        u.setEmail("bench-bulk@example.com");
+        u.setMobileNumber("9000000077");
+        u.setPassword("$2a$04$unused");
+        u.setRole(UserRole.CUSTOMER);
+        user = context.getBean(UserRepository.class).save(u);
+
+        CustomerProfile profile = new CustomerProfile();
+        profile.setUser(user);
+        profile.setEmail(user.getEmail());
+        customer = context.getBean(CustomerProfileRepository.class).save(profile);
+
+        ServiceCategory category = new ServiceCategory();
+        category.setName("Bench bulk category");
+        category = context.getBean(ServiceCategoryRepository.class).save(category);
+
+        ServiceItem item = new ServiceItem();
+        item.setCategory(category);
+        item.setName("Bench bulk service");
+        item.setBasePrice(new BigDecimal("499.00"));
+        service = context.getBean(ServiceItemRepository.class).save(item);
+    }
+
+    // keep the in-memory database from growing across iterations
+    @TearDown(Level.Iteration)
+    public void clear() {
+        jdbcTemplate.update("DELETE FROM notifications WHERE user_id = ?", user.getId());
+        jdbcTemplate.update("DELETE FROM bookings WHERE customer_id = ?", customer.getId());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkContext.close();
+    }
+
+    @Benchmark
+    public void insertBookingsAndNotifications(RoundTrips roundTrips) {
+
+        statistics.clear();
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+        for (int from = 0; from < rows; from += PER_TRANSACTION) {
+            int count = Math.min(PER_TRANSACTION, rows - from);
+
+            transactionTemplate.executeWithoutResult(tx -> {
+                List<Booking> bookings = new ArrayList<>(count);
+                List<Notification> notifications = new ArrayList<>(count);
+
+                for (int i = 0; i < count; i++) {
+                    Booking booking = new Booking();
+                    booking.setCustomer(customer);
+                    booking.setService(service);
+                    booking.setBookingDateTime(start.plusMinutes(i));
+                    booking.setLocation("Bench street 1");
+                    booking.setStatus(BookingStatus.PENDING);
+                    booking.setAmount(service.getBasePrice());
+                    booking.setCustomerName(user.getName());
+                    bookings.add(booking);
+
+                    Notification notification = new Notification();
+                    notification.setUser(user);
+                    notification.setTitle("Booking created");
+                    notification.setMessage("Your booking has been created");
+                    notifications.add(notification);
+                }
+
+                bookingRepository.saveAll(bookings);
+                notificationRepository.saveAll(notifications);
+            });
+        }
+
+        roundTrips.statements += statistics.getPrepareStatementCount();
+    }
+}
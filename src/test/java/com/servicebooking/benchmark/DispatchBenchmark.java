@@ -0,0 +1,148 @@
+package com.servicebooking.benchmark;
+
+import com.servicebooking.entity.Booking;
+import com.servicebooking.entity.CustomerProfile;
+import com.servicebooking.entity.ProviderProfile;
+import com.servicebooking.entity.ServiceCategory;
+import com.servicebooking.entity.ServiceItem;
+import com.servicebooking.entity.User;
+import com.servicebooking.enums.BookingStatus;
+import com.servicebooking.enums.ProviderStatus;
+import com.servicebooking.enums.UserRole;
+import com.servicebooking.repository.BookingRepository;
+import com.servicebooking.repository.CustomerProfileRepository;
+import com.servicebooking.repository.ProviderProfileRepository;
+import com.servicebooking.repository.ServiceCategoryRepository;
+import com.servicebooking.repository.ServiceItemRepository;
+import com.servicebooking.repository.UserRepository;
+import com.servicebooking.service.DispatchService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// One dispatch run over a fresh batch of synthetic PENDING bookings, reported
+// per assigned booking. Every booking gets its own hour so slot conflicts
+// don't skew the number; the load cap is lifted for the same reason.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, batchSize = 1)
+@Measurement(iterations = 5, batchSize = 1)
+@Fork(1)
+public class DispatchBenchmark {
+
+    private static final int BOOKINGS_PER_RUN = 1000;
+
+    @Param({"200"})
+    public int providers;
+
+    @Param({"20"})
+    public int services;
+
+    private DispatchService dispatchService;
+    private BookingRepository bookingRepository;
+
+    private CustomerProfile customer;
+    private final List<ServiceItem> catalog = new ArrayList<>();
+    private final Random random = new Random(42);
+    private LocalDateTime nextStart = LocalDateTime.now().plusYears(1).withMinute(0).withSecond(0).withNano(0);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+
+        ConfigurableApplicationContext context = BenchmarkContext.get();
+
+        dispatchService = context.getBean(DispatchService.class);
+        bookingRepository = context.getBean(BookingRepository.class);
+
+        UserRepository users = context.getBean(UserRepository.class);
+        ServiceCategoryRepository categories = context.getBean(ServiceCategoryRepository.class);
+        ServiceItemRepository items = context.getBean(ServiceItemRepository.class);
+        ProviderProfileRepository providerRepo = context.getBean(ProviderProfileRepository.class);
+
+        ServiceCategory category = new ServiceCategory();
+        category.setName("Bench category");
+        category = categories.save(category);
+
+        for (int i = 0; i < services; i++) {
+            ServiceItem item = new ServiceItem();
+            item.setCategory(category);
+            item.setName("Bench service " + i);
+            item.setBasePrice(new BigDecimal("499.00"));
+            catalog.add(items.save(item));
+        }
+
+        for (int i = 0; i < providers; i++) {
+            ProviderProfile provider = new ProviderProfile();
+            provider.setUser(users.save(user(UserRole.PROVIDER, "bench-provider" + i)));
+            provider.setStatus(i % 2 == 0 ? ProviderStatus.APPROVED : ProviderStatus.ONLINE);
+            provider.setRating(1.0 + random.nextDouble() * 4.0);
+            provider.setCompletedJobs(random.nextInt(500));
+            // each provider offers three services
+            provider.setSelectedServices(catalog.get(i % services).getId() + ","
+                    + catalog.get((i + 7) % services).getId() + ","
+                    + catalog.get((i + 13) % services).getId());
+            providerRepo.save(provider);
+        }
+
+        CustomerProfile profile = new CustomerProfile();
+        profile.setUser(users.save(user(UserRole.CUSTOMER, "bench-dispatch-customer")));
+        profile.setEmail(profile.getUser().getEmail());
+        customer = context.getBean(CustomerProfileRepository.class).save(profile);
+
+        ReflectionTestUtils.setField(dispatchService, "maxOpenBookings", Integer.MAX_VALUE);
+        ReflectionTestUtils.setField(dispatchService, "maxBatchesPerRun", BOOKINGS_PER_RUN);
+    }
+
+    @Setup(Level.Invocation)
+    public void seedPending() {
+
+        List<Booking> batch = new ArrayList<>(BOOKINGS_PER_RUN);
+
+        for (int i = 0; i < BOOKINGS_PER_RUN; i++) {
+            ServiceItem service = catalog.get(random.nextInt(catalog.size()));
+            Booking booking = new Booking();
+            booking.setCustomer(customer);
+            booking.setService(service);
+            booking.setBookingDateTime(nextStart);
+            booking.setLocation("Bench street 1");
+            booking.setStatus(BookingStatus.PENDING);
+            booking.setAmount(service.getBasePrice());
+            booking.setCustomerName(customer.getUser().getName());
+            batch.add(booking);
+            nextStart = nextStart.plusHours(1);
+        }
+
+        bookingRepository.saveAll(batch);
+        dispatchService.refreshCandidates();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkContext.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BOOKINGS_PER_RUN)
+    public Map<String, Object> dispatchRun() {
+        return dispatchService.runOnce();
+    }
+
+    private static User user(UserRole role, String handle) {
+        User user = new User();
+        user.setName(handle);
+        user.setEmail(handle + "@example.com");
+        user.setMobileNumber(String.valueOf(8_000_000_000L + Math.abs(handle.hashCode() % 1_000_000_000L)));
+        user.setPassword("$2a$04$unused");
+        user.setRole(role);
+        return user;
+    }
+}
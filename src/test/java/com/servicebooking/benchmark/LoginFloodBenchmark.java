@@ -0,0 +1,144 @@
+package com.servicebooking.benchmark;
+
+import com.servicebooking.dto.request.LoginRequest;
+import com.servicebooking.dto.response.ApiResponse;
+import com.servicebooking.dto.response.AuthResponse;
+import com.servicebooking.entity.ServiceCategory;
+import com.servicebooking.entity.User;
+import com.servicebooking.enums.UserRole;
+import com.servicebooking.exception.ServiceUnavailableException;
+import com.servicebooking.repository.ServiceCategoryRepository;
+import com.servicebooking.repository.UserRepository;
+import com.servicebooking.security.JwtAuthenticationFilter;
+import com.servicebooking.security.JwtTokenProvider;
+import com.servicebooking.service.AuthService;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Login storm against ordinary traffic. The "flood" group runs 8 login threads
+// (BCrypt at the production cost of 10) next to 2 threads making a lightweight
+// authenticated request: a filter pass and a small catalog read. The "quiet"
+// group runs the same request with no logins, as the baseline.
+//
+// Throughput mode gives the login rate (flood:login, in ops/ms; run with -tu s
+// for logins/sec). SampleTime mode gives the p0.99 of flood:request, to compare
+// against quiet:quietRequest. With hashing bounded to
+// security.password-hash.threads, that p99 should stay near the baseline
+// however many login threads there are.
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class LoginFloodBenchmark {
+
+    private static final String EMAIL = "flood-user@example.com";
+    private static final String PASSWORD = "flood-password";
+
+    private AuthService authService;
+    private JwtAuthenticationFilter filter;
+    private ServiceCategoryRepository categoryRepository;
+
+    private LoginRequest login;
+    private String bearer;
+
+    private final FilterChain noopChain = (req, res) -> { };
+    private final LongAdder shed = new LongAdder();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+
+        ConfigurableApplicationContext context = BenchmarkContext.get(
+                "--ratelimit.enabled=false",
+                "--security.bcrypt.strength=10");
+
+        authService = context.getBean(AuthService.class);
+        filter = context.getBean(JwtAuthenticationFilter.class);
+        categoryRepository = context.getBean(ServiceCategoryRepository.class);
+
+        PasswordEncoder encoder = context.getBean(PasswordEncoder.class);
+        UserRepository userRepository = context.getBean(UserRepository.class);
+
+        User user = userRepository.findByEmailIgnoreCase(EMAIL).orElseGet(() -> {
+            User u = new User();
+            u.setName("Flood User");
+            u.setEmail(EMAIL);
+            u.setMobileNumber("9000000019");
+            u.setPassword(encoder.encode(PASSWORD));
+            u.setRole(UserRole.CUSTOMER);
+            return userRepository.save(u);
+        });
+
+        if (categoryRepository.count() == 0) {
+            for (int i = 0; i < 10; i++) {
+                ServiceCategory category = new ServiceCategory();
+                category.setName("Flood category " + i);
+                categoryRepository.save(category);
+            }
+        }
+
+        login = new LoginRequest(EMAIL, PASSWORD);
+        bearer = "Bearer " + context.getBean(JwtTokenProvider.class)
+                .generateToken(user.getId(), EMAIL, "CUSTOMER");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (shed.sum() > 0) {
+            System.out.println("Logins shed by the hashing pool and retried: " + shed.sum());
+        }
+        BenchmarkContext.close();
+    }
+
+    @Benchmark
+    @Group("flood")
+    @GroupThreads(8)
+    public ApiResponse<AuthResponse> login() {
+        // a shed login is retried like a client would, so each op is one successful login
+        while (true) {
+            try {
+                return authService.login(login);
+            } catch (ServiceUnavailableException e) {
+                shed.increment();
+            }
+        }
+    }
+
+    @Benchmark
+    @Group("flood")
+    @GroupThreads(2)
+    public void request(Blackhole bh) throws Exception {
+        lightweightRequest(bh);
+    }
+
+    @Benchmark
+    @Group("quiet")
+    @GroupThreads(2)
+    public void quietRequest(Blackhole bh) throws Exception {
+        lightweightRequest(bh);
+    }
+
+    private void lightweightRequest(Blackhole bh) throws Exception {
+
+        MockHttpServletRequest req = new MockHttpServletRequest("GET", "/api/categories");
+        req.addHeader("Authorization", bearer);
+
+        filter.doFilter(req, new MockHttpServletResponse(), noopChain);
+
+        List<ServiceCategory> categories = categoryRepository.findAll();
+        bh.consume(categories);
+        bh.consume(SecurityContextHolder.getContext().getAuthentication());
+        SecurityContextHolder.clearContext();
+    }
+}
@@ -0,0 +1,83 @@
+package com.servicebooking.benchmark;
+
+import com.servicebooking.config.RateLimitProperties;
+import com.servicebooking.security.RateLimiter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// RateLimiter hot path under contention, without a Spring context. Limits are
+// set high enough that nothing is throttled, so every call takes a stripe lock
+// and a bucket lock. keys=1 puts every thread on one stripe and one bucket, the
+// fully serialized worst case. Larger key spaces spread the calls over the
+// stripes; 200000 keys also overflow maxBuckets, so the LRU evicts on the hot
+// path. Compare the 8-thread score with the 1-thread score: the closer the
+// ratio is to the core count, the less the stripes serialize.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RateLimiterBenchmark {
+
+    @Param({"1", "1000", "200000"})
+    private int keys;
+
+    private RateLimiter rateLimiter;
+    private String[] ips;
+    private String[] emails;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+
+        RateLimitProperties.Limit limit = new RateLimitProperties.Limit();
+        limit.setCapacity(Integer.MAX_VALUE);
+        limit.setRefillPerMinute(Integer.MAX_VALUE);
+
+        RateLimitProperties.EndpointLimit endpoint = new RateLimitProperties.EndpointLimit();
+        endpoint.setIp(limit);
+        endpoint.setEmail(limit);
+
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setMaxBuckets(100_000);
+        properties.getEndpoints().put("login", endpoint);
+
+        rateLimiter = new RateLimiter();
+        ReflectionTestUtils.setField(rateLimiter, "properties", properties);
+        ReflectionTestUtils.invokeMethod(rateLimiter, "init");
+
+        ips = new String[keys];
+        emails = new String[keys];
+        for (int i = 0; i < keys; i++) {
+            ips[i] = "10." + (i >> 16 & 0xff) + "." + (i >> 8 & 0xff) + "." + (i & 0xff);
+            emails[i] = "user" + i + "@example.com";
+        }
+    }
+
+    @Benchmark
+    @Threads(8)
+    public long tryAcquireByIp() {
+        return rateLimiter.tryAcquireByIp("login", ips[ThreadLocalRandom.current().nextInt(keys)]);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public long tryAcquireByIpSingleThread() {
+        return rateLimiter.tryAcquireByIp("login", ips[ThreadLocalRandom.current().nextInt(keys)]);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void checkEmail() {
+        rateLimiter.checkEmail("login", emails[ThreadLocalRandom.current().nextInt(keys)]);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void checkEmailSingleThread() {
+        rateLimiter.checkEmail("login", emails[ThreadLocalRandom.current().nextInt(keys)]);
+    }
+}
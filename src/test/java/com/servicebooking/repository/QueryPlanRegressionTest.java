@@ -0,0 +1,193 @@
+package com.servicebooking.repository;
+
+import com.servicebooking.entity.Booking;
+import com.servicebooking.entity.CustomerProfile;
+import com.servicebooking.entity.ProviderProfile;
+import com.servicebooking.entity.ServiceItem;
+import com.servicebooking.enums.BookingStatus;
+import com.servicebooking.enums.PaymentStatus;
+import com.servicebooking.service.BookingViewService;
+import com.servicebooking.support.SqlCapture;
+import com.servicebooking.support.TestData;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Runs each hot repository query against seeded data, EXPLAINs the SQL
+// Hibernate actually sent and fails when a hot table is read by a full scan
+// or the query stops using the index declared for it. H2's planner stands in
+// for MySQL's here, so this guards index coverage rather than exact plans.
+@SpringBootTest(properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.servicebooking.support.SqlCapture")
+@ActiveProfiles("test")
+@Import(TestData.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryPlanRegressionTest {
+
+    private static final List<String> HOT_TABLES = List.of(
+            "bookings", "booking_view", "rating", "notifications", "payments");
+
+    private static final Pageable NEWEST = PageRequest.of(0, 10, Sort.by("createdAt").descending());
+
+    @Autowired private BookingRepository bookingRepository;
+    @Autowired private BookingViewRepository bookingViewRepository;
+    @Autowired private RatingRepository ratingRepository;
+    @Autowired private NotificationRepository notificationRepository;
+    @Autowired private PaymentRepository paymentRepository;
+    @Autowired private BookingViewService bookingViewService;
+    @Autowired private TransactionTemplate transactionTemplate;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private TestData testData;
+
+    private final List<CustomerProfile> customers = new ArrayList<>();
+    private final List<ProviderProfile> providers = new ArrayList<>();
+
+    @BeforeAll
+    void seed() {
+
+        List<ServiceItem> services = new ArrayList<>();
+        for (int i = 0; i < 5; i++) services.add(testData.service());
+        for (int i = 0; i < 40; i++) customers.add(testData.customer());
+        for (int i = 0; i < 20; i++) providers.add(testData.provider());
+
+        BookingStatus[] statuses = BookingStatus.values();
+
+        for (int i = 0; i < 800; i++) {
+            Booking booking = testData.booking(
+                    customers.get(i % customers.size()),
+                    providers.get(i % providers.size()),
+                    services.get(i % services.size()),
+                    statuses[i % statuses.length],
+                    LocalDateTime.now().plusHours(i));
+
+            if (i % 2 == 0) {
+                testData.payment(booking, i % 4 == 0 ? PaymentStatus.COMPLETED : PaymentStatus.PENDING);
+                testData.rating(booking, 1 + i % 5);
+            }
+            testData.notification(booking.getCustomer().getUser(), i % 3 == 0);
+        }
+
+        // spread creation times so range predicates are selective
+        for (String table : List.of("bookings", "payments", "rating", "notifications")) {
+            jdbcTemplate.update("UPDATE " + table + " SET created_at = DATEADD('MINUTE', -id, CURRENT_TIMESTAMP)");
+        }
+
+        // H2 gives every foreign key its own index and, unlike MySQL, ignores that an
+        // ORDER BY ... LIMIT favors a composite, so any constraint index leading with
+        // the same column ties with the declared one. Only plans are checked here, so
+        // the constraints go and each query is left with the index declared for it.
+        List<Map<String, Object>> constraints = jdbcTemplate.queryForList(
+                "SELECT table_name, constraint_name FROM information_schema.table_constraints "
+                        + "WHERE constraint_type IN ('FOREIGN KEY', 'UNIQUE') AND table_schema = 'public'");
+        for (Map<String, Object> constraint : constraints) {
+            if (HOT_TABLES.contains(constraint.get("table_name"))) {
+                jdbcTemplate.execute("ALTER TABLE " + constraint.get("table_name")
+                        + " DROP CONSTRAINT \"" + constraint.get("constraint_name") + "\"");
+            }
+        }
+
+        bookingViewService.rebuild();
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    Stream<Arguments> hotQueries() {
+        return Stream.of(
+                query("BookingRepository.findByCustomerId", "idx_booking_customer_created",
+                        t -> bookingRepository.findByCustomerId(t.customerId(), NEWEST)),
+                query("BookingRepository.findByProviderId", "idx_booking_provider_created",
+                        t -> bookingRepository.findByProviderId(t.providerId(), NEWEST)),
+                query("BookingRepository.findByStatus", "idx_booking_status_created",
+                        t -> bookingRepository.findByStatus(BookingStatus.ACCEPTED, NEWEST)),
+                query("BookingRepository.countByStatus", "idx_booking_status_created",
+                        t -> bookingRepository.countByStatus(BookingStatus.PENDING)),
+                query("BookingRepository.findBookingsBetweenDates", "idx_booking_created",
+                        t -> bookingRepository.findBookingsBetweenDates(
+                                LocalDateTime.now().minusMinutes(30), LocalDateTime.now())),
+                query("BookingRepository.findRowsBetweenDates", "idx_booking_created",
+                        t -> bookingRepository.findRowsBetweenDates(
+                                LocalDateTime.now().minusMinutes(30), LocalDateTime.now())),
+                query("BookingViewRepository.findRowsByCustomerId", "idx_booking_view_customer_created",
+                        t -> bookingViewRepository.findRowsByCustomerId(t.customerId(), NEWEST)),
+                query("BookingViewRepository.findRowsByProviderId", "idx_booking_view_provider_created",
+                        t -> bookingViewRepository.findRowsByProviderId(t.providerId(), NEWEST)),
+                query("BookingViewRepository.findRowsByStatus", "idx_booking_view_status_created",
+                        t -> bookingViewRepository.findRowsByStatus(BookingStatus.COMPLETED, NEWEST)),
+                query("RatingRepository.findByProviderIdAndStarsIn", "idx_rating_provider_stars",
+                        t -> ratingRepository.findByProviderIdAndStarsIn(
+                                t.providerId(), List.of(1, 2, 3), PageRequest.of(0, 10))),
+                query("NotificationRepository.findByUserIdAndIsRead", "idx_notification_user_read",
+                        t -> notificationRepository.findByUserIdAndIsRead(
+                                t.customerUserId(), false, PageRequest.of(0, 10))),
+                query("PaymentRepository.calculateRevenueBetweenDates", "idx_payment_status_created",
+                        t -> paymentRepository.calculateRevenueBetweenDates(
+                                LocalDateTime.now().minusHours(2), LocalDateTime.now())));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("hotQueries")
+    void planUsesDeclaredIndex(String name, String expectedIndex, Consumer<QueryPlanRegressionTest> call) {
+
+        List<String> statements = transactionTemplate.execute(status -> {
+            SqlCapture.clear();
+            call.accept(this);
+            return SqlCapture.statements();
+        });
+
+        assertThat(statements).as("statements issued by " + name).isNotEmpty();
+
+        List<String> plans = statements.stream().map(this::explain).toList();
+
+        for (String plan : plans) {
+            for (String table : HOT_TABLES) {
+                assertThat(plan).as(name + " plan:\n" + plan)
+                        .doesNotContain("public." + table + ".tableScan");
+            }
+        }
+
+        String plan = plans.get(0);
+        assertThat(plan).as(name + " should use " + expectedIndex + ", plan:\n" + plan)
+                .contains("public." + expectedIndex + ":");
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class).toLowerCase(Locale.ROOT);
+    }
+
+    private Long customerId() {
+        return customers.get(7).getId();
+    }
+
+    private Long customerUserId() {
+        return customers.get(7).getUser().getId();
+    }
+
+    private Long providerId() {
+        return providers.get(3).getId();
+    }
+
+    private static Arguments query(String name, String expectedIndex, Consumer<QueryPlanRegressionTest> call) {
+        return Arguments.of(name, expectedIndex, call);
+    }
+}
@@ -0,0 +1,97 @@
+package com.servicebooking.security;
+
+import com.servicebooking.exception.ServiceUnavailableException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PasswordHashExecutorTest {
+
+    private PasswordHashExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = new PasswordHashExecutor();
+        ReflectionTestUtils.setField(executor, "threads", 1);
+        ReflectionTestUtils.setField(executor, "queueCapacity", 2);
+        ReflectionTestUtils.setField(executor, "timeoutMs", 5000L);
+        executor.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void runsTasksAndReportsStats() {
+        assertThat(executor.execute(() -> "hashed")).isEqualTo("hashed");
+
+        assertThat(executor.getStats())
+                .containsEntry("submitted", 1L)
+                .containsEntry("completed", 1L)
+                .containsEntry("rejected", 0L);
+    }
+
+    @Test
+    void rejectsWorkBeyondPoolAndQueueInsteadOfBlockingCallers() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        AtomicInteger rejected = new AtomicInteger();
+
+        try {
+            List<Future<?>> calls = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                calls.add(callers.submit(() -> {
+                    try {
+                        executor.execute(() -> release.await(5, TimeUnit.SECONDS));
+                    } catch (ServiceUnavailableException e) {
+                        rejected.incrementAndGet();
+                    }
+                }));
+            }
+
+            // one running plus two queued; everything else is turned away at once
+            long deadline = System.currentTimeMillis() + 5000;
+            while (rejected.get() < 5 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertThat(rejected.get()).isEqualTo(5);
+
+            release.countDown();
+            for (Future<?> call : calls) call.get(5, TimeUnit.SECONDS);
+
+            assertThat(executor.getStats())
+                    .containsEntry("rejected", 5L)
+                    .containsEntry("completed", 3L);
+        } finally {
+            release.countDown();
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    void timesOutSlowTasks() {
+        ReflectionTestUtils.setField(executor, "timeoutMs", 50L);
+
+        assertThatThrownBy(() -> executor.execute(() -> {
+            Thread.sleep(1000);
+            return null;
+        })).isInstanceOf(ServiceUnavailableException.class);
+
+        assertThat(executor.getStats()).containsEntry("timedOut", 1L);
+    }
+}
@@ -0,0 +1,119 @@
+package com.servicebooking.security;
+
+import com.servicebooking.config.RateLimitProperties;
+import com.servicebooking.exception.TooManyRequestsException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RateLimiterTest {
+
+    private RateLimitProperties properties;
+    private RateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        properties = new RateLimitProperties();
+        properties.setMaxBuckets(1600);
+        properties.getEndpoints().put("login", endpointLimit(3, 3));
+
+        rateLimiter = new RateLimiter();
+        ReflectionTestUtils.setField(rateLimiter, "properties", properties);
+        rateLimiter.init();
+    }
+
+    @Test
+    void randomEmailsCannotGrowBucketsPastTheCap() throws Exception {
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            pool.submit(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    rateLimiter.checkEmail("login", UUID.randomUUID() + "@example.com");
+                }
+            });
+        }
+        pool.shutdown();
+        assertThat(pool.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+        Map<String, Object> stats = rateLimiter.getStats();
+        assertThat((int) stats.get("buckets")).isLessThanOrEqualTo(1600);
+        assertThat((long) stats.get("evicted")).isGreaterThan(0);
+        assertThat((long) stats.get("allowed")).isEqualTo(80_000);
+    }
+
+    @Test
+    void recentlyUsedBucketSurvivesEviction() {
+
+        for (int i = 0; i < 3; i++) {
+            rateLimiter.checkEmail("login", "victim@example.com");
+        }
+
+        // keep touching the victim bucket while strangers churn the map
+        for (int i = 0; i < 5_000; i++) {
+            rateLimiter.checkEmail("login", "stranger" + i + "@example.com");
+            if (i % 50 == 0) {
+                assertThatThrownBy(() -> rateLimiter.checkEmail("login", "victim@example.com"))
+                        .isInstanceOf(TooManyRequestsException.class);
+            }
+        }
+    }
+
+    @Test
+    void throttledEmailCarriesRetryAfter() {
+
+        for (int i = 0; i < 3; i++) {
+            rateLimiter.checkEmail("login", "user@example.com");
+        }
+
+        assertThatThrownBy(() -> rateLimiter.checkEmail("login", "user@example.com"))
+                .isInstanceOfSatisfying(TooManyRequestsException.class,
+                        e -> assertThat(e.getRetryAfterSeconds()).isPositive());
+    }
+
+    @Test
+    void filterWritesApiResponseBodyWhenThrottled() throws Exception {
+
+        RateLimitFilter filter = new RateLimitFilter(rateLimiter, JsonMapper.builder().build());
+
+        MockHttpServletResponse res = null;
+        for (int i = 0; i < 4; i++) {
+            MockHttpServletRequest req = new MockHttpServletRequest("POST", "/api/auth/login");
+            req.setRemoteAddr("10.0.0.1");
+            res = new MockHttpServletResponse();
+            filter.doFilter(req, res, new MockFilterChain());
+        }
+
+        assertThat(res.getStatus()).isEqualTo(429);
+        assertThat(res.getHeader("Retry-After")).isNotBlank();
+
+        JsonNode body = JsonMapper.builder().build().readTree(res.getContentAsString());
+        assertThat(body.get("success").asBoolean()).isFalse();
+        assertThat(body.get("message").asString()).isEqualTo("Too many requests, please retry later");
+    }
+
+    private static RateLimitProperties.EndpointLimit endpointLimit(int capacity, int refillPerMinute) {
+        RateLimitProperties.Limit limit = new RateLimitProperties.Limit();
+        limit.setCapacity(capacity);
+        limit.setRefillPerMinute(refillPerMinute);
+
+        RateLimitProperties.EndpointLimit endpointLimit = new RateLimitProperties.EndpointLimit();
+        endpointLimit.setIp(limit);
+        endpointLimit.setEmail(limit);
+        return endpointLimit;
+    }
+}
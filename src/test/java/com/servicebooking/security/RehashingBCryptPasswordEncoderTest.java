@@ -0,0 +1,36 @@
+package com.servicebooking.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RehashingBCryptPasswordEncoderTest {
+
+    private final RehashingBCryptPasswordEncoder encoder = new RehashingBCryptPasswordEncoder(6);
+
+    @Test
+    void upgradesHashesWithALowerCost() {
+        String weak = new BCryptPasswordEncoder(4).encode("secret");
+
+        assertThat(encoder.upgradeEncoding(weak)).isTrue();
+        assertThat(encoder.matches("secret", weak)).isTrue();
+    }
+
+    @Test
+    void leavesHashesWithTheSameOrHigherCostAlone() {
+        assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(6).encode("secret"))).isFalse();
+        assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(7).encode("secret"))).isFalse();
+    }
+
+    @Test
+    void ignoresValuesThatAreNotBCrypt() {
+        assertThat(encoder.upgradeEncoding("plain-text")).isFalse();
+    }
+
+    @Test
+    void calibrationStaysWithinBounds() {
+        assertThat(RehashingBCryptPasswordEncoder.calibrate(1, 10, 16)).isEqualTo(10);
+        assertThat(RehashingBCryptPasswordEncoder.calibrate(250, 4, 31)).isBetween(4, 31);
+    }
+}
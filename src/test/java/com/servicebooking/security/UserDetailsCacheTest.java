@@ -0,0 +1,60 @@
+package com.servicebooking.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserDetailsCacheTest {
+
+    @Test
+    void evictsLeastRecentlyUsedEntryWhenFull() {
+
+        UserDetailsCache cache = new UserDetailsCache(2, 60_000);
+
+        cache.put("a@example.com", details("a@example.com"), cache.currentGeneration());
+        cache.put("b@example.com", details("b@example.com"), cache.currentGeneration());
+
+        // touching a makes b the eldest
+        assertThat(cache.get("a@example.com")).isNotNull();
+
+        cache.put("c@example.com", details("c@example.com"), cache.currentGeneration());
+
+        assertThat(cache.get("b@example.com")).isNull();
+        assertThat(cache.get("a@example.com")).isNotNull();
+        assertThat(cache.get("c@example.com")).isNotNull();
+        assertThat(cache.getStats()).containsEntry("size", 2);
+    }
+
+    @Test
+    void expiredEntriesAreMisses() throws InterruptedException {
+
+        UserDetailsCache cache = new UserDetailsCache(10, 1);
+
+        cache.put("a@example.com", details("a@example.com"), cache.currentGeneration());
+        Thread.sleep(5);
+
+        assertThat(cache.get("a@example.com")).isNull();
+        assertThat(cache.getStats()).containsEntry("size", 0);
+    }
+
+    @Test
+    void loadThatRacedWithInvalidationIsNotCached() {
+
+        UserDetailsCache cache = new UserDetailsCache(10, 60_000);
+
+        long generation = cache.currentGeneration();
+        cache.invalidate("a@example.com");
+        cache.put("a@example.com", details("a@example.com"), generation);
+
+        assertThat(cache.get("a@example.com")).isNull();
+    }
+
+    private static UserDetails details(String email) {
+        return new CachedUserDetails(email, null,
+                List.of(new SimpleGrantedAuthority("ROLE_CUSTOMER")), true);
+    }
+}
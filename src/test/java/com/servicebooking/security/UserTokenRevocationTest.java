@@ -0,0 +1,191 @@
+package com.servicebooking.security;
+
+import com.servicebooking.entity.User;
+import com.servicebooking.enums.UserRole;
+import com.servicebooking.repository.UserRepository;
+import com.servicebooking.service.AuthService;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "jwt.claims-only-auth=true")
+@ActiveProfiles("test")
+class UserTokenRevocationTest {
+
+    @Autowired
+    private JwtAuthenticationFilter filter;
+
+    @Autowired
+    private JwtTokenProvider tokenProvider;
+
+    @Autowired
+    private TokenRevocationService revocationService;
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private AuthService authService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        String tag = UUID.randomUUID().toString().substring(0, 8);
+        user = new User();
+        user.setName("Revocation " + tag);
+        user.setEmail("revoke-" + tag + "@example.com");
+        user.setMobileNumber("8" + tag.hashCode());
+        user.setPassword("$2a$04$hash");
+        user.setRole(UserRole.CUSTOMER);
+        user = userRepository.save(user);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void deletionOnAnotherNodeRejectsTokensAfterRefresh() throws Exception {
+
+        String token = issueToken();
+        assertThat(authenticate(token)).isNotNull();
+
+        // another node deleted the account a second after this token was issued: only the row changed
+        user.setStatus("DELETED");
+        user.setTokensValidAfter(LocalDateTime.ofInstant(
+                issuedAt(token).plusSeconds(1), ZoneId.systemDefault()));
+        userRepository.save(user);
+
+        revocationService.refresh();
+
+        assertThat(authenticate(token)).isNull();
+    }
+
+    @Test
+    void localRevocationTakesEffectImmediatelyAndNewLoginsStillWork() throws Exception {
+
+        String token = issueToken();
+
+        // iat has second precision, so the reset must land in a later second than the old token
+        Thread.sleep(1100);
+        revocationService.revokeUserTokens(user);
+        userRepository.save(user);
+
+        assertThat(authenticate(token)).isNull();
+
+        // a token issued in the same second as the reset is not caught by the cutoff
+        assertThat(revocationService.isRevoked(claims(cutoff()))).isFalse();
+        assertThat(revocationService.isRevoked(claims(cutoff().minusSeconds(1)))).isTrue();
+
+        String fresh = issueToken();
+        assertThat(authenticate(fresh)).isNotNull();
+
+        // and the persisted cutoff keeps accepting it after a refresh
+        revocationService.refresh();
+        assertThat(authenticate(fresh)).isNotNull();
+    }
+
+    @Test
+    void rolledBackResetRevokesNothing() {
+
+        JwtClaims before = claims(Instant.now().minusSeconds(5));
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(tx -> {
+            revocationService.revokeUserTokens(user);
+            userRepository.save(user);
+            // not applied while the reset is still uncommitted
+            assertThat(revocationService.isRevoked(before)).isFalse();
+            tx.setRollbackOnly();
+        });
+
+        assertThat(revocationService.isRevoked(before)).isFalse();
+        revocationService.refresh();
+        assertThat(revocationService.isRevoked(before)).isFalse();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(tx -> {
+            revocationService.revokeUserTokens(user);
+            userRepository.save(user);
+        });
+
+        assertThat(revocationService.isRevoked(before)).isTrue();
+    }
+
+    @Test
+    void logoutWithoutAUsableTokenStillSucceeds() throws Exception {
+
+        int revoked = revocationService.size();
+
+        for (String header : new String[] {null, "", "Basic abc", "Bearer not-a-jwt"}) {
+            assertThat(authService.logout(header).getSuccess()).as(String.valueOf(header)).isTrue();
+        }
+        assertThat(revocationService.size()).isEqualTo(revoked);
+
+        String token = issueToken();
+        assertThat(authService.logout("Bearer " + token).getSuccess()).isTrue();
+        assertThat(authenticate(token)).isNull();
+    }
+
+    @Test
+    void cachedPrincipalCarriesNoPasswordHash() {
+
+        assertThat(userDetailsService.loadPrincipal(user.getEmail()).getPassword()).isNull();
+        assertThat(userDetailsService.loadUserByUsername(user.getEmail()).getPassword())
+                .isEqualTo("$2a$04$hash");
+    }
+
+    private String issueToken() {
+        return tokenProvider.generateToken(user.getId(), user.getEmail(), user.getRole().name());
+    }
+
+    private Instant issuedAt(String token) {
+        return tokenProvider.verifyToken(token).orElseThrow().issuedAt();
+    }
+
+    private Instant cutoff() {
+        return userRepository.findById(user.getId()).orElseThrow()
+                .getTokensValidAfter().atZone(ZoneId.systemDefault()).toInstant();
+    }
+
+    private JwtClaims claims(Instant issuedAt) {
+        return new JwtClaims(user.getEmail(), user.getRole().name(), user.getId(), null,
+                issuedAt, issuedAt.plusSeconds(3600));
+    }
+
+    private Authentication authenticate(String token) throws Exception {
+
+        SecurityContextHolder.clearContext();
+
+        MockHttpServletRequest req = new MockHttpServletRequest("GET", "/api/users/profile");
+        req.addHeader("Authorization", "Bearer " + token);
+        FilterChain chain = (request, response) -> { };
+
+        filter.doFilter(req, new MockHttpServletResponse(), chain);
+
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
@@ -0,0 +1,190 @@
+package com.servicebooking.service;
+
+import com.servicebooking.dto.response.BookingResponseDTO;
+import com.servicebooking.dto.response.PageResponse;
+import com.servicebooking.entity.Booking;
+import com.servicebooking.entity.CustomerProfile;
+import com.servicebooking.entity.Payment;
+import com.servicebooking.entity.ProviderProfile;
+import com.servicebooking.entity.Rating;
+import com.servicebooking.entity.ServiceItem;
+import com.servicebooking.enums.BookingStatus;
+import com.servicebooking.enums.PaymentStatus;
+import com.servicebooking.exception.BadRequestException;
+import com.servicebooking.exception.ConflictException;
+import com.servicebooking.repository.ArchivedBookingRepository;
+import com.servicebooking.repository.ArchivedPaymentRepository;
+import com.servicebooking.repository.ArchivedRatingRepository;
+import com.servicebooking.repository.BookingRepository;
+import com.servicebooking.repository.PaymentRepository;
+import com.servicebooking.repository.RatingRepository;
+import com.servicebooking.support.TestData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestData.class)
+class ArchiveServiceTest {
+
+    @Autowired
+    private ArchiveService archiveService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingViewService bookingViewService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private RatingRepository ratingRepository;
+
+    @Autowired
+    private ArchivedBookingRepository archivedBookingRepository;
+
+    @Autowired
+    private ArchivedPaymentRepository archivedPaymentRepository;
+
+    @Autowired
+    private ArchivedRatingRepository archivedRatingRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestData testData;
+
+    private CustomerProfile customer;
+    private ProviderProfile provider;
+    private ServiceItem service;
+
+    @BeforeEach
+    void setUp() {
+        customer = testData.customer();
+        provider = testData.provider();
+        service = testData.service();
+
+        // small batches so a run walks several keyset pages
+        ReflectionTestUtils.setField(archiveService, "batchSize", 2);
+        ReflectionTestUtils.setField(archiveService, "batchPauseMs", 0L);
+    }
+
+    @AfterEach
+    void restore() {
+        ReflectionTestUtils.setField(archiveService, "batchSize", 500);
+        ReflectionTestUtils.setField(archiveService, "batchPauseMs", 200L);
+    }
+
+    @Test
+    void oldClosedBookingsMoveWithTheirPaymentsAndRatings() {
+        Booking completed = booking(BookingStatus.COMPLETED, 12);
+        Payment payment = testData.payment(completed, PaymentStatus.COMPLETED);
+        Rating rating = testData.rating(completed, 5);
+
+        List<Long> oldClosed = new ArrayList<>(List.of(completed.getId()));
+        for (int i = 0; i < 4; i++) {
+            oldClosed.add(booking(BookingStatus.CANCELLED, 8 + i).getId());
+        }
+
+        Booking oldOpen = booking(BookingStatus.ACCEPTED, 12);
+        Booking recentClosed = booking(BookingStatus.COMPLETED, 1);
+
+        archiveService.runOnce();
+
+        for (Long id : oldClosed) {
+            assertThat(bookingRepository.existsById(id)).as("live %d", id).isFalse();
+            assertThat(archivedBookingRepository.existsById(id)).as("archived %d", id).isTrue();
+        }
+
+        assertThat(paymentRepository.existsById(payment.getId())).isFalse();
+        assertThat(archivedPaymentRepository.findById(payment.getId()).orElseThrow().getBookingId())
+                .isEqualTo(completed.getId());
+        assertThat(ratingRepository.existsById(rating.getId())).isFalse();
+        assertThat(archivedRatingRepository.findById(rating.getId()).orElseThrow().getBookingId())
+                .isEqualTo(completed.getId());
+
+        assertThat(bookingRepository.existsById(oldOpen.getId())).isTrue();
+        assertThat(bookingRepository.existsById(recentClosed.getId())).isTrue();
+        assertThat(archivedBookingRepository.existsById(oldOpen.getId())).isFalse();
+        assertThat(archivedBookingRepository.existsById(recentClosed.getId())).isFalse();
+    }
+
+    // Customer history spans the live and archive tables, so archiving loses nothing from it
+    @Test
+    void customerHistoryStillListsArchivedBookings() {
+        booking(BookingStatus.COMPLETED, 10);
+        booking(BookingStatus.CANCELLED, 9);
+        booking(BookingStatus.ACCEPTED, 0);
+        bookingViewService.rebuild();
+
+        archiveService.runOnce();
+
+        PageResponse<BookingResponseDTO> page =
+                bookingService.getBookingsByCustomerId(customer.getId(), 0, 10).getData();
+
+        assertThat(page.getTotalElements()).isEqualTo(3);
+        assertThat(page.getContent()).hasSize(3);
+    }
+
+    @Test
+    void deepHistoryPagesAreRejected() {
+        booking(BookingStatus.COMPLETED, 10);
+        bookingViewService.rebuild();
+        archiveService.runOnce();
+
+        assertThat(bookingService.getBookingsByCustomerId(customer.getId(), 99, 10).getSuccess()).isTrue();
+        assertThatThrownBy(() -> bookingService.getBookingsByCustomerId(customer.getId(), 100, 10))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> bookingService.getBookingsByCustomerId(customer.getId(), Integer.MAX_VALUE, 100))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void secondRunFindsNothingLeftToMove() {
+        booking(BookingStatus.COMPLETED, 7);
+        archiveService.runOnce();
+
+        assertThat(archiveService.runOnce().get("archivedBookings")).isEqualTo(0);
+    }
+
+    @Test
+    void overlappingRunIsRejected() {
+        AtomicBoolean running = (AtomicBoolean) ReflectionTestUtils.getField(archiveService, "running");
+        running.set(true);
+        try {
+            assertThatThrownBy(() -> archiveService.runOnce()).isInstanceOf(ConflictException.class);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    // created_at is set by auditing on insert, so age the row afterwards
+    private Booking booking(BookingStatus status, int monthsAgo) {
+        Booking booking = testData.booking(customer, provider, service, status,
+                LocalDateTime.now().minusMonths(monthsAgo));
+        jdbcTemplate.update("UPDATE bookings SET created_at = ? WHERE id = ?",
+                LocalDateTime.now().minusMonths(monthsAgo).minusDays(1), booking.getId());
+        return booking;
+    }
+}
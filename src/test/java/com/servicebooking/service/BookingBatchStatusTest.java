@@ -0,0 +1,181 @@
+package com.servicebooking.service;
+
+import com.servicebooking.dto.request.BatchStatusUpdateRequest;
+import com.servicebooking.dto.response.BatchItemResultDTO;
+import com.servicebooking.dto.response.BatchStatusUpdateResponse;
+import com.servicebooking.entity.Booking;
+import com.servicebooking.entity.BookingView;
+import com.servicebooking.entity.CustomerProfile;
+import com.servicebooking.entity.ProviderProfile;
+import com.servicebooking.entity.ServiceItem;
+import com.servicebooking.enums.BatchItemOutcome;
+import com.servicebooking.enums.BookingStatus;
+import com.servicebooking.event.BookingStatusBatchChangedEvent;
+import com.servicebooking.event.BookingStatusChangedEvent;
+import com.servicebooking.repository.BookingRepository;
+import com.servicebooking.repository.BookingViewRepository;
+import com.servicebooking.repository.ProviderProfileRepository;
+import com.servicebooking.support.TestData;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doThrow;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Import(TestData.class)
+@RecordApplicationEvents
+class BookingBatchStatusTest {
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingViewService bookingViewService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BookingViewRepository bookingViewRepository;
+
+    @Autowired
+    private ProviderProfileRepository providerRepo;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    @MockitoSpyBean
+    private ProviderService providerService;
+
+    @Autowired
+    private TestData testData;
+
+    private CustomerProfile customer;
+    private ProviderProfile provider;
+    private ServiceItem service;
+
+    @BeforeEach
+    void seed() {
+        customer = testData.customer();
+        provider = testData.provider();
+        service = testData.service();
+    }
+
+    @Test
+    void mixedBatchReportsEachRowAndPublishesOneEvent() {
+        List<Long> accepted = accepted(3);
+        Long pending = booking(BookingStatus.PENDING).getId();
+        Long cancelled = booking(BookingStatus.CANCELLED).getId();
+        Long missing = Long.MAX_VALUE;
+
+        List<Long> ids = new ArrayList<>(accepted);
+        ids.addAll(List.of(pending, cancelled, missing));
+
+        BatchStatusUpdateResponse response = run(ids, BookingStatus.COMPLETED);
+
+        Map<Long, BatchItemOutcome> outcomes = response.getResults().stream()
+                .collect(Collectors.toMap(BatchItemResultDTO::getBookingId, BatchItemResultDTO::getOutcome));
+
+        assertThat(response.getUpdated()).isEqualTo(3);
+        accepted.forEach(id -> assertThat(outcomes.get(id)).isEqualTo(BatchItemOutcome.UPDATED));
+        assertThat(outcomes.get(pending)).isEqualTo(BatchItemOutcome.ILLEGAL_TRANSITION);
+        assertThat(outcomes.get(cancelled)).isEqualTo(BatchItemOutcome.ILLEGAL_TRANSITION);
+        assertThat(outcomes.get(missing)).isEqualTo(BatchItemOutcome.NOT_FOUND);
+
+        accepted.forEach(id -> assertThat(status(id)).isEqualTo(BookingStatus.COMPLETED));
+        assertThat(providerRepo.findById(provider.getId()).orElseThrow().getCompletedJobs()).isEqualTo(3);
+
+        assertThat(events.stream(BookingStatusChangedEvent.class)).isEmpty();
+        assertThat(events.stream(BookingStatusBatchChangedEvent.class).toList())
+                .singleElement()
+                .satisfies(batch -> assertThat(batch.changes()).extracting(BookingStatusChangedEvent::bookingId)
+                        .containsExactlyInAnyOrderElementsOf(accepted));
+    }
+
+    // The view listener must not issue a statement per booking
+    @Test
+    void statementCountDoesNotGrowWithBatchSize() {
+        List<Long> small = accepted(4);
+        List<Long> large = accepted(40);
+        bookingViewService.rebuild();
+
+        long smallStatements = statementsFor(() -> run(small, BookingStatus.CANCELLED));
+        long largeStatements = statementsFor(() -> run(large, BookingStatus.CANCELLED));
+
+        assertThat(largeStatements).isEqualTo(smallStatements);
+
+        Map<Long, BookingStatus> viewStatus = bookingViewRepository.findAllById(large).stream()
+                .collect(Collectors.toMap(BookingView::getBookingId, BookingView::getStatus));
+        assertThat(viewStatus).hasSize(large.size());
+        assertThat(viewStatus.values()).containsOnly(BookingStatus.CANCELLED);
+    }
+
+    // Only version clashes and state-machine rejections become CONFLICT
+    @Test
+    void unexpectedFailurePropagatesAndRollsTheChunkBack() {
+        List<Long> ids = accepted(3);
+
+        doThrow(new IllegalStateException("stats store down"))
+                .when(providerService).addCompletedJobs(anyLong(), anyInt(), any());
+
+        assertThatThrownBy(() -> run(ids, BookingStatus.COMPLETED))
+                .isInstanceOf(IllegalStateException.class);
+
+        ids.forEach(id -> assertThat(status(id)).isEqualTo(BookingStatus.ACCEPTED));
+    }
+
+    private BatchStatusUpdateResponse run(List<Long> ids, BookingStatus status) {
+        BatchStatusUpdateRequest request = new BatchStatusUpdateRequest();
+        request.setBookingIds(ids);
+        request.setStatus(status);
+        return bookingService.updateStatusBatch(request).getData();
+    }
+
+    private long statementsFor(Runnable action) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private List<Long> accepted(int count) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ids.add(booking(BookingStatus.ACCEPTED).getId());
+        }
+        return ids;
+    }
+
+    private Booking booking(BookingStatus status) {
+        return testData.booking(customer, provider, service, status, LocalDateTime.now().plusDays(3));
+    }
+
+    private BookingStatus status(Long id) {
+        return bookingRepository.findById(id).orElseThrow().getStatus();
+    }
+}
@@ -0,0 +1,151 @@
+package com.servicebooking.service;
+
+import com.servicebooking.dto.response.BookingResponseDTO;
+import com.servicebooking.entity.CustomerProfile;
+import com.servicebooking.entity.ProviderProfile;
+import com.servicebooking.entity.ServiceItem;
+import com.servicebooking.enums.BookingStatus;
+import com.servicebooking.support.TestData;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// One list page must cost a fixed number of statements no matter how many rows
+// it holds, i.e. no per-row lookups of customer, provider, service or category.
+// Pages read booking_view; date-range reads and exports still go through the
+// joined BookingRow projection over bookings, which must stay a single query.
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Import(TestData.class)
+class BookingListStatementCountTest {
+
+    private static final int BOOKINGS = 30;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingViewService bookingViewService;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private CustomerProfile customer;
+    private ProviderProfile provider;
+
+    @BeforeEach
+    void setUp() {
+        customer = testData.customer();
+        provider = testData.provider();
+
+        for (int i = 0; i < BOOKINGS; i++) {
+            // a fresh service and category per row, so per-row lookups would show
+            ServiceItem service = testData.service();
+            testData.booking(customer, provider, service,
+                    i % 2 == 0 ? BookingStatus.PENDING : BookingStatus.ACCEPTED,
+                    LocalDateTime.now().plusDays(1).plusMinutes(i * 90L));
+        }
+
+        bookingViewService.rebuild();
+    }
+
+    @Test
+    void providerPageIsOneRowQueryPlusCount() {
+        assertStatementsPerPage(size -> () -> bookingService.getBookingsByProviderId(provider.getId(), 0, size), 2);
+    }
+
+    @Test
+    void customerPageAddsOnlyTheArchiveCount() {
+        assertStatementsPerPage(size -> () -> bookingService.getBookingsByCustomerId(customer.getId(), 0, size), 3);
+    }
+
+    @Test
+    void statusPageIsOneRowQueryPlusCount() {
+        assertStatementsPerPage(size -> () -> bookingService.getBookingsByStatus(BookingStatus.PENDING, 0, size), 2);
+    }
+
+    @Test
+    void filterPageIsOneRowQueryPlusCount() {
+        Map<String, String> filters = Map.of("providerName", provider.getUser().getName());
+        assertStatementsPerPage(size -> () -> bookingService.filterBookings(filters, 0, size), 2);
+    }
+
+    @Test
+    void dateRangeReadIsOneJoinedQuery() {
+
+        LocalDateTime from = LocalDateTime.now().minusHours(1);
+        LocalDateTime to = LocalDateTime.now().plusHours(1);
+        AtomicInteger rows = new AtomicInteger();
+
+        long statements = statementsFor(() -> {
+            List<BookingResponseDTO> bookings = bookingService.getBookingsBetweenDates(from, to).getData();
+            rows.set(bookings.size());
+            return bookings;
+        });
+
+        assertThat(rows.get()).isGreaterThanOrEqualTo(BOOKINGS);
+        assertThat(statements).isEqualTo(1);
+    }
+
+    @Test
+    void exportIsOneStreamedQuery() {
+
+        LocalDateTime from = LocalDateTime.now().minusHours(1);
+        LocalDateTime to = LocalDateTime.now().plusHours(1);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long statements = statementsFor(() -> {
+            try {
+                bookingService.exportBookingsBetweenDates(from, to, "ndjson", out);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return out;
+        });
+
+        assertThat(out.toString(StandardCharsets.UTF_8).lines().count()).isGreaterThanOrEqualTo(BOOKINGS);
+        assertThat(statements).isEqualTo(1);
+    }
+
+    private void assertStatementsPerPage(
+            IntFunction<Supplier<?>> pageOfSize, long expected) {
+
+        long small = statementsFor(pageOfSize.apply(5));
+        long large = statementsFor(pageOfSize.apply(14));
+
+        assertThat(small).isEqualTo(expected);
+        assertThat(large).isEqualTo(expected);
+    }
+
+    private long statementsFor(Supplier<?> call) {
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        assertThat(call.get()).isNotNull();
+
+        return statistics.getPrepareStatementCount();
+    }
+}
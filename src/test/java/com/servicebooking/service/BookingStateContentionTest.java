@@ -0,0 +1,199 @@
+package com.servicebooking.service;
+
+import com.servicebooking.entity.Booking;
+import com.servicebooking.entity.CustomerProfile;
+import com.servicebooking.entity.ProviderProfile;
+import com.servicebooking.entity.ServiceItem;
+import com.servicebooking.enums.BookingStatus;
+import com.servicebooking.exception.BadRequestException;
+import com.servicebooking.exception.ConflictException;
+import com.servicebooking.repository.BookingRepository;
+import com.servicebooking.repository.ProviderProfileRepository;
+import com.servicebooking.support.TestData;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.reset;
+
+// Customer and provider hammer the same bookings with COMPLETED and CANCELLED.
+// Each booking must end in exactly one terminal state, reported to exactly one
+// caller, with provider stats bumped once per completion. The first two reads
+// of every booking are held at a barrier, so two transitions always see
+// ACCEPTED before either writes and only the conditional UPDATE can separate them.
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestData.class)
+class BookingStateContentionTest {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingStateContentionTest.class);
+
+    private static final int BOOKINGS = 40;
+    private static final int ATTEMPTS_PER_STATUS = 3;
+    private static final int THREADS = 8;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @MockitoSpyBean
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ProviderProfileRepository providerRepo;
+
+    @Autowired
+    private TestData testData;
+
+    @Test
+    void racingTerminalTransitionsLoseNoUpdates() throws Exception {
+        CustomerProfile customer = testData.customer();
+        ProviderProfile provider = testData.provider();
+        ServiceItem service = testData.service();
+
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < BOOKINGS; i++) {
+            LocalDateTime at = LocalDateTime.now().plusDays(1).plusHours(i);
+            ids.add(testData.booking(customer, provider, service, BookingStatus.ACCEPTED, at).getId());
+        }
+
+        holdFirstTwoReads(ids);
+
+        Map<Long, List<BookingStatus>> winners = new ConcurrentHashMap<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> calls = new ArrayList<>();
+
+        try {
+            for (Long id : ids) {
+                for (int i = 0; i < ATTEMPTS_PER_STATUS; i++) {
+                    for (BookingStatus target : List.of(BookingStatus.COMPLETED, BookingStatus.CANCELLED)) {
+                        calls.add(pool.submit(() -> {
+                            start.await();
+                            try {
+                                if (target == BookingStatus.CANCELLED) {
+                                    bookingService.cancelBooking(id);
+                                } else {
+                                    bookingService.updateStatus(id, target);
+                                }
+                                winners.computeIfAbsent(id, k -> new CopyOnWriteArrayList<>()).add(target);
+                            } catch (BadRequestException | ConflictException e) {
+                                // lost the race: the booking is already terminal
+                            }
+                            return null;
+                        }));
+                    }
+                }
+            }
+
+            long began = System.nanoTime();
+            start.countDown();
+            for (Future<?> call : calls) {
+                call.get(60, TimeUnit.SECONDS);
+            }
+            double seconds = (System.nanoTime() - began) / 1e9;
+
+            int lostUpdates = 0;
+            int completed = 0;
+
+            for (Long id : ids) {
+                List<BookingStatus> won = winners.getOrDefault(id, List.of());
+                BookingStatus stored = bookingRepository.findById(id).orElseThrow().getStatus();
+
+                // more than one reported success, or a success the row doesn't show, is a lost update
+                if (won.size() != 1 || won.get(0) != stored) {
+                    lostUpdates++;
+                }
+                if (stored == BookingStatus.COMPLETED) {
+                    completed++;
+                }
+            }
+
+            log.info("{} transition calls on {} bookings in {} s ({} calls/s), lost updates: {}",
+                    calls.size(), BOOKINGS, String.format("%.3f", seconds),
+                    String.format("%.0f", calls.size() / seconds), lostUpdates);
+
+            assertThat(lostUpdates).isZero();
+
+            ProviderProfile stats = providerRepo.findById(provider.getId()).orElseThrow();
+            assertThat(stats.getCompletedJobs()).isEqualTo(completed);
+            assertThat(stats.getTotalEarnings())
+                    .isEqualByComparingTo(service.getBasePrice().multiply(BigDecimal.valueOf(completed)));
+        } finally {
+            reset(bookingRepository);
+            pool.shutdownNow();
+        }
+    }
+
+    private void holdFirstTwoReads(List<Long> ids) {
+
+        // the repository is a proxy, so reads go through the spy's delegating default answer
+        Answer<?> real = mockingDetails(bookingRepository).getMockCreationSettings().getDefaultAnswer();
+
+        Map<Long, CyclicBarrier> barriers = new ConcurrentHashMap<>();
+        Map<Long, AtomicInteger> reads = new ConcurrentHashMap<>();
+        ids.forEach(id -> {
+            barriers.put(id, new CyclicBarrier(2));
+            reads.put(id, new AtomicInteger());
+        });
+
+        doAnswer(invocation -> {
+            Object booking = real.answer(invocation);
+            Long id = invocation.getArgument(0);
+
+            if (reads.containsKey(id) && reads.get(id).incrementAndGet() <= 2) {
+                try {
+                    barriers.get(id).await(10, TimeUnit.SECONDS);
+                } catch (TimeoutException | BrokenBarrierException e) {
+                    throw new IllegalStateException("second writer never read booking " + id, e);
+                }
+            }
+            return booking;
+        }).when(bookingRepository).findById(any());
+    }
+
+    @Test
+    void terminalStatesAcceptNoFurtherMoves() {
+        for (BookingStatus terminal : List.of(BookingStatus.COMPLETED, BookingStatus.CANCELLED)) {
+            for (BookingStatus next : EnumSet.allOf(BookingStatus.class)) {
+                assertThat(terminal.canTransitionTo(next)).as("%s -> %s", terminal, next).isFalse();
+            }
+        }
+
+        Booking pending = testData.booking(testData.customer(), null, testData.service(),
+                BookingStatus.PENDING, LocalDateTime.now().plusDays(2));
+
+        bookingService.cancelBooking(pending.getId());
+
+        assertThatThrownBy(() -> bookingService.updateStatus(pending.getId(), BookingStatus.ACCEPTED))
+                .isInstanceOf(BadRequestException.class);
+    }
+}
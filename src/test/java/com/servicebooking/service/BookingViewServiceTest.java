@@ -0,0 +1,215 @@
+package com.servicebooking.service;
+
+import com.servicebooking.dto.projection.BookingRow;
+import com.servicebooking.entity.Booking;
+import com.servicebooking.entity.BookingView;
+import com.servicebooking.entity.CustomerProfile;
+import com.servicebooking.entity.ProviderProfile;
+import com.servicebooking.entity.ServiceItem;
+import com.servicebooking.enums.BookingStatus;
+import com.servicebooking.exception.ServiceUnavailableException;
+import com.servicebooking.repository.BookingRepository;
+import com.servicebooking.repository.BookingViewRepository;
+import com.servicebooking.repository.JobMarkerRepository;
+import com.servicebooking.support.TestData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.reset;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestData.class)
+class BookingViewServiceTest {
+
+    @Autowired
+    private BookingViewService bookingViewService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @MockitoSpyBean
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BookingViewRepository bookingViewRepository;
+
+    @Autowired
+    private JobMarkerRepository jobMarkerRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestData testData;
+
+    private CustomerProfile customer;
+    private ProviderProfile provider;
+    private ServiceItem service;
+    private int defaultBatchSize;
+
+    @BeforeEach
+    void setUp() {
+        customer = testData.customer();
+        provider = testData.provider();
+        service = testData.service();
+        defaultBatchSize = (int) ReflectionTestUtils.getField(bookingViewService, "rebuildBatchSize");
+    }
+
+    @AfterEach
+    void restore() {
+        ReflectionTestUtils.setField(bookingViewService, "rebuildBatchSize", defaultBatchSize);
+        ReflectionTestUtils.setField(bookingViewService, "ready", true);
+    }
+
+    @Test
+    void listReadsAreRefusedUntilTheViewIsBuilt() {
+        ReflectionTestUtils.setField(bookingViewService, "ready", false);
+
+        assertThatThrownBy(() -> bookingService.getBookingsByStatus(BookingStatus.PENDING, 0, 10))
+                .isInstanceOf(ServiceUnavailableException.class);
+        assertThatThrownBy(() -> bookingService.getBookingsByProviderId(provider.getId(), 0, 10))
+                .isInstanceOf(ServiceUnavailableException.class);
+
+        bookingViewService.rebuild();
+
+        assertThat(bookingViewService.isReady()).isTrue();
+        assertThat(bookingService.getBookingsByStatus(BookingStatus.PENDING, 0, 10).getSuccess()).isTrue();
+    }
+
+    // A start after a rebuild died partway finds rows in the view but no marker
+    @Test
+    void halfBuiltViewIsRebuiltBeforeReadsOpen() {
+        Booking first = booking(BookingStatus.PENDING, 1);
+        Booking second = booking(BookingStatus.PENDING, 2);
+        bookingViewService.rebuild();
+        assertThat(jobMarkerRepository.existsById(BookingViewService.BUILT_MARKER)).isTrue();
+
+        jobMarkerRepository.deleteById(BookingViewService.BUILT_MARKER);
+        bookingViewRepository.deleteById(second.getId());
+        ReflectionTestUtils.setField(bookingViewService, "ready", false);
+        assertThat(bookingViewRepository.existsById(first.getId())).isTrue();
+
+        bookingViewService.backfillIfIncomplete();
+
+        assertThat(bookingViewService.isReady()).isTrue();
+        assertThat(bookingViewRepository.existsById(second.getId())).isTrue();
+        assertThat(jobMarkerRepository.existsById(BookingViewService.BUILT_MARKER)).isTrue();
+    }
+
+    @Test
+    void completedViewOpensReadsWithoutARebuild() {
+        Booking booking = booking(BookingStatus.PENDING, 1);
+        bookingViewService.rebuild();
+
+        bookingViewRepository.deleteById(booking.getId());
+        ReflectionTestUtils.setField(bookingViewService, "ready", false);
+
+        bookingViewService.backfillIfIncomplete();
+
+        assertThat(bookingViewService.isReady()).isTrue();
+        assertThat(bookingViewRepository.existsById(booking.getId())).isFalse();
+    }
+
+    @Test
+    void rebuildDeletesViewRowsWhoseBookingIsGone() {
+        Booking gone = booking(BookingStatus.PENDING, 1);
+        Booking kept = booking(BookingStatus.PENDING, 2);
+        Booking goneLast = booking(BookingStatus.PENDING, 3);
+
+        bookingViewService.rebuild();
+        assertThat(bookingViewRepository.existsById(goneLast.getId())).isTrue();
+
+        // removed behind the view's back: one inside the id range, one past the last live booking
+        jdbcTemplate.update("DELETE FROM bookings WHERE id IN (?, ?)", gone.getId(), goneLast.getId());
+
+        ReflectionTestUtils.setField(bookingViewService, "rebuildBatchSize", 1);
+        Map<String, Object> result = bookingViewService.rebuild();
+
+        assertThat(bookingViewRepository.existsById(gone.getId())).isFalse();
+        assertThat(bookingViewRepository.existsById(goneLast.getId())).isFalse();
+        assertThat(bookingViewRepository.existsById(kept.getId())).isTrue();
+        assertThat((int) result.get("rowsDeleted")).isGreaterThanOrEqualTo(2);
+    }
+
+    @Test
+    void rebuildRefreshesStaleRows() {
+        Booking booking = booking(BookingStatus.PENDING, 1);
+        bookingViewService.rebuild();
+
+        jdbcTemplate.update("UPDATE bookings SET location = ? WHERE id = ?", "Moved street 9", booking.getId());
+
+        bookingViewService.rebuild();
+
+        BookingView view = bookingViewRepository.findById(booking.getId()).orElseThrow();
+        assertThat(view.getLocation()).isEqualTo("Moved street 9");
+    }
+
+    // A status change lands after the rebuild batch has picked its rows: it has to
+    // wait for the batch and end up in the view, not be overwritten by the stale read
+    @Test
+    void rebuildNeverOverwritesAConcurrentChange() throws Exception {
+        Booking booking = booking(BookingStatus.ACCEPTED, 1);
+        bookingViewService.rebuild();
+
+        ExecutorService writer = Executors.newSingleThreadExecutor();
+        AtomicReference<Future<?>> change = new AtomicReference<>();
+
+        try {
+            doAnswer(invocation -> {
+                // the repository is a proxy, so the read goes through an unstubbed finder
+                Collection<Long> ids = invocation.getArgument(0);
+                List<BookingRow> rows = ids.stream()
+                        .map(id -> bookingRepository.findRowById(id).orElseThrow())
+                        .toList();
+                if (change.get() == null) {
+                    change.set(writer.submit(() -> bookingService.updateStatus(booking.getId(), BookingStatus.COMPLETED)));
+                    try {
+                        change.get().get(500, TimeUnit.MILLISECONDS);
+                    } catch (TimeoutException e) {
+                        // blocked on the batch's row locks, as it should be
+                    }
+                }
+                return rows;
+            }).when(bookingRepository).findRowsByIds(anyCollection());
+
+            bookingViewService.rebuild();
+            change.get().get(30, TimeUnit.SECONDS);
+        } finally {
+            reset(bookingRepository);
+            writer.shutdownNow();
+        }
+
+        assertThat(bookingRepository.findById(booking.getId()).orElseThrow().getStatus())
+                .isEqualTo(BookingStatus.COMPLETED);
+        assertThat(bookingViewRepository.findById(booking.getId()).orElseThrow().getStatus())
+                .isEqualTo(BookingStatus.COMPLETED);
+    }
+
+    private Booking booking(BookingStatus status, int daysAhead) {
+        return testData.booking(customer, provider, service, status, LocalDateTime.now().plusDays(daysAhead));
+    }
+}
@@ -0,0 +1,92 @@
+package com.servicebooking.service;
+
+import com.servicebooking.entity.Booking;
+import com.servicebooking.entity.CustomerProfile;
+import com.servicebooking.entity.User;
+import com.servicebooking.enums.BookingStatus;
+import com.servicebooking.repository.BookingViewRepository;
+import com.servicebooking.repository.UserRepository;
+import com.servicebooking.security.CustomUserDetailsService;
+import com.servicebooking.security.JwtPrincipal;
+import com.servicebooking.support.TestData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestData.class)
+class CustomerProfileServiceTest {
+
+    @Autowired
+    private CustomerProfileService customerProfileService;
+
+    @Autowired
+    private BookingViewService bookingViewService;
+
+    @Autowired
+    private BookingViewRepository bookingViewRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @Autowired
+    private TestData testData;
+
+    private CustomerProfile customer;
+    private Booking booking;
+
+    @BeforeEach
+    void setUp() {
+        customer = testData.customer();
+        booking = testData.booking(customer, testData.provider(), testData.service(),
+                BookingStatus.PENDING, LocalDateTime.now().plusDays(1));
+        bookingViewService.rebuild();
+
+        User user = customer.getUser();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                new JwtPrincipal(user.getId(), user.getEmail(), "CUSTOMER"), null, List.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void emailChangeReachesTheBookingViewAndThePrincipalCache() {
+        String oldEmail = customer.getUser().getEmail();
+        String newEmail = "moved-" + UUID.randomUUID().toString().substring(0, 8) + "@example.com";
+
+        userDetailsService.loadPrincipal(oldEmail);
+        assertThat(userDetailsService.getCache().get(oldEmail)).isNotNull();
+
+        customerProfileService.updateProfile(newEmail, null);
+
+        assertThat(userRepository.findById(customer.getUser().getId()).orElseThrow().getEmail())
+                .isEqualTo(newEmail);
+        assertThat(bookingViewRepository.findById(booking.getId()).orElseThrow().getCustomerEmail())
+                .isEqualTo(newEmail);
+        assertThat(userDetailsService.getCache().get(oldEmail)).isNull();
+    }
+}
@@ -0,0 +1,195 @@
+package com.servicebooking.service;
+
+import com.servicebooking.entity.Booking;
+import com.servicebooking.entity.CustomerProfile;
+import com.servicebooking.entity.DailyStats;
+import com.servicebooking.entity.Payment;
+import com.servicebooking.entity.ProviderProfile;
+import com.servicebooking.entity.ServiceItem;
+import com.servicebooking.enums.BookingStatus;
+import com.servicebooking.enums.PaymentStatus;
+import com.servicebooking.event.BookingStatusChangedEvent;
+import com.servicebooking.repository.DailyStatsRepository;
+import com.servicebooking.repository.JobMarkerRepository;
+import com.servicebooking.support.TestData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestData.class)
+class DailyStatsServiceTest {
+
+    @Autowired
+    private DailyStatsService dailyStatsService;
+
+    @Autowired
+    private DailyStatsRepository dailyStatsRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private JobMarkerRepository jobMarkerRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestData testData;
+
+    private CustomerProfile customer;
+    private ProviderProfile provider;
+    private ServiceItem service;
+
+    // a day of its own, so rows written by other tests in this context never mix in
+    private LocalDate day;
+
+    @BeforeEach
+    void setUp() {
+        customer = testData.customer();
+        provider = testData.provider();
+        service = testData.service();
+        day = LocalDate.of(2001, 1, 1).plusDays(ThreadLocalRandom.current().nextInt(5000));
+    }
+
+    @Test
+    void flushRecomputesMarkedDayFromSourceRows() {
+
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < 3; i++) bookings.add(bookingOn(day, BookingStatus.PENDING));
+
+        dailyStatsService.rebuild(day, day);
+        assertThat(row(day).getPendingBookings()).isEqualTo(3);
+
+        Booking completed = bookings.get(0);
+        jdbcTemplate.update("UPDATE bookings SET status = 'COMPLETED' WHERE id = ?", completed.getId());
+        publishChange(completed, BookingStatus.PENDING, BookingStatus.COMPLETED);
+
+        assertThat(dailyStatsService.pendingDays()).isPositive();
+        dailyStatsService.flushDirtyDays();
+
+        DailyStats stats = row(day);
+        assertThat(stats.getTotalBookings()).isEqualTo(3);
+        assertThat(stats.getPendingBookings()).isEqualTo(2);
+        assertThat(stats.getCompletedBookings()).isEqualTo(1);
+    }
+
+    @Test
+    void rebuildRacingWithWritesNeverDoubleCounts() throws Exception {
+
+        for (int i = 0; i < 20; i++) bookingOn(day, BookingStatus.PENDING);
+
+        int writers = 4;
+        int perWriter = 15;
+        AtomicBoolean writing = new AtomicBoolean(true);
+        ExecutorService pool = Executors.newFixedThreadPool(writers + 1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int w = 0; w < writers; w++) {
+            futures.add(pool.submit(() -> {
+                for (int i = 0; i < perWriter; i++) {
+                    Booking booking = bookingOn(day, BookingStatus.PENDING);
+                    publishChange(booking, null, BookingStatus.PENDING);
+                    dailyStatsService.flushDirtyDays();
+                }
+                return null;
+            }));
+        }
+
+        futures.add(pool.submit(() -> {
+            while (writing.get()) {
+                dailyStatsService.rebuild(day, day);
+            }
+            return null;
+        }));
+
+        for (Future<?> future : futures.subList(0, writers)) future.get(60, TimeUnit.SECONDS);
+        writing.set(false);
+        futures.get(writers).get(60, TimeUnit.SECONDS);
+        pool.shutdown();
+
+        dailyStatsService.flushDirtyDays();
+
+        DailyStats stats = row(day);
+        assertThat(stats.getTotalBookings()).isEqualTo(20 + writers * perWriter);
+        assertThat(stats.getPendingBookings()).isEqualTo(20 + writers * perWriter);
+    }
+
+    // Changes whose dirty-day mark died with the node, on a day far outside any fixed window
+    @Test
+    void reconcileRefreshesOldDaysChangedSinceTheWatermark() {
+
+        Booking booking = bookingOn(day, BookingStatus.ACCEPTED);
+        Payment payment = testData.payment(booking, PaymentStatus.PENDING);
+        jdbcTemplate.update("UPDATE payments SET created_at = ? WHERE id = ?", day.atTime(12, 0), payment.getId());
+
+        dailyStatsService.rebuild(day, day);
+        dailyStatsService.reconcile();
+        LocalDateTime watermark = jobMarkerRepository.findById(DailyStatsService.RECONCILED_MARKER)
+                .orElseThrow().getMarkedAt();
+
+        // committed, but the node went down before any event marked the day
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.update("UPDATE bookings SET status = 'COMPLETED', updated_at = ? WHERE id = ?", now, booking.getId());
+        jdbcTemplate.update("UPDATE payments SET status = 'COMPLETED', updated_at = ? WHERE id = ?", now, payment.getId());
+        assertThat(row(day).getCompletedBookings()).isZero();
+
+        assertThat(dailyStatsService.reconcile()).isPositive();
+
+        DailyStats stats = row(day);
+        assertThat(stats.getAcceptedBookings()).isZero();
+        assertThat(stats.getCompletedBookings()).isEqualTo(1);
+        assertThat(stats.getCompletedPayments()).isEqualTo(1);
+        assertThat(stats.getRevenue()).isEqualByComparingTo(booking.getAmount());
+        assertThat(jobMarkerRepository.findById(DailyStatsService.RECONCILED_MARKER).orElseThrow().getMarkedAt())
+                .isAfterOrEqualTo(watermark);
+    }
+
+    @Test
+    void rebuildRemovesRowsForDaysWithoutActivity() {
+
+        dailyStatsRepository.save(new DailyStats(day));
+
+        dailyStatsService.rebuild(day, day);
+
+        assertThat(dailyStatsRepository.findById(day)).isEmpty();
+    }
+
+    private Booking bookingOn(LocalDate createdOn, BookingStatus status) {
+        Booking booking = testData.booking(customer, provider, service, status, LocalDateTime.now().plusDays(1));
+        LocalDateTime createdAt = createdOn.atTime(12, 0);
+        jdbcTemplate.update("UPDATE bookings SET created_at = ? WHERE id = ?", createdAt, booking.getId());
+        booking.setCreatedAt(createdAt);
+        return booking;
+    }
+
+    private void publishChange(Booking booking, BookingStatus previous, BookingStatus next) {
+        eventPublisher.publishEvent(new BookingStatusChangedEvent(
+                booking.getId(), customer.getId(), provider.getId(), booking.getBookingDateTime(),
+                booking.getCreatedAt(), booking.getAmount(), previous, next));
+    }
+
+    private DailyStats row(LocalDate day) {
+        return dailyStatsRepository.findById(day).orElseThrow();
+    }
+}
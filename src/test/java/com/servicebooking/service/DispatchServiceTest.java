@@ -0,0 +1,185 @@
+package com.servicebooking.service;
+
+import com.servicebooking.dto.projection.PendingBookingRow;
+import com.servicebooking.entity.Booking;
+import com.servicebooking.entity.CustomerProfile;
+import com.servicebooking.entity.ProviderProfile;
+import com.servicebooking.entity.ServiceItem;
+import com.servicebooking.enums.BookingStatus;
+import com.servicebooking.enums.ProviderStatus;
+import com.servicebooking.repository.BookingRepository;
+import com.servicebooking.repository.ProviderProfileRepository;
+import com.servicebooking.support.TestData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.reset;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestData.class)
+class DispatchServiceTest {
+
+    @Autowired
+    private DispatchService dispatchService;
+
+    @MockitoSpyBean
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ProviderProfileRepository providerRepo;
+
+    @Autowired
+    private TestData testData;
+
+    private CustomerProfile customer;
+    private ServiceItem service;
+    private LocalDate day;
+
+    @BeforeEach
+    void seed() {
+        customer = testData.customer();
+        service = testData.service();
+        day = LocalDate.now().plusDays(30 + ThreadLocalRandom.current().nextInt(3000));
+    }
+
+    @Test
+    void bestScoredProviderGetsTheBooking() {
+        ProviderProfile strong = provider(4.9, 40, ProviderStatus.APPROVED, service);
+        provider(3.1, 2, ProviderStatus.ONLINE, service);
+
+        Booking booking = pending(day.atTime(10, 0));
+
+        run();
+
+        assertThat(providerOf(booking)).isEqualTo(strong.getId());
+    }
+
+    // Only one provider can take each overlapping start; the rest stay PENDING
+    @Test
+    void overlappingBookingsSpreadAcrossProviders() {
+        ProviderProfile first = provider(4.5, 10, ProviderStatus.APPROVED, service);
+        ProviderProfile second = provider(4.0, 10, ProviderStatus.APPROVED, service);
+
+        Booking a = pending(day.atTime(10, 0));
+        Booking b = pending(day.atTime(10, 30));
+        Booking c = pending(day.atTime(10, 45));
+
+        run();
+
+        assertThat(providerOf(a)).isEqualTo(first.getId());
+        assertThat(providerOf(b)).isEqualTo(second.getId());
+        assertThat(bookingRepository.findById(c.getId()).orElseThrow().getStatus()).isEqualTo(BookingStatus.PENDING);
+        assertThat(providerOf(c)).isNull();
+    }
+
+    @Test
+    void loadCapMovesWorkToTheNextProvider() {
+        ProviderProfile strong = provider(5.0, 100, ProviderStatus.APPROVED, service);
+        ProviderProfile weak = provider(1.0, 0, ProviderStatus.APPROVED, service);
+
+        Object cap = ReflectionTestUtils.getField(dispatchService, "maxOpenBookings");
+        ReflectionTestUtils.setField(dispatchService, "maxOpenBookings", 1);
+        try {
+            Booking morning = pending(day.atTime(9, 0));
+            Booking evening = pending(day.atTime(18, 0));
+
+            run();
+
+            assertThat(providerOf(morning)).isEqualTo(strong.getId());
+            assertThat(providerOf(evening)).isEqualTo(weak.getId());
+        } finally {
+            ReflectionTestUtils.setField(dispatchService, "maxOpenBookings", cap);
+        }
+    }
+
+    @Test
+    void providersOutsideTheServiceOrNotApprovedAreSkipped() {
+        provider(5.0, 100, ProviderStatus.APPROVED, testData.service());
+        provider(5.0, 100, ProviderStatus.PENDING_APPROVAL, service);
+
+        Booking booking = pending(day.atTime(12, 0));
+
+        run();
+
+        assertThat(providerOf(booking)).isNull();
+    }
+
+    // Cancelled after it was listed: the first failed assignment ends the booking's turn
+    // instead of walking, and row-locking, every remaining candidate
+    @Test
+    void bookingCancelledAfterListingIsNotTriedAgainstEveryProvider() {
+        for (int i = 0; i < 3; i++) {
+            provider(4.0 + i * 0.1, 10, ProviderStatus.APPROVED, service);
+        }
+        Booking booking = pending(day.atTime(11, 0));
+
+        try {
+            doAnswer(invocation -> {
+                List<PendingBookingRow> rows = ((List<PendingBookingRow>) mockingDetails(bookingRepository)
+                        .getMockCreationSettings().getDefaultAnswer().answer(invocation)).stream()
+                        .filter(row -> row.bookingId().equals(booking.getId()))
+                        .toList();
+                jdbcTemplate.update("UPDATE bookings SET status = 'CANCELLED' WHERE id = ?", booking.getId());
+                return rows;
+            }).when(bookingRepository).findUnassigned(any(), anyLong(), any());
+
+            long conflictsBefore = (long) dispatchService.getStats().get("conflicts");
+            dispatchService.refreshCandidates();
+            Map<String, Object> result = dispatchService.runOnce();
+
+            assertThat(result.get("unmatched")).isEqualTo(1);
+            assertThat((long) dispatchService.getStats().get("conflicts") - conflictsBefore).isEqualTo(1);
+        } finally {
+            reset(bookingRepository);
+        }
+
+        assertThat(bookingRepository.findById(booking.getId()).orElseThrow().getStatus())
+                .isEqualTo(BookingStatus.CANCELLED);
+        assertThat(providerOf(booking)).isNull();
+    }
+
+    private void run() {
+        dispatchService.refreshCandidates();
+        dispatchService.runOnce();
+    }
+
+    private ProviderProfile provider(double rating, int completedJobs, ProviderStatus status, ServiceItem offers) {
+        ProviderProfile provider = testData.provider();
+        provider.setRating(rating);
+        provider.setCompletedJobs(completedJobs);
+        provider.setStatus(status);
+        provider.setSelectedServices(String.valueOf(offers.getId()));
+        return providerRepo.save(provider);
+    }
+
+    private Booking pending(LocalDateTime at) {
+        return testData.booking(customer, null, service, BookingStatus.PENDING, at);
+    }
+
+    private Long providerOf(Booking booking) {
+        Booking current = bookingRepository.findById(booking.getId()).orElseThrow();
+        return current.getProvider() != null ? current.getProvider().getId() : null;
+    }
+}
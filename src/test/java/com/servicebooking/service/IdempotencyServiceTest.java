@@ -0,0 +1,278 @@
+package com.servicebooking.service;
+
+import com.servicebooking.dto.response.ApiResponse;
+import com.servicebooking.entity.IdempotencyRecord;
+import com.servicebooking.enums.IdempotencyStatus;
+import com.servicebooking.exception.BadRequestException;
+import com.servicebooking.exception.ConflictException;
+import com.servicebooking.repository.IdempotencyRecordRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// A second IdempotencyService built by hand over the same database plays the
+// part of another node, since same-node duplicates coalesce in memory instead.
+// Scheduled renewals are pushed out of the way; tests call renewLeases() themselves.
+@SpringBootTest(properties = {
+        "idempotency.lease-ms=300",
+        "idempotency.lease-renew-ms=3600000"
+})
+@ActiveProfiles("test")
+class IdempotencyServiceTest {
+
+    private static final String SCOPE = "test:create";
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private IdempotencyRecordRepository repository;
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private IdempotencyService otherNode;
+    private String key;
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        key = UUID.randomUUID().toString();
+
+        otherNode = new IdempotencyService();
+        ReflectionTestUtils.setField(otherNode, "repository", repository);
+        ReflectionTestUtils.setField(otherNode, "jsonMapper", jsonMapper);
+        ReflectionTestUtils.setField(otherNode, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(otherNode, "ttlHours", 24L);
+        ReflectionTestUtils.setField(otherNode, "leaseMs", 300L);
+        ReflectionTestUtils.setField(otherNode, "waitTimeoutMs", 1000L);
+        ReflectionTestUtils.setField(otherNode, "maxCacheEntries", 100);
+        ReflectionTestUtils.invokeMethod(otherNode, "init");
+    }
+
+    @Test
+    void replayReReadsTheResourceInsteadOfStoringTheBody() {
+        ApiResponse<String> first = run(idempotencyService, Map.of("amount", 10), 42L);
+        assertThat(first.getData()).isEqualTo("created-42");
+
+        IdempotencyRecord record = onlyRecord();
+        assertThat(record.getStatus()).isEqualTo(IdempotencyStatus.COMPLETED);
+        assertThat(record.getResourceId()).isEqualTo(42L);
+        assertThat(record.getResponseMessage()).isEqualTo("Created");
+
+        // the other node has no cache, so this replays from the table
+        ApiResponse<String> replayed = run(otherNode, Map.of("amount", 10), 99L);
+
+        assertThat(replayed.getMessage()).isEqualTo("Created");
+        assertThat(replayed.getData()).isEqualTo("reloaded-42");
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void sameKeyWithDifferentRequestIsRejected() {
+        run(idempotencyService, Map.of("amount", 10), 7L);
+
+        assertThatThrownBy(() -> run(otherNode, Map.of("amount", 11), 8L))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    // The holder's lease runs out while it works; a renewal is what keeps it
+    @Test
+    void slowLiveRequestIsNotTakenOver() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<ApiResponse<String>> slow = CompletableFuture.supplyAsync(() ->
+                idempotencyService.execute(SCOPE, key, Map.of("amount", 5),
+                        id -> 5L, id -> "reloaded-" + id,
+                        () -> {
+                            executions.incrementAndGet();
+                            started.countDown();
+                            await(release);
+                            return ApiResponse.success("Created", "created-5");
+                        }));
+
+        assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+
+        IdempotencyRecord record = onlyRecord();
+        record.setLeaseUntil(LocalDateTime.now().minusSeconds(1));
+        repository.save(record);
+
+        idempotencyService.renewLeases();
+
+        assertThat(onlyRecord().getLeaseUntil()).isAfter(LocalDateTime.now());
+        assertThatThrownBy(() -> run(otherNode, Map.of("amount", 5), 6L))
+                .isInstanceOf(ConflictException.class);
+
+        release.countDown();
+        assertThat(slow.get(10, TimeUnit.SECONDS).getData()).isEqualTo("created-5");
+
+        assertThat(run(otherNode, Map.of("amount", 5), 6L).getData()).isEqualTo("reloaded-5");
+        assertThat(executions).hasValue(1);
+    }
+
+    // Duplicates on the same node wait for the leader and share its result
+    @Test
+    void concurrentDuplicatesOnOneNodeShareTheLeadersResult() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        long coalescedBefore = (long) idempotencyService.getStats().get("coalesced");
+
+        CompletableFuture<ApiResponse<String>> leader = CompletableFuture.supplyAsync(() ->
+                idempotencyService.execute(SCOPE, key, Map.of("amount", 4),
+                        id -> 4L, id -> "reloaded-" + id,
+                        () -> {
+                            executions.incrementAndGet();
+                            started.countDown();
+                            await(release);
+                            return ApiResponse.success("Created", "created-4");
+                        }));
+        assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+
+        ExecutorService pool = Executors.newFixedThreadPool(3);
+        try {
+            List<Future<ApiResponse<String>>> followers = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                followers.add(pool.submit(() -> run(idempotencyService, Map.of("amount", 4), 40L)));
+            }
+
+            // every follower is parked on the leader's future before it is let go
+            long deadline = System.currentTimeMillis() + 10_000;
+            while ((long) idempotencyService.getStats().get("coalesced") - coalescedBefore < 3
+                    && System.currentTimeMillis() < deadline) {
+                Thread.onSpinWait();
+            }
+            assertThat((long) idempotencyService.getStats().get("coalesced") - coalescedBefore).isEqualTo(3);
+
+            release.countDown();
+            assertThat(leader.get(10, TimeUnit.SECONDS).getData()).isEqualTo("created-4");
+            for (Future<ApiResponse<String>> follower : followers) {
+                assertThat(follower.get(10, TimeUnit.SECONDS).getData()).isEqualTo("reloaded-4");
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(executions).hasValue(1);
+        assertThat(onlyRecord().getResourceId()).isEqualTo(4L);
+    }
+
+    // A holder that loses its key mid-action rolls its own writes back with the key update
+    @Test
+    void actionWritesRollBackWhenTheKeyCannotBeCompleted() throws Exception {
+        String sideKey = UUID.randomUUID().toString();
+
+        assertThatThrownBy(() -> idempotencyService.execute(SCOPE, key, Map.of("amount", 8),
+                id -> 8L, id -> "reloaded-" + id,
+                () -> {
+                    // another node takes the key over and commits while this action runs
+                    CompletableFuture.runAsync(() -> {
+                        IdempotencyRecord record = onlyRecord();
+                        record.setLeaseOwner("other-node");
+                        repository.save(record);
+                    }).join();
+
+                    // a write made by the action itself, in the action's transaction
+                    IdempotencyRecord side = new IdempotencyRecord();
+                    side.setKeyHash(sideKey);
+                    side.setScope(SCOPE);
+                    side.setRequestHash("side");
+                    side.setStatus(IdempotencyStatus.COMPLETED);
+                    side.setCreatedAt(LocalDateTime.now());
+                    side.setExpiresAt(LocalDateTime.now().plusHours(1));
+                    repository.save(side);
+
+                    return ApiResponse.success("Created", "created-8");
+                })).isInstanceOf(ConflictException.class);
+
+        assertThat(repository.findById(sideKey)).isEmpty();
+        assertThat(onlyRecord().getLeaseOwner()).isEqualTo("other-node");
+        assertThat(onlyRecord().getStatus()).isEqualTo(IdempotencyStatus.IN_PROGRESS);
+    }
+
+    // No renewals arrive from a dead holder, so its lapsed lease can be claimed,
+    // and its late completion is refused because it no longer owns the key
+    @Test
+    void lapsedLeaseIsTakenOverAndTheOldHolderIsFenced() {
+        ApiResponse<String> warmUp = run(idempotencyService, Map.of("amount", 1), 1L);
+        assertThat(warmUp.getData()).isEqualTo("created-1");
+
+        IdempotencyRecord record = onlyRecord();
+        record.setStatus(IdempotencyStatus.IN_PROGRESS);
+        record.setResourceId(null);
+        record.setLeaseOwner("dead-node");
+        record.setLeaseUntil(LocalDateTime.now().minusSeconds(1));
+        repository.save(record);
+
+        ApiResponse<String> taken = run(otherNode, Map.of("amount", 1), 2L);
+
+        assertThat(taken.getData()).isEqualTo("created-2");
+        assertThat(executions).hasValue(2);
+        assertThat(repository.complete(record.getKeyHash(), "dead-node",
+                IdempotencyStatus.COMPLETED, 1L, "Created")).isZero();
+        assertThat(onlyRecord().getResourceId()).isEqualTo(2L);
+    }
+
+    @Test
+    void failedActionReleasesTheKey() {
+        assertThatThrownBy(() -> idempotencyService.execute(SCOPE, key, Map.of("amount", 3),
+                id -> 3L, id -> "reloaded-" + id,
+                () -> {
+                    throw new IllegalStateException("boom");
+                })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(repository.findById(keyHash())).isEmpty();
+        assertThat(run(idempotencyService, Map.of("amount", 3), 3L).getData()).isEqualTo("created-3");
+    }
+
+    private ApiResponse<String> run(IdempotencyService node, Object request, long createdId) {
+        return node.execute(SCOPE, key, request,
+                data -> Long.valueOf(data.substring(data.indexOf('-') + 1)),
+                id -> "reloaded-" + id,
+                () -> {
+                    executions.incrementAndGet();
+                    return ApiResponse.success("Created", "created-" + createdId);
+                });
+    }
+
+    private IdempotencyRecord onlyRecord() {
+        return repository.findById(keyHash()).orElseThrow();
+    }
+
+    // no authentication in these tests, so the principal part is "anonymous"
+    private String keyHash() {
+        return ReflectionTestUtils.invokeMethod(idempotencyService, "sha256", SCOPE + "\nanonymous\n" + key);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
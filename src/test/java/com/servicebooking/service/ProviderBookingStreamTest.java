@@ -0,0 +1,190 @@
+package com.servicebooking.service;
+
+import com.servicebooking.enums.BookingStatus;
+import com.servicebooking.event.BookingStatusChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProviderBookingStreamTest {
+
+    private static final Pattern EVENT_ID = Pattern.compile("^id:(\\S+)", Pattern.MULTILINE);
+
+    private ProviderBookingStream stream;
+    private volatile boolean failSends;
+    private final List<String> sentIds = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        stream = new ProviderBookingStream() {
+            @Override
+            SseEmitter newEmitter() {
+                return new SseEmitter(60_000L) {
+                    @Override
+                    public void send(SseEventBuilder builder) throws IOException {
+                        if (failSends) throw new IllegalArgumentException("payload does not serialize");
+                        Matcher id = EVENT_ID.matcher(builder.build().iterator().next().getData().toString());
+                        if (id.find()) sentIds.add(id.group(1));
+                        super.send(builder);
+                    }
+                };
+            }
+        };
+        ReflectionTestUtils.setField(stream, "timeoutMs", 60_000L);
+        ReflectionTestUtils.setField(stream, "replaySize", 100);
+        ReflectionTestUtils.setField(stream, "queueSize", 16);
+        ReflectionTestUtils.setField(stream, "maxSubscribers", 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.invokeMethod(stream, "shutdown");
+    }
+
+    @Test
+    void idsFromThisEpochReplayOnlyNewerEventsForTheProvider() {
+        publish(1L, 100L);
+        String first = lastEventId();
+        publish(1L, 101L);
+        publish(2L, 102L);
+        publish(1L, 103L);
+
+        List<?> missed = missedSince(1L, first);
+
+        assertThat(missed).extracting(e -> ReflectionTestUtils.invokeMethod(e, "name")).containsOnly("booking");
+        assertThat(missed).hasSize(2);
+    }
+
+    // A pre-restart numeric id or an id from another node must not be read as a position here
+    @Test
+    void foreignOrPreRestartIdsGetAResyncWithAPayload() {
+        publish(1L, 100L);
+
+        for (String lastEventId : List.of("1", "kz9x1-1", "garbage", lastEventId() + "x")) {
+            List<?> missed = missedSince(1L, lastEventId);
+
+            assertThat(missed).as(lastEventId).hasSize(1);
+            assertThat((String) ReflectionTestUtils.invokeMethod(missed.get(0), "name")).isEqualTo("resync");
+            assertThat((Object) ReflectionTestUtils.invokeMethod(missed.get(0), "payload"))
+                    .isEqualTo(Map.of("type", "resync"));
+        }
+    }
+
+    @Test
+    void resyncIsDeliveredWithoutBreakingTheSubscription() throws Exception {
+        stream.subscribe(1L, "1");
+
+        Thread.sleep(200);
+
+        assertThat(subscribers()).isEqualTo(1);
+    }
+
+    // Any failure while sending closes the emitter and frees the slot
+    @Test
+    void runtimeFailureWhileSendingDeregistersTheSubscriber() throws Exception {
+        stream.subscribe(1L, null);
+        assertThat(subscribers()).isEqualTo(1);
+
+        failSends = true;
+        publish(1L, 100L);
+
+        for (int i = 0; i < 50 && subscribers() > 0; i++) {
+            Thread.sleep(20);
+        }
+
+        assertThat(subscribers()).isZero();
+    }
+
+    // An event published just after the subscriber is registered must not arrive
+    // both live and from the replay snapshot, nor ahead of older replayed events
+    @Test
+    void eventPublishedWhileSubscribingArrivesOnceAndInOrder() throws Exception {
+        publish(1L, 100L);
+        String lastSeen = lastEventId();
+        publish(1L, 101L);
+        String missed = lastEventId();
+
+        ExecutorService publisher = Executors.newSingleThreadExecutor();
+        String[] racing = new String[1];
+
+        // right after registration, before the replay snapshot is taken
+        ReflectionTestUtils.setField(stream, "subscribers", new ConcurrentHashMap<Long, Set<Object>>() {
+            @Override
+            public Set<Object> computeIfAbsent(Long key, Function<? super Long, ? extends Set<Object>> mapping) {
+                return super.computeIfAbsent(key, k -> new CopyOnWriteArraySet<>() {
+                    @Override
+                    public boolean add(Object subscriber) {
+                        boolean added = super.add(subscriber);
+                        Future<?> race = publisher.submit(() -> {
+                            publish(1L, 102L);
+                            racing[0] = lastEventId();
+                        });
+                        try {
+                            race.get(300, TimeUnit.MILLISECONDS);
+                        } catch (TimeoutException e) {
+                            // held back until the snapshot is taken, as it should be
+                        } catch (Exception e) {
+                            throw new IllegalStateException(e);
+                        }
+                        return added;
+                    }
+                });
+            }
+        });
+
+        try {
+            stream.subscribe(1L, lastSeen);
+            publisher.shutdown();
+            assertThat(publisher.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+
+            for (int i = 0; i < 50 && sentIds.size() < 2; i++) {
+                Thread.sleep(20);
+            }
+            Thread.sleep(100);
+
+            assertThat(sentIds).containsExactly(missed, racing[0]);
+        } finally {
+            publisher.shutdownNow();
+        }
+    }
+
+    private void publish(Long providerId, Long bookingId) {
+        stream.onBookingStatusChanged(new BookingStatusChangedEvent(bookingId, 9L, providerId,
+                LocalDateTime.now().plusDays(1), LocalDateTime.now(), BigDecimal.TEN,
+                BookingStatus.PENDING, BookingStatus.ACCEPTED));
+    }
+
+    private String lastEventId() {
+        return (String) stream.getStats().get("lastEventId");
+    }
+
+    private List<?> missedSince(Long providerId, String lastEventId) {
+        return ReflectionTestUtils.invokeMethod(stream, "missedSince", providerId, lastEventId);
+    }
+
+    private int subscribers() {
+        return (Integer) stream.getStats().get("subscribers");
+    }
+}
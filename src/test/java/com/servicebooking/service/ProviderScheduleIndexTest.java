@@ -0,0 +1,74 @@
+package com.servicebooking.service;
+
+import com.servicebooking.dto.projection.ProviderBookingSlot;
+import com.servicebooking.enums.BookingStatus;
+import com.servicebooking.event.BookingStatusChangedEvent;
+import com.servicebooking.repository.BookingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProviderScheduleIndexTest {
+
+    private static final LocalDateTime TEN = LocalDateTime.now().plusDays(2).withHour(10).withMinute(0).withSecond(0).withNano(0);
+
+    private final BookingRepository bookingRepository = mock(BookingRepository.class);
+    private ProviderScheduleIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProviderScheduleIndex();
+        ReflectionTestUtils.setField(index, "bookingRepository", bookingRepository);
+        ReflectionTestUtils.setField(index, "slotMinutes", 60);
+    }
+
+    @Test
+    void overlapIsJudgedOnIntervalsNotGridCells() {
+        index.onBookingStatusChanged(accepted(1L, 7L, TEN.plusMinutes(30)));
+
+        assertThat(index.findConflict(7L, TEN.plusMinutes(75), null)).isEqualTo(1L);
+        assertThat(index.findConflict(7L, TEN.minusMinutes(20), null)).isEqualTo(1L);
+        assertThat(index.findConflict(7L, TEN.plusMinutes(90), null)).isNull();
+        assertThat(index.findConflict(7L, TEN.minusMinutes(30), null)).isNull();
+        assertThat(index.findConflict(7L, TEN.plusMinutes(45), 1L)).isNull();
+    }
+
+    // Events that commit while the rebuild is reading must survive the swap
+    @Test
+    void eventsDuringRebuildAreReplayedOntoTheNewMaps() {
+        index.onBookingStatusChanged(accepted(1L, 7L, TEN));
+
+        when(bookingRepository.findProviderSlotsFrom(eq(BookingStatus.ACCEPTED), any())).thenAnswer(call -> {
+            // snapshot still shows booking 1; meanwhile 2 is accepted and 1 is cancelled
+            index.onBookingStatusChanged(accepted(2L, 7L, TEN.plusHours(3)));
+            index.onBookingStatusChanged(changed(1L, 7L, TEN, BookingStatus.ACCEPTED, BookingStatus.CANCELLED));
+            return List.of(new ProviderBookingSlot(7L, 1L, TEN));
+        });
+
+        index.rebuild();
+
+        assertThat(index.findConflict(7L, TEN.plusHours(3), null)).isEqualTo(2L);
+        assertThat(index.findConflict(7L, TEN, null)).isNull();
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    private static BookingStatusChangedEvent accepted(Long bookingId, Long providerId, LocalDateTime at) {
+        return changed(bookingId, providerId, at, BookingStatus.PENDING, BookingStatus.ACCEPTED);
+    }
+
+    private static BookingStatusChangedEvent changed(Long bookingId, Long providerId, LocalDateTime at,
+                                                     BookingStatus previous, BookingStatus next) {
+        return new BookingStatusChangedEvent(bookingId, 1L, providerId, at, LocalDateTime.now(),
+                BigDecimal.TEN, previous, next);
+    }
+}
@@ -0,0 +1,150 @@
+package com.servicebooking.service;
+
+import com.servicebooking.entity.Booking;
+import com.servicebooking.entity.CustomerProfile;
+import com.servicebooking.entity.ProviderProfile;
+import com.servicebooking.entity.ServiceItem;
+import com.servicebooking.enums.BookingStatus;
+import com.servicebooking.exception.BadRequestException;
+import com.servicebooking.exception.ConflictException;
+import com.servicebooking.repository.BookingRepository;
+import com.servicebooking.support.TestData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestData.class)
+class ProviderSlotGuardTest {
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private ProviderScheduleIndex scheduleIndex;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private TestData testData;
+
+    private CustomerProfile customer;
+    private ProviderProfile provider;
+    private ServiceItem service;
+    private LocalDate day;
+
+    @BeforeEach
+    void seed() {
+        customer = testData.customer();
+        provider = testData.provider();
+        service = testData.service();
+        day = LocalDate.now().plusDays(30 + ThreadLocalRandom.current().nextInt(3000));
+    }
+
+    // 10:30 and 11:15 overlap but fall in different grid cells, so the unique key alone lets both through
+    @Test
+    void concurrentOverlappingAssignmentsLeaveOneAccepted() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            for (int round = 0; round < 5; round++) {
+                LocalDate on = day.plusDays(round);
+                Booking first = testData.booking(customer, null, service, BookingStatus.PENDING, on.atTime(10, 30));
+                Booking second = testData.booking(customer, null, service, BookingStatus.PENDING, on.atTime(11, 15));
+
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<Boolean>> results = new ArrayList<>();
+                for (Booking booking : List.of(first, second)) {
+                    results.add(pool.submit(() -> {
+                        start.await();
+                        try {
+                            bookingService.assignProvider(booking.getId(), provider.getId());
+                            return true;
+                        } catch (BadRequestException | ConflictException e) {
+                            return false;
+                        }
+                    }));
+                }
+                start.countDown();
+
+                int won = 0;
+                for (Future<Boolean> result : results) {
+                    if (result.get(30, TimeUnit.SECONDS)) won++;
+                }
+
+                assertThat(won).as("round %d", round).isEqualTo(1);
+                assertThat(acceptedOn(on)).as("round %d", round).isEqualTo(1);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // Written straight to the table, so the in-memory index never heard of it
+    @Test
+    void databaseGuardRejectsOverlapTheIndexHasNotSeen() {
+        testData.booking(customer, provider, service, BookingStatus.ACCEPTED, day.atTime(14, 40));
+        Booking pending = testData.booking(customer, null, service, BookingStatus.PENDING, day.atTime(15, 10));
+
+        assertThat(scheduleIndex.findConflict(provider.getId(), day.atTime(15, 10), pending.getId())).isNull();
+
+        assertThatThrownBy(() -> bookingService.assignProvider(pending.getId(), provider.getId()))
+                .isInstanceOf(BadRequestException.class);
+        assertThat(bookingRepository.findById(pending.getId()).orElseThrow().getStatus())
+                .isEqualTo(BookingStatus.PENDING);
+    }
+
+    @Test
+    void adjacentSlotsAreNotAConflict() {
+        Booking morning = testData.booking(customer, null, service, BookingStatus.PENDING, day.atTime(9, 0));
+        Booking next = testData.booking(customer, null, service, BookingStatus.PENDING, day.atTime(10, 0));
+
+        bookingService.assignProvider(morning.getId(), provider.getId());
+        bookingService.assignProvider(next.getId(), provider.getId());
+
+        assertThat(acceptedOn(day)).isEqualTo(2);
+    }
+
+    @Test
+    void backfillFillsLegacySlotsAndSkipsClashes() {
+        Booking legacy = testData.booking(customer, provider, service, BookingStatus.ACCEPTED, day.atTime(12, 20));
+        Booking clash = testData.booking(customer, provider, service, BookingStatus.ACCEPTED, day.atTime(12, 40));
+        Booking pending = testData.booking(customer, provider, service, BookingStatus.PENDING, day.atTime(16, 0));
+
+        scheduleIndex.backfillProviderSlots();
+
+        LocalDateTime legacySlot = bookingRepository.findById(legacy.getId()).orElseThrow().getProviderSlot();
+        LocalDateTime clashSlot = bookingRepository.findById(clash.getId()).orElseThrow().getProviderSlot();
+
+        // same grid cell: whichever went first holds it, the other is logged and stays empty
+        assertThat(legacySlot == null ^ clashSlot == null).isTrue();
+        assertThat(legacySlot != null ? legacySlot : clashSlot).isEqualTo(day.atTime(12, 0));
+        assertThat(bookingRepository.findById(pending.getId()).orElseThrow().getProviderSlot()).isNull();
+    }
+
+    private long acceptedOn(LocalDate on) {
+        return bookingRepository.findAll().stream()
+                .filter(b -> b.getProvider() != null && b.getProvider().getId().equals(provider.getId()))
+                .filter(b -> b.getStatus() == BookingStatus.ACCEPTED)
+                .filter(b -> b.getBookingDateTime().toLocalDate().equals(on))
+                .count();
+    }
+}
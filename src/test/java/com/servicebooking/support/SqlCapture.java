@@ -0,0 +1,28 @@
+package com.servicebooking.support;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Records the SQL Hibernate prepares on the current thread. Enable with
+// spring.jpa.properties.hibernate.session_factory.statement_inspector=
+// com.servicebooking.support.SqlCapture
+public class SqlCapture implements StatementInspector {
+
+    private static final ThreadLocal<List<String>> STATEMENTS = ThreadLocal.withInitial(ArrayList::new);
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.get().add(sql);
+        return sql;
+    }
+
+    public static void clear() {
+        STATEMENTS.get().clear();
+    }
+
+    public static List<String> statements() {
+        return List.copyOf(STATEMENTS.get());
+    }
+}
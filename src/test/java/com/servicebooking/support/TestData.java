@@ -0,0 +1,131 @@
+package com.servicebooking.support;
+
+import com.servicebooking.entity.*;
+import com.servicebooking.enums.BookingStatus;
+import com.servicebooking.enums.PaymentMethod;
+import com.servicebooking.enums.PaymentStatus;
+import com.servicebooking.enums.ProviderStatus;
+import com.servicebooking.enums.UserRole;
+import com.servicebooking.repository.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestComponent;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Seeds users, profiles, catalog rows and bookings straight through the
+// repositories. Import it into a @SpringBootTest with @Import(TestData.class).
+@TestComponent
+public class TestData {
+
+    private static final AtomicLong SEQ = new AtomicLong(System.nanoTime() % 1_000_000);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CustomerProfileRepository customerProfileRepository;
+
+    @Autowired
+    private ProviderProfileRepository providerProfileRepository;
+
+    @Autowired
+    private ServiceCategoryRepository categoryRepository;
+
+    @Autowired
+    private ServiceItemRepository serviceItemRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private RatingRepository ratingRepository;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    public User user(UserRole role) {
+        long n = SEQ.incrementAndGet();
+        User user = new User();
+        user.setName(role.name().toLowerCase() + " " + n);
+        user.setEmail(role.name().toLowerCase() + n + "@example.com");
+        user.setMobileNumber(String.valueOf(7_000_000_000L + n));
+        user.setPassword("$2a$04$unused");
+        user.setRole(role);
+        return userRepository.save(user);
+    }
+
+    public CustomerProfile customer() {
+        User user = user(UserRole.CUSTOMER);
+        CustomerProfile profile = new CustomerProfile();
+        profile.setUser(user);
+        profile.setEmail(user.getEmail());
+        return customerProfileRepository.save(profile);
+    }
+
+    public ProviderProfile provider() {
+        ProviderProfile profile = new ProviderProfile();
+        profile.setUser(user(UserRole.PROVIDER));
+        profile.setStatus(ProviderStatus.APPROVED);
+        return providerProfileRepository.save(profile);
+    }
+
+    public ServiceItem service() {
+        long n = SEQ.incrementAndGet();
+        ServiceCategory category = new ServiceCategory();
+        category.setName("Category " + n);
+        category = categoryRepository.save(category);
+
+        ServiceItem item = new ServiceItem();
+        item.setCategory(category);
+        item.setName("Service " + n);
+        item.setBasePrice(new BigDecimal("499.00"));
+        return serviceItemRepository.save(item);
+    }
+
+    public Booking booking(CustomerProfile customer, ProviderProfile provider, ServiceItem service,
+                           BookingStatus status, LocalDateTime at) {
+        Booking booking = new Booking();
+        booking.setCustomer(customer);
+        booking.setProvider(provider);
+        booking.setService(service);
+        booking.setBookingDateTime(at);
+        booking.setLocation("Test street 1");
+        booking.setStatus(status);
+        booking.setAmount(service.getBasePrice());
+        booking.setCustomerName(customer.getUser().getName());
+        booking.setProviderName(provider == null ? null : provider.getUser().getName());
+        return bookingRepository.save(booking);
+    }
+
+    public Payment payment(Booking booking, PaymentStatus status) {
+        Payment payment = new Payment();
+        payment.setBooking(booking);
+        payment.setAmount(booking.getAmount());
+        payment.setMethod(PaymentMethod.UPI);
+        payment.setStatus(status);
+        return paymentRepository.save(payment);
+    }
+
+    public Rating rating(Booking booking, int stars) {
+        Rating rating = new Rating();
+        rating.setBooking(booking);
+        rating.setProvider(booking.getProvider());
+        rating.setStars(stars);
+        rating.setComment("stars " + stars);
+        return ratingRepository.save(rating);
+    }
+
+    public Notification notification(User user, boolean read) {
+        Notification notification = new Notification();
+        notification.setUser(user);
+        notification.setTitle("Title");
+        notification.setMessage("Message");
+        notification.setIsRead(read);
+        return notificationRepository.save(notification);
+    }
+}
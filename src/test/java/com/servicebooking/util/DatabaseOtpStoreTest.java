@@ -0,0 +1,83 @@
+package com.servicebooking.util;
+
+import com.servicebooking.dto.request.ResetPasswordRequest;
+import com.servicebooking.entity.User;
+import com.servicebooking.enums.UserRole;
+import com.servicebooking.exception.BadRequestException;
+import com.servicebooking.repository.OtpCodeRepository;
+import com.servicebooking.repository.UserRepository;
+import com.servicebooking.service.AuthService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {"otp.store=database", "otp.max-attempts=3"})
+@ActiveProfiles("test")
+class DatabaseOtpStoreTest {
+
+    private static final String EMAIL = "otp-lockout@example.com";
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private OtpService otpService;
+
+    @Autowired
+    private OtpCodeRepository otpCodeRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void setUp() {
+        if (userRepository.findByEmailIgnoreCase(EMAIL).isEmpty()) {
+            User user = new User();
+            user.setName("Otp Lockout");
+            user.setEmail(EMAIL);
+            user.setMobileNumber("9000000001");
+            user.setPassword("unused");
+            user.setRole(UserRole.CUSTOMER);
+            userRepository.save(user);
+        }
+        otpService.storeOtp(EMAIL, "424242");
+    }
+
+    @Test
+    void wrongGuessesSurviveResetPasswordRollback() {
+
+        assertThatThrownBy(() -> resetWith("000000"))
+                .isInstanceOf(BadRequestException.class);
+
+        assertThat(otpCodeRepository.findAll())
+                .filteredOn(code -> code.getEmail().equals(EMAIL))
+                .singleElement()
+                .satisfies(code -> assertThat(code.getFailedAttempts()).isEqualTo(1));
+    }
+
+    @Test
+    void maxWrongGuessesLockOutTheOtp() {
+
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(() -> resetWith("000000"))
+                    .isInstanceOf(BadRequestException.class);
+        }
+
+        assertThat(otpCodeRepository.findAll())
+                .noneMatch(code -> code.getEmail().equals(EMAIL));
+
+        // the right code no longer works once locked out
+        assertThatThrownBy(() -> resetWith("424242"))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("Invalid or expired OTP");
+    }
+
+    private void resetWith(String otp) {
+        authService.resetPassword(new ResetPasswordRequest(EMAIL, otp, "new-password-1"));
+    }
+}
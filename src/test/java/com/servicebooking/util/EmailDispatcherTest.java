@@ -0,0 +1,105 @@
+package com.servicebooking.util;
+
+import com.servicebooking.entity.EmailOutbox;
+import com.servicebooking.enums.EmailStatus;
+import com.servicebooking.repository.EmailOutboxRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {"mail.outbox.max-attempts=2", "mail.outbox.backoff-base-ms=0"})
+@ActiveProfiles("test")
+class EmailDispatcherTest {
+
+    private static final SmtpStandIn smtp = startSmtp();
+
+    @DynamicPropertySource
+    static void mailProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.mail.port", smtp::getPort);
+    }
+
+    @AfterAll
+    static void stopSmtp() throws IOException {
+        smtp.close();
+    }
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private EmailDispatcher emailDispatcher;
+
+    @Autowired
+    private EmailOutboxRepository outboxRepository;
+
+    @BeforeEach
+    void setUp() {
+        outboxRepository.deleteAll();
+        smtp.reset();
+    }
+
+    @Test
+    void batchIsDeliveredOverOneConnection() {
+
+        for (int i = 0; i < 5; i++) {
+            emailService.sendEmail("user" + i + "@example.com", "Subject " + i, "Body " + i);
+        }
+
+        emailDispatcher.dispatch();
+
+        assertThat(smtp.getReceived()).hasSize(5);
+        assertThat(smtp.getConnections()).isEqualTo(1);
+        assertThat(outboxRepository.findAll())
+                .allSatisfy(email -> {
+                    assertThat(email.getStatus()).isEqualTo(EmailStatus.SENT);
+                    assertThat(email.getSentAt()).isNotNull();
+                });
+    }
+
+    @Test
+    void rejectedRecipientIsRetriedThenDeadLettered() {
+
+        emailService.sendEmail("ok@example.com", "Hello", "Body");
+        emailService.sendEmail("reject@example.com", "Hello", "Body");
+
+        emailDispatcher.dispatch();
+
+        Map<String, EmailOutbox> byRecipient = byRecipient();
+        assertThat(byRecipient.get("ok@example.com").getStatus()).isEqualTo(EmailStatus.SENT);
+        assertThat(byRecipient.get("reject@example.com").getStatus()).isEqualTo(EmailStatus.PENDING);
+        assertThat(byRecipient.get("reject@example.com").getAttempts()).isEqualTo(1);
+        assertThat(byRecipient.get("reject@example.com").getLastError()).isNotBlank();
+
+        emailDispatcher.dispatch();
+
+        EmailOutbox rejected = byRecipient().get("reject@example.com");
+        assertThat(rejected.getStatus()).isEqualTo(EmailStatus.DEAD);
+        assertThat(rejected.getAttempts()).isEqualTo(2);
+        assertThat(smtp.getReceived()).hasSize(1);
+    }
+
+    private Map<String, EmailOutbox> byRecipient() {
+        return outboxRepository.findAll().stream()
+                .collect(Collectors.toMap(EmailOutbox::getRecipient, Function.identity()));
+    }
+
+    private static SmtpStandIn startSmtp() {
+        try {
+            return new SmtpStandIn();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.servicebooking.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Minimal in-process SMTP server for dispatcher tests. Accepts everything except
+// recipients containing "reject", which get a permanent 550 on RCPT TO.
+class SmtpStandIn implements AutoCloseable {
+
+    record Received(List<String> recipients, String data) {
+    }
+
+    private final ServerSocket serverSocket;
+    private final Thread acceptor;
+
+    private final List<Received> received = new CopyOnWriteArrayList<>();
+    private final AtomicInteger connections = new AtomicInteger();
+
+    SmtpStandIn() throws IOException {
+        serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        acceptor = new Thread(this::acceptLoop, "smtp-stand-in");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    List<Received> getReceived() {
+        return received;
+    }
+
+    int getConnections() {
+        return connections.get();
+    }
+
+    void reset() {
+        received.clear();
+        connections.set(0);
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try (Socket socket = serverSocket.accept()) {
+                connections.incrementAndGet();
+                converse(socket);
+            } catch (IOException e) {
+                // closed, or the client hung up mid-session
+            }
+        }
+    }
+
+    private void converse(Socket socket) throws IOException {
+
+        BufferedReader in = new BufferedReader(
+                new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+        PrintWriter out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.US_ASCII);
+
+        reply(out, "220 stand-in ESMTP");
+
+        List<String> recipients = new CopyOnWriteArrayList<>();
+        String line;
+
+        while ((line = in.readLine()) != null) {
+
+            String command = line.toUpperCase();
+
+            if (command.startsWith("RCPT TO")) {
+                if (command.contains("REJECT")) {
+                    reply(out, "550 mailbox unavailable");
+                } else {
+                    recipients.add(line.substring(line.indexOf(':') + 1).trim());
+                    reply(out, "250 OK");
+                }
+            } else if (command.equals("DATA")) {
+                reply(out, "354 end with <CRLF>.<CRLF>");
+                StringBuilder data = new StringBuilder();
+                while ((line = in.readLine()) != null && !line.equals(".")) {
+                    data.append(line).append('\n');
+                }
+                received.add(new Received(List.copyOf(recipients), data.toString()));
+                recipients.clear();
+                reply(out, "250 queued");
+            } else if (command.startsWith("MAIL FROM") || command.equals("RSET")) {
+                recipients.clear();
+                reply(out, "250 OK");
+            } else if (command.equals("QUIT")) {
+                reply(out, "221 bye");
+                return;
+            } else {
+                reply(out, "250 OK");
+            }
+        }
+    }
+
+    private static void reply(PrintWriter out, String line) {
+        out.print(line + "\r\n");
+        out.flush();
+    }
+}